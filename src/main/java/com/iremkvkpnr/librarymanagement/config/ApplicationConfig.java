@@ -2,7 +2,9 @@ package com.iremkvkpnr.librarymanagement.config;
 
 import com.iremkvkpnr.librarymanagement.model.entity.User;
 import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.security.service.CachedUserDetailsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -22,15 +24,17 @@ public class ApplicationConfig {
     private final UserRepository userRepository;
 
     @Bean
-    public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public UserDetailsService userDetailsService(@Value("${application.security.user-cache.enabled:true}") boolean cacheEnabled,
+                                                 @Value("${application.security.user-cache.max-size:10000}") int maxSize) {
+        return new CachedUserDetailsService(userRepository::findByEmail, cacheEnabled, maxSize);
     }
 
     @Bean
     public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService());
+        // Login checks the password, so it always reads the user entity instead of the cached snapshot.
+        authProvider.setUserDetailsService(username -> userRepository.findByEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found")));
         authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
@@ -1,6 +1,9 @@
 package com.iremkvkpnr.librarymanagement.config;
 
 import com.iremkvkpnr.librarymanagement.security.service.JwtService;
+import com.iremkvkpnr.librarymanagement.security.service.TokenRevocationService;
+import com.iremkvkpnr.librarymanagement.security.service.VerifiedToken;
+import com.iremkvkpnr.librarymanagement.security.service.VerifiedTokenCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +19,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -23,6 +27,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(
@@ -39,7 +45,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final VerifiedToken verifiedToken;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -48,8 +54,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
 
+        Optional<VerifiedTokenCache.Entry> cached = verifiedTokenCache.get(jwt);
+        if (cached.isPresent() && !tokenRevocationService.isRevoked(cached.get().token())) {
+            request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, cached.get().token());
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                authenticate(request, cached.get().principal());
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            verifiedToken = jwtService.verify(jwt);
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
@@ -57,21 +73,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        // Keep the verified claims on the request so downstream lookups skip the parse entirely.
+        request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verifiedToken);
+
+        String userEmail = verifiedToken.subject();
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            long generation = verifiedTokenCache.generation();
+            UserDetails userDetails = loadPrincipal(verifiedToken);
+            if (userDetails != null && jwtService.isTokenValid(verifiedToken, userDetails)) {
+                verifiedTokenCache.put(verifiedToken, userDetails, generation);
+                authenticate(request, userDetails);
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails loadPrincipal(VerifiedToken verifiedToken) {
+        if (tokenRevocationService.isRevoked(verifiedToken)) {
+            return null;
+        }
+        if (jwtService.isStateless() && verifiedToken.isSelfContained()) {
+            return jwtService.toPrincipal(verifiedToken);
+        }
+        return this.userDetailService.loadUserByUsername(verifiedToken.subject());
+    }
+
+    private void authenticate(HttpServletRequest request, UserDetails userDetails) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
\ No newline at end of file
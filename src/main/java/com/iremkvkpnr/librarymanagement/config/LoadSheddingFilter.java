@@ -0,0 +1,114 @@
+package com.iremkvkpnr.librarymanagement.config;
+
+import com.iremkvkpnr.librarymanagement.service.admission.AdaptiveConcurrencyLimiter;
+import com.iremkvkpnr.librarymanagement.service.admission.RequestPriority;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Sheds requests with 503 when the adaptive concurrency limit for their priority is reached.
+ * Runs ahead of the security chain so that a rejected request costs no token verification or user lookup.
+ * Requests that go async keep their slot until they complete but contribute no latency sample, since a
+ * streamed response is expected to take long.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (!limiter.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Optional<RequestPriority> priority = limiter.priorityOf(request.getRequestURI().substring(request.getContextPath().length()));
+        if (priority.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire(priority.get())) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("application/json");
+            response.getWriter().write("{\"message\": \"Service is overloaded, please retry\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(priority.get()));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release(priority.get(), System.nanoTime() - start);
+            }
+        }
+    }
+
+    private final class ReleasingListener implements AsyncListener {
+
+        private final RequestPriority priority;
+        private boolean released;
+
+        private ReleasingListener(RequestPriority priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the next async cycle of the same request
+            event.getAsyncContext().addListener(this);
+        }
+
+        private synchronized void release() {
+            if (!released) {
+                released = true;
+                limiter.release(priority, -1);
+            }
+        }
+    }
+}
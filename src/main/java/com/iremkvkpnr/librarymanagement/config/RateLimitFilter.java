@@ -0,0 +1,73 @@
+package com.iremkvkpnr.librarymanagement.config;
+
+import com.iremkvkpnr.librarymanagement.security.ratelimit.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the per-user bucket of the endpoint once the JWT filter has authenticated the caller, and
+ * the per-IP bucket for anonymous callers only, so patrons sharing a campus NAT do not share a bucket.
+ * The client IP is the remote address as resolved by the server's forwarded-header handling
+ * (server.forward-headers-strategy), which only trusts X-Forwarded-For from configured proxies.
+ * Rejected requests get 429 with Retry-After.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (!rateLimiter.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Optional<RateLimiter.Rule> rule = rateLimiter.ruleFor(path);
+        if (rule.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        long wait;
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            wait = rateLimiter.tryAcquire(rule.get(), "user:" + authentication.getName());
+        } else {
+            wait = rateLimiter.tryAcquire(rule.get(), "ip:" + request.getRemoteAddr());
+        }
+
+        if (wait > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Too many requests\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -1,21 +1,28 @@
 package com.iremkvkpnr.librarymanagement.controller;
 
+import com.iremkvkpnr.librarymanagement.model.dto.request.BatchBorrowingRequest;
+import com.iremkvkpnr.librarymanagement.model.dto.request.BatchReturnRequest;
+import com.iremkvkpnr.librarymanagement.model.dto.request.BorrowingHistoryFilter;
 import com.iremkvkpnr.librarymanagement.model.dto.request.BorrowingRequest;
 import com.iremkvkpnr.librarymanagement.model.dto.request.ReturnRequest;
 import com.iremkvkpnr.librarymanagement.model.dto.response.BookResponse;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryPage;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryRow;
 import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingResponse;
 import com.iremkvkpnr.librarymanagement.model.dto.response.ErrorResponse;
-import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
-import com.iremkvkpnr.librarymanagement.model.mapper.BookMapper;
 import com.iremkvkpnr.librarymanagement.model.mapper.BorrowingMapper;
 import com.iremkvkpnr.librarymanagement.service.BorrowingService;
-import com.iremkvkpnr.librarymanagement.security.service.JwtService;
+import com.iremkvkpnr.librarymanagement.service.IdempotencyService;
+import com.iremkvkpnr.librarymanagement.security.web.CurrentUser;
+import com.iremkvkpnr.librarymanagement.service.report.OverdueReportFormat;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -25,6 +32,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -32,12 +41,15 @@ import java.util.List;
 @PreAuthorize("hasAnyRole('LIBRARIAN', 'PATRON')")
 @Tag(name = "Borrowing Management", description = "Endpoints for borrowing and returning books.")
 public class BorrowingController {
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BorrowingService borrowingService;
-    private final JwtService jwtService;
+    private final IdempotencyService idempotencyService;
 
-    public BorrowingController(BorrowingService borrowingService, JwtService jwtService) {
+    public BorrowingController(BorrowingService borrowingService, IdempotencyService idempotencyService) {
         this.borrowingService = borrowingService;
-        this.jwtService = jwtService;
+        this.idempotencyService = idempotencyService;
     }
 
     @Operation(
@@ -61,10 +73,37 @@ public class BorrowingController {
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasRole('PATRON')")
     public ResponseEntity<BorrowingResponse> borrowBook(@Valid @RequestBody BorrowingRequest request,
-                                                       @RequestHeader("Authorization") String authorizationHeader) {
-        String token = authorizationHeader.replace("Bearer ", "");
-        Long userId = jwtService.extractUserId(token);
-        BorrowingResponse response = borrowingService.borrowBook(userId, request.bookId());
+                                                       @CurrentUser Long userId,
+                                                       @Parameter(description = "Optional key that makes retries return the original response")
+                                                       @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        BorrowingResponse response = idempotencyService.execute(userId, "borrow", idempotencyKey,
+                "bookId=" + request.bookId(), BorrowingResponse.class,
+                () -> borrowingService.borrowBook(userId, request.bookId()));
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @Operation(
+        summary = "Borrow several books",
+        description = "Patrons can borrow several available books in one checkout. All rules are checked once for the whole batch. Requires JWT token with PATRON role.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            required = true,
+            content = @Content(
+                schema = @Schema(implementation = BatchBorrowingRequest.class)
+            )
+        )
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Books borrowed successfully"),
+        @ApiResponse(responseCode = "400", description = "Validation error or bad request", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Validation error\"}"))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token missing or invalid", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Unauthorized\"}"))),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Forbidden\"}"))),
+        @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Internal server error\"}")))
+    })
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('PATRON')")
+    public ResponseEntity<List<BorrowingResponse>> borrowBooks(@Valid @RequestBody BatchBorrowingRequest request,
+                                                               @CurrentUser Long userId) {
+        List<BorrowingResponse> response = borrowingService.borrowBooks(userId, request.bookIds());
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
@@ -89,11 +128,38 @@ public class BorrowingController {
     @PostMapping("/return")
     @PreAuthorize("hasRole('PATRON')")
     public ResponseEntity<BorrowingResponse> returnBook(@Valid @RequestBody ReturnRequest request,
-                                           @RequestHeader("Authorization") String authorizationHeader) {
-        String token = authorizationHeader.replace("Bearer ", "");
-        Long userId = jwtService.extractUserId(token);
-        Borrowing borrowing = borrowingService.returnBook(userId, request.borrowingId());
-        return ResponseEntity.ok(BorrowingMapper.toDto(borrowing));
+                                           @CurrentUser Long userId,
+                                           @Parameter(description = "Optional key that makes retries return the original response")
+                                           @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        BorrowingResponse response = idempotencyService.execute(userId, "return", idempotencyKey,
+                "borrowingId=" + request.borrowingId(), BorrowingResponse.class,
+                () -> BorrowingMapper.toDto(borrowingService.returnBook(userId, request.borrowingId())));
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+        summary = "Return several books",
+        description = "Librarians and book-drop devices can close many borrowings at once, either by borrowing IDs or by book IDs. Requires JWT token with LIBRARIAN role.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            required = true,
+            content = @Content(
+                schema = @Schema(implementation = BatchReturnRequest.class)
+            )
+        )
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Books returned successfully; the closed borrowings are returned"),
+        @ApiResponse(responseCode = "400", description = "Validation error or bad request", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Validation error\"}"))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token missing or invalid", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Unauthorized\"}"))),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Forbidden\"}"))),
+        @ApiResponse(responseCode = "404", description = "Not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Not found\"}"))),
+        @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Internal server error\"}")))
+    })
+    @PostMapping(value = "/return/batch", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<List<BorrowingResponse>> returnBooks(@RequestBody BatchReturnRequest request) {
+        List<BorrowingResponse> response = borrowingService.returnBooks(request.borrowingIds(), request.bookIds());
+        return ResponseEntity.ok(response);
     }
 
     @Operation(
@@ -110,19 +176,16 @@ public class BorrowingController {
     })
     @GetMapping("/history")
     public ResponseEntity<List<BorrowingResponse>> getUserBorrowingHistory(
-        @RequestHeader("Authorization") String authorizationHeader) {
-        String token = authorizationHeader.replace("Bearer ", "");
-        Long userId = jwtService.extractUserId(token);
-        List<Borrowing> borrowings = borrowingService.getUserBorrowingHistory(userId);
-        List<BorrowingResponse> response = borrowings.stream()
-                .map(BorrowingMapper::toDto)
+        @CurrentUser Long userId) {
+        List<BorrowingResponse> response = borrowingService.getUserBorrowingHistory(userId).stream()
+                .map(BorrowingHistoryRow::toResponse)
                 .toList();
         return ResponseEntity.ok(response);
     }
 
     @Operation(
         summary = "Get all borrowing history",
-        description = "Librarians can get the borrowing history of all users. Requires JWT token with LIBRARIAN role."
+        description = "Librarians can page through the borrowing history of all users, newest first, filtered by user, book and creation date. The cursor of the next page is returned in the X-Next-Cursor header. Requires JWT token with LIBRARIAN role."
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "All borrowing history returned successfully"),
@@ -135,12 +198,51 @@ public class BorrowingController {
     @GetMapping("/history/all")
     @PreAuthorize("hasRole('LIBRARIAN')")
     public ResponseEntity<List<BorrowingResponse>> getAllBorrowingHistory(
-        @Parameter(description = "ID of the librarian", example = "1") @RequestParam Long librarianId) {
-        List<Borrowing> borrowings = borrowingService.getAllBorrowingHistory(librarianId);
-        List<BorrowingResponse> response = borrowings.stream()
-                .map(BorrowingMapper::toDto)
+        @Parameter(description = "ID of the librarian", example = "1") @RequestParam Long librarianId,
+        @Parameter(description = "Only records of this user") @RequestParam(required = false) Long userId,
+        @Parameter(description = "Only records of this book") @RequestParam(required = false) Long bookId,
+        @Parameter(description = "Records created on or after this day", example = "2024-01-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @Parameter(description = "Records created on or before this day", example = "2024-12-31") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @Parameter(description = "Value of the " + NEXT_CURSOR_HEADER + " header of the previous page") @RequestParam(required = false) String cursor,
+        @Parameter(description = "Page size (1-500)", example = "50") @RequestParam(defaultValue = "50") int size) {
+        BorrowingHistoryPage page = borrowingService.getAllBorrowingHistory(
+                librarianId, new BorrowingHistoryFilter(userId, bookId, from, to), cursor, size);
+        List<BorrowingResponse> response = page.items().stream()
+                .map(BorrowingHistoryRow::toResponse)
                 .toList();
-        return ResponseEntity.ok(response);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return builder.body(response);
+    }
+
+    @Operation(
+        summary = "Stream all borrowing history",
+        description = "Librarians can stream the borrowing history of all users as NDJSON, newest first, with the same filters as the paged endpoint. Requires JWT token with LIBRARIAN role."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Borrowing history streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Bad request"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token missing or invalid"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/history/all/stream", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<StreamingResponseBody> streamAllBorrowingHistory(
+        @Parameter(description = "ID of the librarian", example = "1") @RequestParam Long librarianId,
+        @Parameter(description = "Only records of this user") @RequestParam(required = false) Long userId,
+        @Parameter(description = "Only records of this book") @RequestParam(required = false) Long bookId,
+        @Parameter(description = "Records created on or after this day", example = "2024-01-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @Parameter(description = "Records created on or before this day", example = "2024-12-31") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @Parameter(description = "Resume after this cursor") @RequestParam(required = false) String cursor) {
+        borrowingService.verifyHistoryAccess(librarianId);
+        BorrowingHistoryFilter filter = new BorrowingHistoryFilter(userId, bookId, from, to);
+        StreamingResponseBody body = out -> borrowingService.writeAllBorrowingHistory(filter, cursor, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     @Operation(
@@ -157,16 +259,12 @@ public class BorrowingController {
     })
     @GetMapping("/overdue-books")
     public ResponseEntity<List<BookResponse>> getOverdueBooks() {
-        List<Borrowing> overdueBorrowings = borrowingService.getOverdueBooks();
-        List<BookResponse> bookResponses = overdueBorrowings.stream()
-                .map(borrowing -> BookMapper.toDto(borrowing.getBook()))
-                .toList();
-        return ResponseEntity.ok(bookResponses);
+        return ResponseEntity.ok(borrowingService.getOverdueBooks());
     }
 
     @Operation(
         summary = "Get overdue books report",
-        description = "Librarians can generate a report for overdue books. Requires JWT token with LIBRARIAN role."
+        description = "Librarians can generate a report for overdue books. The report is streamed row by row as text, csv or ndjson. Requires JWT token with LIBRARIAN role."
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Overdue books report generated successfully"),
@@ -178,9 +276,14 @@ public class BorrowingController {
     })
     @PreAuthorize("hasRole('LIBRARIAN')")
     @GetMapping("/overdue-books/report")
-    public ResponseEntity<String> getOverdueBooksReport(
-        @Parameter(description = "ID of the librarian", example = "1") @RequestParam Long librarianId) {
-        String report = borrowingService.generateOverdueBooksReport(librarianId);
-        return ResponseEntity.ok(report);
+    public ResponseEntity<StreamingResponseBody> getOverdueBooksReport(
+        @Parameter(description = "ID of the librarian", example = "1") @RequestParam Long librarianId,
+        @Parameter(description = "Report format: text, csv or ndjson", example = "csv") @RequestParam(defaultValue = "text") String format) {
+        OverdueReportFormat reportFormat = OverdueReportFormat.from(format);
+        borrowingService.verifyReportAccess(librarianId);
+        StreamingResponseBody body = out -> borrowingService.writeOverdueBooksReport(reportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(reportFormat.getMediaType()), StandardCharsets.UTF_8))
+                .body(body);
     }
 }
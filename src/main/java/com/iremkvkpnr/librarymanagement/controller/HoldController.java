@@ -0,0 +1,108 @@
+package com.iremkvkpnr.librarymanagement.controller;
+
+import com.iremkvkpnr.librarymanagement.model.dto.request.BorrowingRequest;
+import com.iremkvkpnr.librarymanagement.model.dto.response.ErrorResponse;
+import com.iremkvkpnr.librarymanagement.model.dto.response.HoldResponse;
+import com.iremkvkpnr.librarymanagement.model.event.HoldFulfilledEvent;
+import com.iremkvkpnr.librarymanagement.security.web.CurrentUser;
+import com.iremkvkpnr.librarymanagement.service.HoldNotificationService;
+import com.iremkvkpnr.librarymanagement.service.HoldService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/holds")
+@PreAuthorize("hasRole('PATRON')")
+@Tag(name = "Hold Management", description = "Endpoints for queueing for books that have no available copies.")
+public class HoldController {
+    private final HoldService holdService;
+    private final HoldNotificationService holdNotificationService;
+
+    public HoldController(HoldService holdService, HoldNotificationService holdNotificationService) {
+        this.holdService = holdService;
+        this.holdNotificationService = holdNotificationService;
+    }
+
+    @Operation(
+        summary = "Place a hold",
+        description = "Patrons can join the hold queue of a book that has no available copies. The next returned copy is handed to the oldest eligible holder.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            required = true,
+            content = @Content(
+                schema = @Schema(implementation = BorrowingRequest.class)
+            )
+        )
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Hold placed successfully"),
+        @ApiResponse(responseCode = "400", description = "Validation error or bad request", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Validation error\"}"))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token missing or invalid", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Unauthorized\"}"))),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Forbidden\"}"))),
+        @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class), examples = @ExampleObject(value = "{\"message\": \"Internal server error\"}")))
+    })
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<HoldResponse> placeHold(@Valid @RequestBody BorrowingRequest request,
+                                                  @CurrentUser Long userId) {
+        HoldResponse response = holdService.placeHold(userId, request.bookId());
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @Operation(
+        summary = "Get user holds",
+        description = "Get the holds of the patron with their current queue positions."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Holds returned successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token missing or invalid"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping
+    public ResponseEntity<List<HoldResponse>> getUserHolds(@CurrentUser Long userId) {
+        return ResponseEntity.ok(holdService.getUserHolds(userId));
+    }
+
+    @Operation(
+        summary = "Cancel a hold",
+        description = "Patrons can leave the hold queue of a book."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Hold cancelled successfully"),
+        @ApiResponse(responseCode = "400", description = "Bad request"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token missing or invalid"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Hold not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelHold(
+        @Parameter(description = "ID of the hold to cancel", example = "1") @PathVariable Long id,
+        @CurrentUser Long userId) {
+        holdService.cancelHold(userId, id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+        summary = "Stream hold notifications",
+        description = "Server-sent events for the patron whenever a returned copy is handed over from the hold queue."
+    )
+    @GetMapping(value = "/notifications", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<HoldFulfilledEvent> streamHoldNotifications(@CurrentUser Long userId) {
+        return holdNotificationService.streamForUser(userId);
+    }
+}
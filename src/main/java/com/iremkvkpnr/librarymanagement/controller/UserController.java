@@ -1,8 +1,10 @@
 package com.iremkvkpnr.librarymanagement.controller;
 
 import com.iremkvkpnr.librarymanagement.model.dto.request.UserRequest;
+import com.iremkvkpnr.librarymanagement.model.dto.response.UserImportReport;
 import com.iremkvkpnr.librarymanagement.model.dto.response.UserResponse;
 import com.iremkvkpnr.librarymanagement.service.UserService;
+import com.iremkvkpnr.librarymanagement.service.provisioning.UserImportService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -19,14 +21,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import com.iremkvkpnr.librarymanagement.model.dto.response.ErrorResponse;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/api/users")
 @Tag(name = "User Management", description = "Endpoints for managing users in the library.")
 public class UserController {
     private final UserService userService;
+    private final UserImportService userImportService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService) {
         this.userService = userService;
+        this.userImportService = userImportService;
     }
 
     @Operation(
@@ -53,6 +59,29 @@ public class UserController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @Operation(
+        summary = "Import users from CSV",
+        description = "Librarians can create many users at once by uploading a CSV file with a header line. " +
+                "Columns name, email and password are required; phone and role are optional and role defaults to PATRON. " +
+                "Rows that cannot be imported are listed in the report and do not stop the import.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            required = true,
+            content = @Content(mediaType = "text/csv", examples = @ExampleObject(value = "name,email,password,phone,role\nJane Doe,jane@school.edu,changeme123,,PATRON"))
+        )
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Import finished; see the report for rejected rows"),
+        @ApiResponse(responseCode = "400", description = "File is empty or its header lacks a required column"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token missing or invalid"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping(value = "/import", produces = MediaType.APPLICATION_JSON_VALUE, consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    @PreAuthorize("hasRole('ROLE_LIBRARIAN')")
+    public ResponseEntity<UserImportReport> importUsers(InputStream csv) {
+        return ResponseEntity.ok(userImportService.importCsv(csv));
+    }
+
     @Operation(
         summary = "Get user details",
         description = "Librarians can get detailed information about a user by their ID."
@@ -0,0 +1,13 @@
+package com.iremkvkpnr.librarymanagement.model.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record BatchBorrowingRequest(
+        @Schema(description = "IDs of the books to be borrowed in one checkout")
+        @NotEmpty(message = "Book IDs must not be empty")
+        List<@NotNull(message = "Book ID must not be null") Long> bookIds
+) { }
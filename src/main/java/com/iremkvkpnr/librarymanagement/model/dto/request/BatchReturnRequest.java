@@ -0,0 +1,12 @@
+package com.iremkvkpnr.librarymanagement.model.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record BatchReturnRequest(
+        @Schema(description = "IDs of the borrowing records to close. Either borrowingIds or bookIds must be given.")
+        List<Long> borrowingIds,
+        @Schema(description = "IDs of the returned books; each occurrence closes the oldest active borrowing of that book")
+        List<Long> bookIds
+) { }
@@ -0,0 +1,14 @@
+package com.iremkvkpnr.librarymanagement.model.dto.request;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for the borrowing history; null fields are ignored.
+ * The date range applies to the day the record was created and is inclusive on both ends.
+ */
+public record BorrowingHistoryFilter(
+        Long userId,
+        Long bookId,
+        LocalDate from,
+        LocalDate to
+) { }
@@ -0,0 +1,9 @@
+package com.iremkvkpnr.librarymanagement.model.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequest(
+        @NotBlank(message = "Refresh token is required")
+        String refreshToken
+) {
+}
@@ -4,6 +4,7 @@ import lombok.Builder;
 
 @Builder
 public record AuthenticationResponse(
-        String token
+        String token,
+        String refreshToken
 ) {
 }
@@ -0,0 +1,13 @@
+package com.iremkvkpnr.librarymanagement.model.dto.response;
+
+import java.util.List;
+
+/**
+ * One keyset page of borrowing history.
+ * @param items Rows of the page, newest first
+ * @param nextCursor Cursor of the next page, or null if this is the last page
+ */
+public record BorrowingHistoryPage(
+        List<BorrowingHistoryRow> items,
+        String nextCursor
+) { }
@@ -0,0 +1,28 @@
+package com.iremkvkpnr.librarymanagement.model.dto.response;
+
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of one borrowing record for history listings, including the (createdAt, id) keyset.
+ */
+public record BorrowingHistoryRow(
+        Long id,
+        LocalDateTime createdAt,
+        Long userId,
+        String userName,
+        Long bookId,
+        String bookTitle,
+        String bookAuthor,
+        LocalDate borrowDate,
+        LocalDate dueDate,
+        LocalDate returnDate,
+        Borrowing.Status status
+) {
+
+    public BorrowingResponse toResponse() {
+        return new BorrowingResponse(id, bookTitle, bookAuthor, userName, borrowDate, dueDate, returnDate);
+    }
+}
@@ -0,0 +1,16 @@
+package com.iremkvkpnr.librarymanagement.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+public record HoldResponse(
+        @Schema(description = "ID of the hold (a PENDING borrowing record)")
+        Long id,
+        Long bookId,
+        String bookTitle,
+        @Schema(description = "Time the patron joined the queue")
+        LocalDateTime requestedAt,
+        @Schema(description = "1-based position in the hold queue of the book")
+        long queuePosition
+) { }
@@ -0,0 +1,18 @@
+package com.iremkvkpnr.librarymanagement.model.dto.response;
+
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+
+import java.time.LocalDate;
+
+/**
+ * Flat projection of one overdue borrowing, read straight from the query without loading entities.
+ */
+public record OverdueReportRow(
+        Long borrowingId,
+        String bookTitle,
+        String userName,
+        String userEmail,
+        LocalDate borrowDate,
+        LocalDate dueDate,
+        Borrowing.Status status
+) { }
@@ -0,0 +1,31 @@
+package com.iremkvkpnr.librarymanagement.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record UserImportReport(
+        @Schema(description = "Number of data rows read from the file")
+        long rows,
+
+        @Schema(description = "Number of users created")
+        long created,
+
+        @Schema(description = "Number of rows that were rejected")
+        long failed,
+
+        @Schema(description = "Reason for each rejected row")
+        List<RowError> errors
+) {
+
+    public record RowError(
+            @Schema(description = "Line number in the file, the header being line 1")
+            long line,
+
+            @Schema(description = "Email of the row, if present")
+            String email,
+
+            @Schema(description = "Why the row was rejected")
+            String message
+    ) { }
+}
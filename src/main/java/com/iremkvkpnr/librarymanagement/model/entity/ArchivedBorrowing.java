@@ -0,0 +1,48 @@
+package com.iremkvkpnr.librarymanagement.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a returned borrowing, moved out of the borrowings table by the archiver.
+ * Keeps the ID it had in borrowings. User and book are plain columns without foreign keys so that
+ * archived rows never block deletes on the hot tables.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "borrowings_archive", indexes = {
+        @Index(name = "idx_borrowings_archive_user_id", columnList = "user_id"),
+        @Index(name = "idx_borrowings_archive_book_id", columnList = "book_id"),
+        @Index(name = "idx_borrowings_archive_created_at_id", columnList = "created_at, id")
+})
+public class ArchivedBorrowing {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    private LocalDate borrowDate;
+
+    private LocalDate dueDate;
+
+    private LocalDate returnDate;
+
+    @Enumerated(EnumType.STRING)
+    private Borrowing.Status status;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime archivedAt;
+}
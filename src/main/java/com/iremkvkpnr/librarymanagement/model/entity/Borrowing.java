@@ -12,9 +12,19 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "borrowings")
+@Table(name = "borrowings", indexes = {
+        // Serves the keyset-paginated history: range on created_at, ties broken by id
+        @Index(name = "idx_borrowings_created_at_id", columnList = "created_at, id"),
+        // Per-user and per-book history pages, and the slot count, hold queue and batch return lookups on the same prefix
+        @Index(name = "idx_borrowings_user_created_at_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_borrowings_book_created_at_id", columnList = "book_id, created_at, id")
+})
+@NamedEntityGraph(name = Borrowing.WITH_BOOK, attributeNodes = @NamedAttributeNode("book"))
 public class Borrowing {
 
+    // Fetch plan for read paths that map the book of every row
+    public static final String WITH_BOOK = "Borrowing.withBook";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -43,6 +53,7 @@ public class Borrowing {
     public enum Status {
         PENDING,
         BORROWED,
+        OVERDUE,
         RETURNED
     }
 
@@ -0,0 +1,47 @@
+package com.iremkvkpnr.librarymanagement.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view over every borrowing record, active ones in borrowings and returned ones moved to
+ * borrowings_archive. History queries go through this entity so they do not care where a row lives;
+ * predicates are pushed down into both branches of the union, each served by its own indexes.
+ */
+@Getter
+@Entity
+@Immutable
+@Subselect("SELECT id, user_id, book_id, borrow_date, due_date, return_date, status, created_at FROM borrowings " +
+        "UNION ALL " +
+        "SELECT id, user_id, book_id, borrow_date, due_date, return_date, status, created_at FROM borrowings_archive")
+@Synchronize({"borrowings", "borrowings_archive"})
+public class BorrowingRecord {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id")
+    private Book book;
+
+    private LocalDate borrowDate;
+
+    private LocalDate dueDate;
+
+    private LocalDate returnDate;
+
+    @Enumerated(EnumType.STRING)
+    private Borrowing.Status status;
+
+    private LocalDateTime createdAt;
+}
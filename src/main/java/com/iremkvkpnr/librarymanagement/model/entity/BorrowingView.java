@@ -0,0 +1,53 @@
+package com.iremkvkpnr.librarymanagement.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized read model of a loan for patron-facing history views.
+ * Maintained by {@link com.iremkvkpnr.librarymanagement.service.view.BorrowingViewProjector};
+ * the borrowings table stays the source of truth.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "borrowing_view", indexes = {
+        // One range read per user, already in history order
+        @Index(name = "idx_borrowing_view_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_borrowing_view_book_id", columnList = "book_id")
+})
+public class BorrowingView {
+
+    // Same ID as the borrowing
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private String userName;
+
+    @Column(nullable = false)
+    private Long bookId;
+
+    private String bookTitle;
+
+    private String bookAuthor;
+
+    private LocalDate borrowDate;
+
+    private LocalDate dueDate;
+
+    private LocalDate returnDate;
+
+    @Enumerated(EnumType.STRING)
+    private Borrowing.Status status;
+
+    private LocalDateTime createdAt;
+}
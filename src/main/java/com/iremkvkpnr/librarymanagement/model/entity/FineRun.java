@@ -0,0 +1,45 @@
+package com.iremkvkpnr.librarymanagement.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One execution of the fine engine. The last finished run is the watermark for incremental runs.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "fine_runs")
+public class FineRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Mode mode;
+
+    // Rates the run used; a change forces the next run to be full
+    @Column(nullable = false)
+    private String ratesFingerprint;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private long loansProcessed;
+
+    private long finesWritten;
+
+    public enum Mode {
+        FULL,
+        INCREMENTAL
+    }
+}
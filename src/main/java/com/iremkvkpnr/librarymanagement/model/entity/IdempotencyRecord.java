@@ -0,0 +1,74 @@
+package com.iremkvkpnr.librarymanagement.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored response of a request that carried an Idempotency-Key header.
+ * The key is scoped by user and operation, so different users may reuse the same key value.
+ * A row is inserted with an empty response body when a request claims the key and filled in when it completes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt")
+})
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(length = 320)
+    private String scopedKey;
+
+    @Column(nullable = false)
+    private String requestHash;
+
+    @Column(nullable = false, length = 4000)
+    private String responseBody;
+
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Always insert: a concurrent claim must fail on the primary key instead of being merged
+    @Transient
+    @Builder.Default
+    private boolean newRecord = true;
+
+    /**
+     * @return true if the request holding the key has not completed yet
+     */
+    public boolean isInProgress() {
+        return responseBody == null || responseBody.isEmpty();
+    }
+
+    @Override
+    public String getId() {
+        return scopedKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.newRecord = false;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+}
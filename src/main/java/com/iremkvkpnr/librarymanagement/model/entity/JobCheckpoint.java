@@ -0,0 +1,43 @@
+package com.iremkvkpnr.librarymanagement.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the current run of a chunked batch job, so that a crashed run resumes after its last finished chunk.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "batch_job_checkpoints")
+public class JobCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String jobName;
+
+    @Column(nullable = false)
+    private LocalDate runDate;
+
+    // Key of the last item of the last committed chunk
+    private long lastKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private long itemsProcessed;
+
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED
+    }
+}
@@ -0,0 +1,41 @@
+package com.iremkvkpnr.librarymanagement.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Late fee of one borrowing as of the last fine run that touched it.
+ * Written by {@link com.iremkvkpnr.librarymanagement.service.fine.FineEngine}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "loan_fines", indexes = {
+        @Index(name = "idx_loan_fines_user_id", columnList = "user_id")
+})
+public class LoanFine {
+
+    @Id
+    private Long borrowingId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long bookId;
+
+    @Column(nullable = false)
+    private int daysLate;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private LocalDateTime calculatedAt;
+}
@@ -0,0 +1,40 @@
+package com.iremkvkpnr.librarymanagement.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Entry of the materialized overdue set: one row per unreturned borrowing past its due date.
+ * Maintained by {@link com.iremkvkpnr.librarymanagement.service.overdue.OverdueSetService}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "overdue_loans", indexes = {
+        // Report order
+        @Index(name = "idx_overdue_loans_due_date_id", columnList = "due_date, borrowing_id"),
+        @Index(name = "idx_overdue_loans_user_id", columnList = "user_id")
+})
+public class OverdueLoan {
+
+    @Id
+    private Long borrowingId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long bookId;
+
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
+    // Day the entry was added
+    @Column(nullable = false)
+    private LocalDate overdueSince;
+}
@@ -0,0 +1,42 @@
+package com.iremkvkpnr.librarymanagement.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Reminder generated by the nightly overdue sweep, at most one per loan and day.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "overdue_reminders",
+        uniqueConstraints = @UniqueConstraint(name = "uk_overdue_reminders_borrowing_date", columnNames = {"borrowing_id", "reminder_date"}),
+        indexes = @Index(name = "idx_overdue_reminders_user_id", columnList = "user_id"))
+public class OverdueReminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long borrowingId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long bookId;
+
+    private int daysOverdue;
+
+    @Column(nullable = false)
+    private LocalDate reminderDate;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,27 @@
+package com.iremkvkpnr.librarymanagement.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ID of a refresh token that was already rotated, or of a refresh token family revoked after reuse.
+ * Rows are kept until the tokens they cover have expired.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"))
+public class RevokedToken {
+
+    @Id
+    @Column(length = 64)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
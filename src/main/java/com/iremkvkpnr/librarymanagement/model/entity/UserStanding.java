@@ -0,0 +1,43 @@
+package com.iremkvkpnr.librarymanagement.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Standing of a patron as of the last overdue sweep.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "user_standings")
+public class UserStanding {
+
+    @Id
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Standing standing;
+
+    private int overdueLoans;
+
+    private int maxDaysOverdue;
+
+    // Sweep day that last set this row
+    @Column(nullable = false)
+    private LocalDate runDate;
+
+    private LocalDateTime updatedAt;
+
+    public enum Standing {
+        GOOD,
+        WARNING,
+        SUSPENDED
+    }
+}
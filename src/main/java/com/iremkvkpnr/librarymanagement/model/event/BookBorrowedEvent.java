@@ -0,0 +1,14 @@
+package com.iremkvkpnr.librarymanagement.model.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a borrowing becomes active, by checkout or by hold hand-over.
+ */
+public record BookBorrowedEvent(
+        Long borrowingId,
+        Long userId,
+        Long bookId,
+        LocalDate borrowDate,
+        LocalDate dueDate
+) { }
@@ -0,0 +1,11 @@
+package com.iremkvkpnr.librarymanagement.model.event;
+
+/**
+ * Published when a librarian adds, updates or removes a book; carries the absolute copy counts
+ * after the change (both zero when the book was removed).
+ */
+public record BookInventoryChangedEvent(
+        Long bookId,
+        int totalCopies,
+        int availableCopies
+) { }
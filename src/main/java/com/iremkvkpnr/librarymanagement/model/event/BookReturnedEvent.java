@@ -0,0 +1,13 @@
+package com.iremkvkpnr.librarymanagement.model.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published when an active borrowing is closed.
+ */
+public record BookReturnedEvent(
+        Long borrowingId,
+        Long userId,
+        Long bookId,
+        LocalDate returnDate
+) { }
@@ -0,0 +1,11 @@
+package com.iremkvkpnr.librarymanagement.model.event;
+
+import java.util.List;
+
+/**
+ * Published once for a batch checkout in place of one {@link BookBorrowedEvent} per borrowing,
+ * so listeners that write to the database can apply the whole batch in one statement.
+ */
+public record BooksBorrowedEvent(
+        List<BookBorrowedEvent> borrowings
+) { }
@@ -0,0 +1,11 @@
+package com.iremkvkpnr.librarymanagement.model.event;
+
+import java.util.List;
+
+/**
+ * Published once for a batch return in place of one {@link BookReturnedEvent} per borrowing,
+ * so listeners that write to the database can apply the whole batch in one statement.
+ */
+public record BooksReturnedEvent(
+        List<BookReturnedEvent> returns
+) { }
@@ -0,0 +1,14 @@
+package com.iremkvkpnr.librarymanagement.model.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a returned copy is handed to the next patron waiting in the hold queue.
+ */
+public record HoldFulfilledEvent(
+        Long userId,
+        Long borrowingId,
+        Long bookId,
+        String bookTitle,
+        LocalDate dueDate
+) { }
@@ -0,0 +1,13 @@
+package com.iremkvkpnr.librarymanagement.model.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published when an active borrowing passes its due date and is flipped to OVERDUE.
+ */
+public record LoanOverdueEvent(
+        Long borrowingId,
+        Long userId,
+        Long bookId,
+        LocalDate dueDate
+) { }
@@ -0,0 +1,10 @@
+package com.iremkvkpnr.librarymanagement.model.event;
+
+/**
+ * Published when a user's account details are updated or the user is deleted.
+ * The email is the one the user had before the change, i.e. the subject of their existing tokens.
+ */
+public record UserChangedEvent(
+        Long userId,
+        String email
+) { }
@@ -0,0 +1,9 @@
+package com.iremkvkpnr.librarymanagement.model.event;
+
+/**
+ * Published when a new user account is created.
+ */
+public record UserRegisteredEvent(
+        Long userId,
+        String email
+) { }
@@ -0,0 +1,7 @@
+package com.iremkvkpnr.librarymanagement.model.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
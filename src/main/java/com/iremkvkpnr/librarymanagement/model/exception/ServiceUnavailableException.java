@@ -0,0 +1,7 @@
+package com.iremkvkpnr.librarymanagement.model.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,79 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC based repository that moves returned borrowings from the hot borrowings table to borrowings_archive.
+ */
+@Repository
+public class BorrowingArchiveRepository {
+
+    private static final String SELECT_ARCHIVABLE_SQL =
+            "SELECT id FROM borrowings WHERE status = 'RETURNED' AND return_date < :cutoff ORDER BY id LIMIT :limit";
+
+    private static final String COPY_TO_ARCHIVE_SQL =
+            "INSERT INTO borrowings_archive (id, user_id, book_id, borrow_date, due_date, return_date, status, created_at, archived_at) " +
+            "SELECT id, user_id, book_id, borrow_date, due_date, return_date, status, created_at, :archivedAt " +
+            "FROM borrowings WHERE id IN (:ids)";
+
+    private static final String DELETE_FROM_HOT_SQL =
+            "DELETE FROM borrowings WHERE id IN (:ids)";
+
+    private static final String DELETE_ARCHIVED_BY_USER_SQL =
+            "DELETE FROM borrowings_archive WHERE user_id = :userId";
+
+    private static final String DELETE_ARCHIVED_BY_BOOK_SQL =
+            "DELETE FROM borrowings_archive WHERE book_id = :bookId";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public BorrowingArchiveRepository(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Moves one chunk of borrowings returned before the cutoff to the archive, copy and delete in one transaction.
+     * Returned rows are never updated again, so no row locks are needed while copying.
+     * @param cutoff Borrowings returned before this day are moved
+     * @param limit Maximum number of rows to move
+     * @return Number of rows moved
+     */
+    @Transactional
+    public int moveReturnedBefore(LocalDate cutoff, int limit) {
+        List<Long> ids = namedJdbcTemplate.queryForList(SELECT_ARCHIVABLE_SQL,
+                new MapSqlParameterSource().addValue("cutoff", cutoff).addValue("limit", limit), Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", LocalDateTime.now());
+        namedJdbcTemplate.update(COPY_TO_ARCHIVE_SQL, params);
+        return namedJdbcTemplate.update(DELETE_FROM_HOT_SQL, params);
+    }
+
+    /**
+     * Deletes the archived borrowings of a user.
+     * @param userId ID of the user
+     * @return Number of rows deleted
+     */
+    public int deleteByUserId(Long userId) {
+        return namedJdbcTemplate.update(DELETE_ARCHIVED_BY_USER_SQL, new MapSqlParameterSource("userId", userId));
+    }
+
+    /**
+     * Deletes the archived borrowings of a book.
+     * @param bookId ID of the book
+     * @return Number of rows deleted
+     */
+    public int deleteByBookId(Long bookId) {
+        return namedJdbcTemplate.update(DELETE_ARCHIVED_BY_BOOK_SQL, new MapSqlParameterSource("bookId", bookId));
+    }
+}
@@ -0,0 +1,185 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingResponse;
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC based repository for set-based borrowing writes.
+ * Used where going through the persistence context row by row would cost one statement per entity.
+ */
+@Repository
+public class BorrowingBatchRepository {
+
+    private static final String INSERT_BORROWING_SQL =
+            "INSERT INTO borrowings (user_id, book_id, borrow_date, due_date, status, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String LOCK_ACTIVE_BY_IDS_SQL =
+            "SELECT id, user_id, book_id FROM borrowings WHERE id IN (:ids) AND status IN ('BORROWED', 'OVERDUE') ORDER BY id FOR UPDATE";
+
+    private static final String LOCK_ACTIVE_BY_BOOK_IDS_SQL =
+            "SELECT id, user_id, book_id FROM borrowings WHERE book_id IN (:bookIds) AND status IN ('BORROWED', 'OVERDUE') " +
+            "ORDER BY book_id, borrow_date, id FOR UPDATE";
+
+    private static final String MARK_RETURNED_SQL =
+            "UPDATE borrowings SET status = 'RETURNED', return_date = :returnDate WHERE id IN (:ids) AND status IN ('BORROWED', 'OVERDUE')";
+
+    private static final String INCREMENT_AVAILABLE_COPIES_SQL =
+            "UPDATE books SET available_copies = available_copies + ? WHERE id = ?";
+
+    private static final String FIND_RESPONSES_BY_IDS_SQL =
+            "SELECT br.id, bk.title, bk.author, u.name, br.borrow_date, br.due_date, br.return_date " +
+            "FROM borrowings br JOIN books bk ON bk.id = br.book_id JOIN users u ON u.id = br.user_id " +
+            "WHERE br.id IN (:ids) ORDER BY br.id";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public BorrowingBatchRepository(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.jdbcTemplate = namedJdbcTemplate.getJdbcTemplate();
+    }
+
+    /**
+     * Reference to an active borrowing row and the book it holds.
+     */
+    public record ActiveBorrowing(Long id, Long userId, Long bookId) { }
+
+    /**
+     * Inserts all borrowings in a single JDBC batch and assigns the generated IDs back to them.
+     * @param borrowings Borrowings to insert, with user and book set
+     * @return The same borrowings with their IDs populated
+     */
+    public List<Borrowing> insertAll(List<Borrowing> borrowings) {
+        if (borrowings.isEmpty()) {
+            return borrowings;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_BORROWING_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Borrowing borrowing = borrowings.get(i);
+                        if (borrowing.getCreatedAt() == null) {
+                            borrowing.setCreatedAt(now);
+                        }
+                        ps.setLong(1, borrowing.getUser().getId());
+                        ps.setLong(2, borrowing.getBook().getId());
+                        ps.setDate(3, Date.valueOf(borrowing.getBorrowDate()));
+                        ps.setDate(4, Date.valueOf(borrowing.getDueDate()));
+                        ps.setString(5, borrowing.getStatus().name());
+                        ps.setTimestamp(6, Timestamp.valueOf(borrowing.getCreatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return borrowings.size();
+                    }
+                },
+                keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < borrowings.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            borrowings.get(i).setId(id.longValue());
+        }
+        return borrowings;
+    }
+
+    /**
+     * Locks the active borrowings among the given IDs, in ascending ID order.
+     * @param ids Borrowing IDs
+     * @return Active borrowings that were found and locked
+     */
+    public List<ActiveBorrowing> lockActiveByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query(LOCK_ACTIVE_BY_IDS_SQL, new MapSqlParameterSource("ids", ids),
+                (rs, rowNum) -> new ActiveBorrowing(rs.getLong("id"), rs.getLong("user_id"), rs.getLong("book_id")));
+    }
+
+    /**
+     * Locks all active borrowings of the given books, oldest first within each book.
+     * @param bookIds Book IDs
+     * @return Active borrowings that were found and locked
+     */
+    public List<ActiveBorrowing> lockActiveByBookIds(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query(LOCK_ACTIVE_BY_BOOK_IDS_SQL, new MapSqlParameterSource("bookIds", bookIds),
+                (rs, rowNum) -> new ActiveBorrowing(rs.getLong("id"), rs.getLong("user_id"), rs.getLong("book_id")));
+    }
+
+    /**
+     * Closes the given borrowings with one set-based update.
+     * @param ids Borrowing IDs to close
+     * @param returnDate Return date to record
+     * @return Number of rows affected
+     */
+    public int markReturned(Collection<Long> ids, LocalDate returnDate) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("returnDate", Date.valueOf(returnDate));
+        return namedJdbcTemplate.update(MARK_RETURNED_SQL, params);
+    }
+
+    /**
+     * Increments available copies with one grouped update per book, in ascending book ID order.
+     * @param countsByBookId Number of returned copies per book ID, sorted by book ID
+     */
+    public void incrementAvailableCopies(Map<Long, Integer> countsByBookId) {
+        if (countsByBookId.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(countsByBookId.size());
+        countsByBookId.forEach((bookId, count) -> args.add(new Object[]{count, bookId}));
+        jdbcTemplate.batchUpdate(INCREMENT_AVAILABLE_COPIES_SQL, args);
+    }
+
+    /**
+     * Reads the response view of the given borrowings with a single join.
+     * @param ids Borrowing IDs
+     * @return Borrowing responses ordered by ID
+     */
+    public List<BorrowingResponse> findResponsesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query(FIND_RESPONSES_BY_IDS_SQL, new MapSqlParameterSource("ids", ids),
+                (rs, rowNum) -> new BorrowingResponse(
+                        rs.getLong("id"),
+                        rs.getString("title"),
+                        rs.getString("author"),
+                        rs.getString("name"),
+                        toLocalDate(rs.getDate("borrow_date")),
+                        toLocalDate(rs.getDate("due_date")),
+                        toLocalDate(rs.getDate("return_date"))));
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+}
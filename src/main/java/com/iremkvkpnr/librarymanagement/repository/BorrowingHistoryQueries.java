@@ -0,0 +1,23 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryRow;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keyset queries over the borrowing history, spanning active and archived records.
+ * Rows are ordered newest first by (createdAt, id). Null filters and a null cursor are left out of the
+ * generated WHERE clause entirely, so each combination of filters gets a plan that can use its index.
+ */
+public interface BorrowingHistoryQueries {
+
+    List<BorrowingHistoryRow> findHistoryPage(Long userId, Long bookId, LocalDateTime createdFrom, LocalDateTime createdBefore,
+                                              LocalDateTime afterCreatedAt, Long afterId, Pageable pageable);
+
+    // Read through a cursor: callers must consume the stream inside a transaction and close it
+    Stream<BorrowingHistoryRow> streamHistory(Long userId, Long bookId, LocalDateTime createdFrom, LocalDateTime createdBefore,
+                                              LocalDateTime afterCreatedAt, Long afterId);
+}
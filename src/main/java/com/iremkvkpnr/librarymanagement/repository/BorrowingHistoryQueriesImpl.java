@@ -0,0 +1,79 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Builds the history query from the filters that are present instead of catch-all {@code :x IS NULL OR ...}
+ * predicates, which would leave Postgres with a generic plan that cannot use the (user_id, ...) or (book_id, ...) indexes.
+ */
+class BorrowingHistoryQueriesImpl implements BorrowingHistoryQueries {
+
+    private static final String HISTORY_ROW = "SELECT new com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryRow(" +
+            "b.id, b.createdAt, u.id, u.name, bk.id, bk.title, bk.author, b.borrowDate, b.dueDate, b.returnDate, b.status) " +
+            "FROM BorrowingRecord b JOIN b.user u JOIN b.book bk";
+
+    private static final String ORDER_BY = " ORDER BY b.createdAt DESC, b.id DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BorrowingHistoryRow> findHistoryPage(Long userId, Long bookId, LocalDateTime createdFrom, LocalDateTime createdBefore,
+                                                     LocalDateTime afterCreatedAt, Long afterId, Pageable pageable) {
+        TypedQuery<BorrowingHistoryRow> query = historyQuery(userId, bookId, createdFrom, createdBefore, afterCreatedAt, afterId);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<BorrowingHistoryRow> streamHistory(Long userId, Long bookId, LocalDateTime createdFrom, LocalDateTime createdBefore,
+                                                     LocalDateTime afterCreatedAt, Long afterId) {
+        return historyQuery(userId, bookId, createdFrom, createdBefore, afterCreatedAt, afterId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .getResultStream();
+    }
+
+    private TypedQuery<BorrowingHistoryRow> historyQuery(Long userId, Long bookId, LocalDateTime createdFrom, LocalDateTime createdBefore,
+                                                         LocalDateTime afterCreatedAt, Long afterId) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        if (userId != null) {
+            predicates.add("u.id = :userId");
+            params.put("userId", userId);
+        }
+        if (bookId != null) {
+            predicates.add("bk.id = :bookId");
+            params.put("bookId", bookId);
+        }
+        if (createdFrom != null) {
+            predicates.add("b.createdAt >= :createdFrom");
+            params.put("createdFrom", createdFrom);
+        }
+        if (createdBefore != null) {
+            predicates.add("b.createdAt < :createdBefore");
+            params.put("createdBefore", createdBefore);
+        }
+        if (afterCreatedAt != null) {
+            predicates.add("(b.createdAt < :afterCreatedAt OR (b.createdAt = :afterCreatedAt AND b.id < :afterId))");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+        String jpql = HISTORY_ROW + (predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates)) + ORDER_BY;
+        TypedQuery<BorrowingHistoryRow> query = entityManager.createQuery(jpql, BorrowingHistoryRow.class);
+        params.forEach(query::setParameter);
+        return query;
+    }
+}
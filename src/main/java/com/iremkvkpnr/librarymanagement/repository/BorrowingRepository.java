@@ -1,27 +1,79 @@
 package com.iremkvkpnr.librarymanagement.repository;
 
 import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.dto.response.OverdueReportRow;
 import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
 import com.iremkvkpnr.librarymanagement.model.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BorrowingRepository extends JpaRepository<Borrowing, Long> {
-    List<Borrowing> findByUserId(Long userId);
-
-    @Query("SELECT b FROM Borrowing b WHERE b.dueDate < CURRENT_DATE AND b.returnDate IS NULL")
-    List<Borrowing> findOverdueBooks(LocalDate currentDate);
-
-    @Query("SELECT b FROM Borrowing b WHERE b.user.id = :userId AND b.book.id = :bookId AND b.status = 'BORROWED'")
+public interface BorrowingRepository extends JpaRepository<Borrowing, Long>, BorrowingHistoryQueries {
+    @Query("SELECT b FROM Borrowing b WHERE b.user.id = :userId AND b.book.id = :bookId AND b.status IN ('BORROWED', 'OVERDUE')")
     Optional<Borrowing> findActiveBorrowingByUserAndBook(Long userId, Long bookId);
 
-    @Query("SELECT COUNT(b) FROM Borrowing b WHERE b.user.id = :userId AND b.status = 'BORROWED'")
+    @Query("SELECT COUNT(b) FROM Borrowing b WHERE b.user.id = :userId AND b.status IN ('BORROWED', 'OVERDUE')")
     long countActiveBorrowingsByUser(Long userId);
 
+    // Slots of the borrowing limit in use: active borrowings plus holds, since each hold reserves a slot
+    @Query("SELECT COUNT(b) FROM Borrowing b WHERE b.user.id = :userId AND b.status IN ('BORROWED', 'OVERDUE', 'PENDING')")
+    long countSlotsUsedByUser(Long userId);
+
     @Query("SELECT COUNT(b) FROM Borrowing b WHERE b.user.id = :userId AND b.dueDate < CURRENT_DATE AND b.returnDate IS NULL")
     long countOverdueBooksByUser(Long userId);
+
+    @Query("SELECT b.book.id FROM Borrowing b WHERE b.user.id = :userId AND b.book.id IN :bookIds AND b.status IN ('BORROWED', 'OVERDUE')")
+    List<Long> findActiveBorrowedBookIds(Long userId, Collection<Long> bookIds);
+
+    boolean existsByUserIdAndBookIdAndStatus(Long userId, Long bookId, Borrowing.Status status);
+
+    @Query("SELECT b FROM Borrowing b JOIN FETCH b.book WHERE b.user.id = :userId AND b.status = 'PENDING' ORDER BY b.createdAt, b.id")
+    List<Borrowing> findPendingHoldsByUser(Long userId);
+
+    // Compares against the stored row so the in-memory timestamp's precision does not matter
+    @Query("SELECT COUNT(b) FROM Borrowing b, Borrowing h WHERE h.id = :holdId AND b.book.id = h.book.id " +
+            "AND b.status = 'PENDING' AND (b.createdAt < h.createdAt OR (b.createdAt = h.createdAt AND b.id <= h.id))")
+    long countHoldsAhead(Long holdId);
+
+    // Oldest holds first; rows locked by a concurrent hand-over or cancellation are skipped instead of waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT b FROM Borrowing b WHERE b.book.id = :bookId AND b.status = 'PENDING' ORDER BY b.createdAt, b.id")
+    List<Borrowing> findNextHoldsForUpdate(Long bookId, Pageable pageable);
+
+    @Query("SELECT new com.iremkvkpnr.librarymanagement.repository.BorrowingRepository$OpenLoan(b.id, b.user.id, b.book.id, b.dueDate) " +
+            "FROM Borrowing b WHERE b.returnDate IS NULL AND b.dueDate IS NOT NULL")
+    List<OpenLoan> findOpenLoans();
+
+    @Query("SELECT b.id FROM Borrowing b WHERE b.id IN :ids AND b.returnDate IS NULL")
+    List<Long> findOpenIdsIn(Collection<Long> ids);
+
+    // Read through a cursor: callers must consume the stream inside a transaction and close it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.iremkvkpnr.librarymanagement.model.dto.response.OverdueReportRow(" +
+            "b.id, bk.title, u.name, u.email, b.borrowDate, b.dueDate, b.status) " +
+            "FROM OverdueLoan o JOIN Borrowing b ON b.id = o.borrowingId JOIN b.book bk JOIN b.user u " +
+            "ORDER BY o.dueDate, o.borrowingId")
+    Stream<OverdueReportRow> streamOverdueReportRows();
+
+    @Modifying
+    @Query("UPDATE Borrowing b SET b.status = 'OVERDUE' WHERE b.id IN :ids AND b.status = 'BORROWED' AND b.returnDate IS NULL")
+    int markOverdue(Collection<Long> ids);
+
+    /**
+     * Minimal view of a borrowing that has not been returned yet.
+     */
+    record OpenLoan(Long id, Long userId, Long bookId, LocalDate dueDate) { }
 }
@@ -0,0 +1,236 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryRow;
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC based repository for the borrowing_view read model.
+ */
+@Repository
+public class BorrowingViewRepository {
+
+    private static final String VIEW_COLUMNS =
+            "id, user_id, user_name, book_id, book_title, book_author, borrow_date, due_date, return_date, status, created_at";
+
+    private static final String FIND_USER_HISTORY_SQL =
+            "SELECT " + VIEW_COLUMNS + " FROM borrowing_view WHERE user_id = :userId ORDER BY created_at DESC, id DESC";
+
+    // Title, author and name are copied once here instead of being joined on every read
+    private static final String INSERT_BORROWED_SQL =
+            "INSERT INTO borrowing_view (" + VIEW_COLUMNS + ") " +
+            "SELECT b.id, u.id, u.name, bk.id, bk.title, bk.author, :borrowDate, :dueDate, NULL, 'BORROWED', b.created_at " +
+            "FROM borrowings b JOIN users u ON u.id = b.user_id JOIN books bk ON bk.id = b.book_id WHERE b.id = :id";
+
+    private static final String INSERT_ALL_BORROWED_SQL =
+            "INSERT INTO borrowing_view (" + VIEW_COLUMNS + ") " +
+            "SELECT b.id, u.id, u.name, bk.id, bk.title, bk.author, b.borrow_date, b.due_date, NULL, 'BORROWED', b.created_at " +
+            "FROM borrowings b JOIN users u ON u.id = b.user_id JOIN books bk ON bk.id = b.book_id WHERE b.id IN (:ids)";
+
+    private static final String MARK_RETURNED_SQL =
+            "UPDATE borrowing_view SET return_date = :returnDate, status = 'RETURNED' WHERE id = :id";
+
+    private static final String MARK_ALL_RETURNED_SQL =
+            "UPDATE borrowing_view SET return_date = :returnDate, status = 'RETURNED' WHERE id IN (:ids)";
+
+    private static final String MARK_OVERDUE_SQL =
+            "UPDATE borrowing_view SET status = 'OVERDUE' WHERE id IN (:ids) AND status = 'BORROWED'";
+
+    private static final String UPDATE_BOOK_DETAILS_SQL =
+            "UPDATE borrowing_view SET book_title = :title, book_author = :author WHERE book_id = :bookId";
+
+    private static final String UPDATE_USER_NAME_SQL =
+            "UPDATE borrowing_view SET user_name = :name WHERE user_id = :userId";
+
+    private static final String DELETE_BY_USER_SQL =
+            "DELETE FROM borrowing_view WHERE user_id = :userId";
+
+    private static final String DELETE_BY_BOOK_SQL =
+            "DELETE FROM borrowing_view WHERE book_id = :bookId";
+
+    private static final String DELETE_ALL_SQL =
+            "DELETE FROM borrowing_view";
+
+    // Pending holds are not loans yet and only enter the view once fulfilled
+    private static final String REBUILD_SQL =
+            "INSERT INTO borrowing_view (" + VIEW_COLUMNS + ") " +
+            "SELECT b.id, u.id, u.name, bk.id, bk.title, bk.author, b.borrow_date, b.due_date, b.return_date, b.status, b.created_at " +
+            "FROM borrowings b JOIN users u ON u.id = b.user_id JOIN books bk ON bk.id = b.book_id WHERE (b.status IS NULL OR b.status <> 'PENDING') " +
+            "UNION ALL " +
+            "SELECT a.id, u.id, u.name, bk.id, bk.title, bk.author, a.borrow_date, a.due_date, a.return_date, a.status, a.created_at " +
+            "FROM borrowings_archive a JOIN users u ON u.id = a.user_id JOIN books bk ON bk.id = a.book_id WHERE (a.status IS NULL OR a.status <> 'PENDING')";
+
+    private static final String COUNT_SQL =
+            "SELECT COUNT(*) FROM borrowing_view";
+
+    private static final RowMapper<BorrowingHistoryRow> HISTORY_ROW_MAPPER = (rs, rowNum) -> new BorrowingHistoryRow(
+            rs.getLong("id"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getLong("user_id"),
+            rs.getString("user_name"),
+            rs.getLong("book_id"),
+            rs.getString("book_title"),
+            rs.getString("book_author"),
+            toLocalDate(rs.getDate("borrow_date")),
+            toLocalDate(rs.getDate("due_date")),
+            toLocalDate(rs.getDate("return_date")),
+            toStatus(rs.getString("status")));
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public BorrowingViewRepository(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Reads the loans of a user, newest first.
+     * @param userId ID of the user
+     * @return History rows
+     */
+    public List<BorrowingHistoryRow> findUserHistory(Long userId) {
+        return namedJdbcTemplate.query(FIND_USER_HISTORY_SQL, new MapSqlParameterSource("userId", userId), HISTORY_ROW_MAPPER);
+    }
+
+    /**
+     * Adds a new loan, copying the book and user details from the write model.
+     * @param borrowingId ID of the borrowing
+     * @param borrowDate Borrow date
+     * @param dueDate Due date
+     * @return Number of rows inserted
+     */
+    public int insertBorrowed(Long borrowingId, LocalDate borrowDate, LocalDate dueDate) {
+        return namedJdbcTemplate.update(INSERT_BORROWED_SQL, new MapSqlParameterSource()
+                .addValue("id", borrowingId)
+                .addValue("borrowDate", borrowDate)
+                .addValue("dueDate", dueDate));
+    }
+
+    /**
+     * Adds new loans in one statement, reading the borrow and due dates from the write model.
+     * @param borrowingIds IDs of the borrowings
+     * @return Number of rows inserted
+     */
+    public int insertAllBorrowed(Collection<Long> borrowingIds) {
+        if (borrowingIds.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(INSERT_ALL_BORROWED_SQL, new MapSqlParameterSource("ids", borrowingIds));
+    }
+
+    /**
+     * Marks a loan as returned.
+     * @param borrowingId ID of the borrowing
+     * @param returnDate Return date
+     * @return Number of rows updated
+     */
+    public int markReturned(Long borrowingId, LocalDate returnDate) {
+        return namedJdbcTemplate.update(MARK_RETURNED_SQL, new MapSqlParameterSource()
+                .addValue("id", borrowingId)
+                .addValue("returnDate", returnDate));
+    }
+
+    /**
+     * Marks loans returned on the same day in one statement.
+     * @param borrowingIds IDs of the borrowings
+     * @param returnDate Return date
+     * @return Number of rows updated
+     */
+    public int markAllReturned(Collection<Long> borrowingIds, LocalDate returnDate) {
+        if (borrowingIds.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(MARK_ALL_RETURNED_SQL, new MapSqlParameterSource()
+                .addValue("ids", borrowingIds)
+                .addValue("returnDate", returnDate));
+    }
+
+    /**
+     * Marks loans as overdue.
+     * @param borrowingIds IDs of the borrowings
+     * @return Number of rows updated
+     */
+    public int markOverdue(Collection<Long> borrowingIds) {
+        if (borrowingIds.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(MARK_OVERDUE_SQL, new MapSqlParameterSource("ids", borrowingIds));
+    }
+
+    /**
+     * Copies new book details to every loan of the book.
+     * @param bookId ID of the book
+     * @param title Book title
+     * @param author Book author
+     * @return Number of rows updated
+     */
+    public int updateBookDetails(Long bookId, String title, String author) {
+        return namedJdbcTemplate.update(UPDATE_BOOK_DETAILS_SQL, new MapSqlParameterSource()
+                .addValue("bookId", bookId)
+                .addValue("title", title)
+                .addValue("author", author));
+    }
+
+    /**
+     * Copies a new user name to every loan of the user.
+     * @param userId ID of the user
+     * @param name User name
+     * @return Number of rows updated
+     */
+    public int updateUserName(Long userId, String name) {
+        return namedJdbcTemplate.update(UPDATE_USER_NAME_SQL, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("name", name));
+    }
+
+    /**
+     * Deletes the loans of a user.
+     * @param userId ID of the user
+     * @return Number of rows deleted
+     */
+    public int deleteByUserId(Long userId) {
+        return namedJdbcTemplate.update(DELETE_BY_USER_SQL, new MapSqlParameterSource("userId", userId));
+    }
+
+    /**
+     * Deletes the loans of a book.
+     * @param bookId ID of the book
+     * @return Number of rows deleted
+     */
+    public int deleteByBookId(Long bookId) {
+        return namedJdbcTemplate.update(DELETE_BY_BOOK_SQL, new MapSqlParameterSource("bookId", bookId));
+    }
+
+    /**
+     * Replaces the whole read model with the current content of borrowings and borrowings_archive.
+     * @return Number of rows written
+     */
+    public int rebuild() {
+        namedJdbcTemplate.update(DELETE_ALL_SQL, new MapSqlParameterSource());
+        return namedJdbcTemplate.update(REBUILD_SQL, new MapSqlParameterSource());
+    }
+
+    /**
+     * Counts the rows of the read model.
+     * @return Number of rows
+     */
+    public long count() {
+        Long count = namedJdbcTemplate.queryForObject(COUNT_SQL, new MapSqlParameterSource(), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static Borrowing.Status toStatus(String status) {
+        return status == null ? null : Borrowing.Status.valueOf(status);
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+}
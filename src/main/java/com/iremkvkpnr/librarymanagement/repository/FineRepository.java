@@ -0,0 +1,135 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.LoanFine;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC based repository that reads late loans for the fine engine and writes loan_fines.
+ */
+@Repository
+public class FineRepository {
+
+    // Every late loan, active or archived, keyed by id
+    private static final String FIND_CANDIDATES_SQL =
+            "SELECT c.id, c.user_id, c.book_id, bk.genre, c.due_date, c.return_date FROM (" +
+            "SELECT id, user_id, book_id, due_date, return_date FROM borrowings " +
+            "UNION ALL " +
+            "SELECT id, user_id, book_id, due_date, return_date FROM borrowings_archive) c " +
+            "JOIN books bk ON bk.id = c.book_id " +
+            "WHERE c.id > :afterId AND c.due_date < COALESCE(c.return_date, :today) " +
+            "ORDER BY c.id LIMIT :limit";
+
+    // Loans whose fine can have changed since the given day: still open (the fine grows daily) or returned since.
+    // Archived loans were returned long before, so the hot table is enough
+    private static final String FIND_CHANGED_CANDIDATES_SQL =
+            "SELECT b.id, b.user_id, b.book_id, bk.genre, b.due_date, b.return_date FROM borrowings b " +
+            "JOIN books bk ON bk.id = b.book_id " +
+            "WHERE b.id > :afterId AND b.due_date < COALESCE(b.return_date, :today) " +
+            "AND (b.return_date IS NULL OR b.return_date >= :since) " +
+            "ORDER BY b.id LIMIT :limit";
+
+    private static final String UPDATE_FINE_SQL =
+            "UPDATE loan_fines SET days_late = :daysLate, amount = :amount, calculated_at = :calculatedAt " +
+            "WHERE borrowing_id = :borrowingId";
+
+    private static final String INSERT_FINE_SQL =
+            "INSERT INTO loan_fines (borrowing_id, user_id, book_id, days_late, amount, calculated_at) " +
+            "VALUES (:borrowingId, :userId, :bookId, :daysLate, :amount, :calculatedAt)";
+
+    private static final RowMapper<FineCandidate> CANDIDATE_MAPPER = (rs, rowNum) -> {
+        Date returnDate = rs.getDate("return_date");
+        String genre = rs.getString("genre");
+        return new FineCandidate(
+                rs.getLong("id"),
+                rs.getLong("user_id"),
+                rs.getLong("book_id"),
+                genre == null ? null : Book.Genre.valueOf(genre),
+                rs.getDate("due_date").toLocalDate(),
+                returnDate == null ? null : returnDate.toLocalDate());
+    };
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public FineRepository(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Reads the next chunk of late loans.
+     * @param afterId Only loans with a greater ID are read
+     * @param today Current day, the end date of open loans
+     * @param limit Maximum number of loans
+     * @return Late loans ordered by ID
+     */
+    public List<FineCandidate> findCandidates(long afterId, LocalDate today, int limit) {
+        return namedJdbcTemplate.query(FIND_CANDIDATES_SQL, new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("today", today)
+                .addValue("limit", limit), CANDIDATE_MAPPER);
+    }
+
+    /**
+     * Reads the next chunk of late loans that are still open or were returned on or after the given day.
+     * @param afterId Only loans with a greater ID are read
+     * @param since Returns before this day are skipped
+     * @param today Current day, the end date of open loans
+     * @param limit Maximum number of loans
+     * @return Late loans ordered by ID
+     */
+    public List<FineCandidate> findChangedCandidates(long afterId, LocalDate since, LocalDate today, int limit) {
+        return namedJdbcTemplate.query(FIND_CHANGED_CANDIDATES_SQL, new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("since", since)
+                .addValue("today", today)
+                .addValue("limit", limit), CANDIDATE_MAPPER);
+    }
+
+    /**
+     * Inserts or updates fines with one batched UPDATE followed by one batched INSERT of the rows that did not exist.
+     * Callers must not write the same borrowings concurrently.
+     * @param fines Fines to write
+     * @return Number of rows written
+     */
+    public int upsertAll(List<LoanFine> fines) {
+        if (fines.isEmpty()) {
+            return 0;
+        }
+        SqlParameterSource[] params = fines.stream().map(FineRepository::toParams).toArray(SqlParameterSource[]::new);
+        int[] updated = namedJdbcTemplate.batchUpdate(UPDATE_FINE_SQL, params);
+        List<SqlParameterSource> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserts.add(params[i]);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            namedJdbcTemplate.batchUpdate(INSERT_FINE_SQL, inserts.toArray(SqlParameterSource[]::new));
+        }
+        return fines.size();
+    }
+
+    private static SqlParameterSource toParams(LoanFine fine) {
+        return new MapSqlParameterSource()
+                .addValue("borrowingId", fine.getBorrowingId())
+                .addValue("userId", fine.getUserId())
+                .addValue("bookId", fine.getBookId())
+                .addValue("daysLate", fine.getDaysLate())
+                .addValue("amount", fine.getAmount())
+                .addValue("calculatedAt", fine.getCalculatedAt());
+    }
+
+    /**
+     * Loan read by the fine engine.
+     */
+    public record FineCandidate(Long borrowingId, Long userId, Long bookId, Book.Genre genre, LocalDate dueDate, LocalDate returnDate) { }
+}
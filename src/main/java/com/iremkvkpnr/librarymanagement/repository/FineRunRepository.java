@@ -0,0 +1,11 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import com.iremkvkpnr.librarymanagement.model.entity.FineRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface FineRunRepository extends JpaRepository<FineRun, Long> {
+
+    Optional<FineRun> findFirstByFinishedAtIsNotNullOrderByStartedAtDesc();
+}
@@ -0,0 +1,38 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import com.iremkvkpnr.librarymanagement.model.entity.IdempotencyRecord;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    // A projection rather than the entity, so polling sees other transactions' commits instead of a cached instance
+    @Query("SELECT new com.iremkvkpnr.librarymanagement.repository.IdempotencyRecordRepository$StoredResponse(" +
+            "r.requestHash, r.responseBody, r.expiresAt) FROM IdempotencyRecord r WHERE r.scopedKey = :scopedKey")
+    Optional<StoredResponse> findResponse(@Param("scopedKey") String scopedKey);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM IdempotencyRecord r WHERE r.scopedKey = :scopedKey")
+    Optional<IdempotencyRecord> findForUpdate(@Param("scopedKey") String scopedKey);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.scopedKey = :scopedKey AND r.expiresAt <= :now")
+    int deleteIfExpired(@Param("scopedKey") String scopedKey, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.scopedKey = :scopedKey AND r.responseBody = ''")
+    int releaseClaim(@Param("scopedKey") String scopedKey);
+
+    record StoredResponse(String requestHash, String responseBody, LocalDateTime expiresAt) { }
+}
@@ -0,0 +1,80 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import com.iremkvkpnr.librarymanagement.model.entity.OutboxMessage;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC based repository for the outbox_events table.
+ */
+@Repository
+public class OutboxRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (event_type, aggregate_id, payload, created_at) VALUES (:eventType, :aggregateId, :payload, :createdAt)";
+
+    // Concurrent dispatchers each take a disjoint batch instead of waiting on each other's locks
+    private static final String LOCK_NEXT_BATCH_SQL =
+            "SELECT id, event_type, aggregate_id, payload, created_at FROM outbox_events ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM outbox_events WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public OutboxRepository(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Inserts all messages in a single JDBC batch.
+     * @param messages Messages to insert
+     */
+    public void insertAll(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = messages.stream()
+                .map(message -> new MapSqlParameterSource()
+                        .addValue("eventType", message.getEventType())
+                        .addValue("aggregateId", message.getAggregateId())
+                        .addValue("payload", message.getPayload())
+                        .addValue("createdAt", message.getCreatedAt()))
+                .toArray(SqlParameterSource[]::new);
+        namedJdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    /**
+     * Locks the oldest undispatched messages, skipping rows another dispatcher already holds.
+     * Must be called inside a transaction.
+     * @param limit Maximum number of messages
+     * @return Locked messages in insertion order
+     */
+    public List<OutboxMessage> lockNextBatch(int limit) {
+        return namedJdbcTemplate.query(LOCK_NEXT_BATCH_SQL, new MapSqlParameterSource("limit", limit),
+                (rs, rowNum) -> OutboxMessage.builder()
+                        .id(rs.getLong("id"))
+                        .eventType(rs.getString("event_type"))
+                        .aggregateId(rs.getLong("aggregate_id"))
+                        .payload(rs.getString("payload"))
+                        .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                        .build());
+    }
+
+    /**
+     * Deletes dispatched messages.
+     * @param ids IDs of the messages
+     * @return Number of rows deleted
+     */
+    public int deleteAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids));
+    }
+}
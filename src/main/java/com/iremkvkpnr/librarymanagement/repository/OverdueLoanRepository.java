@@ -0,0 +1,131 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import com.iremkvkpnr.librarymanagement.model.dto.response.BookResponse;
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC based repository for the overdue_loans table.
+ */
+@Repository
+public class OverdueLoanRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO overdue_loans (borrowing_id, user_id, book_id, due_date, overdue_since) " +
+            "SELECT b.id, b.user_id, b.book_id, b.due_date, :today FROM borrowings b " +
+            "WHERE b.id IN (:ids) AND b.return_date IS NULL AND b.due_date < :today " +
+            "AND NOT EXISTS (SELECT 1 FROM overdue_loans o WHERE o.borrowing_id = b.id)";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM overdue_loans WHERE borrowing_id IN (:ids)";
+
+    private static final String FIND_IDS_SQL =
+            "SELECT borrowing_id FROM overdue_loans ORDER BY due_date, borrowing_id";
+
+    // One row per overdue borrowing, so a book overdue on several loans appears once per loan
+    private static final String FIND_BOOKS_SQL =
+            "SELECT bk.id, bk.title, bk.author, bk.isbn, bk.publication_date, bk.genre, bk.available_copies, bk.total_copies, bk.created_at " +
+            "FROM overdue_loans o JOIN books bk ON bk.id = o.book_id ORDER BY o.due_date, o.borrowing_id";
+
+    // Overdue in the base table but missing from the set
+    private static final String FIND_MISSING_SQL =
+            "SELECT b.id FROM borrowings b WHERE b.due_date < :today AND b.return_date IS NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM overdue_loans o WHERE o.borrowing_id = b.id)";
+
+    // In the set but returned, deleted or not yet due in the base table
+    private static final String FIND_STALE_SQL =
+            "SELECT o.borrowing_id FROM overdue_loans o LEFT JOIN borrowings b ON b.id = o.borrowing_id " +
+            "WHERE b.id IS NULL OR b.return_date IS NOT NULL OR b.due_date >= :today";
+
+    private static final RowMapper<BookResponse> BOOK_ROW_MAPPER = (rs, rowNum) -> {
+        Date publicationDate = rs.getDate("publication_date");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        String genre = rs.getString("genre");
+        return new BookResponse(
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("author"),
+                rs.getString("isbn"),
+                publicationDate == null ? null : publicationDate.toLocalDate(),
+                genre == null ? null : Book.Genre.valueOf(genre),
+                rs.getInt("available_copies"),
+                rs.getInt("total_copies"),
+                createdAt == null ? null : createdAt.toLocalDateTime());
+    };
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public OverdueLoanRepository(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Adds the given borrowings to the set if they are unreturned and past due. Existing entries are kept.
+     * @param ids IDs of the borrowings
+     * @param today Current day
+     * @return Number of entries added
+     */
+    public int insertOverdue(Collection<Long> ids, LocalDate today) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(INSERT_SQL, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("today", today));
+    }
+
+    /**
+     * Removes the given borrowings from the set.
+     * @param ids IDs of the borrowings
+     * @return Number of entries removed
+     */
+    public int deleteAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids));
+    }
+
+    /**
+     * Reads the borrowing IDs in the set, ordered by due date.
+     * @return Borrowing IDs
+     */
+    public List<Long> findBorrowingIds() {
+        return namedJdbcTemplate.queryForList(FIND_IDS_SQL, new MapSqlParameterSource(), Long.class);
+    }
+
+    /**
+     * Reads the book of every borrowing in the set, ordered by due date.
+     * @return Books, one entry per overdue borrowing
+     */
+    public List<BookResponse> findBooks() {
+        return namedJdbcTemplate.query(FIND_BOOKS_SQL, new MapSqlParameterSource(), BOOK_ROW_MAPPER);
+    }
+
+    /**
+     * Finds overdue borrowings that are missing from the set.
+     * @param today Current day
+     * @return Borrowing IDs
+     */
+    public List<Long> findMissing(LocalDate today) {
+        return namedJdbcTemplate.queryForList(FIND_MISSING_SQL, new MapSqlParameterSource("today", today), Long.class);
+    }
+
+    /**
+     * Finds entries of the set that are no longer overdue.
+     * @param today Current day
+     * @return Borrowing IDs
+     */
+    public List<Long> findStale(LocalDate today) {
+        return namedJdbcTemplate.queryForList(FIND_STALE_SQL, new MapSqlParameterSource("today", today), Long.class);
+    }
+}
@@ -0,0 +1,185 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC based repository for the nightly overdue sweep: reads overdue_loans and writes borrowings status,
+ * overdue_reminders and user_standings with batched statements.
+ */
+@Repository
+public class OverdueSweepRepository {
+
+    private static final String READ_CHUNK_SQL =
+            "SELECT borrowing_id, user_id, book_id, due_date FROM overdue_loans " +
+            "WHERE borrowing_id > :afterId ORDER BY borrowing_id LIMIT :limit";
+
+    private static final String MARK_OVERDUE_SQL =
+            "UPDATE borrowings SET status = 'OVERDUE' WHERE id IN (:ids) AND status = 'BORROWED' AND return_date IS NULL";
+
+    private static final String INSERT_REMINDER_SQL =
+            "INSERT INTO overdue_reminders (borrowing_id, user_id, book_id, days_overdue, reminder_date, created_at) " +
+            "SELECT :borrowingId, :userId, :bookId, :daysOverdue, :reminderDate, :createdAt " +
+            "WHERE NOT EXISTS (SELECT 1 FROM overdue_reminders r WHERE r.borrowing_id = :borrowingId AND r.reminder_date = :reminderDate)";
+
+    private static final String AGGREGATE_BY_USER_SQL =
+            "SELECT user_id, COUNT(*) AS overdue_loans, MIN(due_date) AS oldest_due_date FROM overdue_loans " +
+            "WHERE user_id > :afterUserId GROUP BY user_id ORDER BY user_id LIMIT :limit";
+
+    private static final String UPDATE_STANDING_SQL =
+            "UPDATE user_standings SET standing = :standing, overdue_loans = :overdueLoans, max_days_overdue = :maxDaysOverdue, " +
+            "run_date = :runDate, updated_at = :updatedAt WHERE user_id = :userId";
+
+    private static final String INSERT_STANDING_SQL =
+            "INSERT INTO user_standings (user_id, standing, overdue_loans, max_days_overdue, run_date, updated_at) " +
+            "VALUES (:userId, :standing, :overdueLoans, :maxDaysOverdue, :runDate, :updatedAt)";
+
+    // Users the sweep did not see today have no overdue loans left
+    private static final String RESET_UNTOUCHED_SQL =
+            "UPDATE user_standings SET standing = 'GOOD', overdue_loans = 0, max_days_overdue = 0, " +
+            "run_date = :runDate, updated_at = :updatedAt WHERE run_date < :runDate AND standing <> 'GOOD'";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public OverdueSweepRepository(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Reads the next chunk of the overdue set.
+     * @param afterId Only borrowings with a greater ID are read
+     * @param limit Maximum number of rows
+     * @return Overdue loans ordered by borrowing ID
+     */
+    public List<OverdueLoanRow> readChunk(long afterId, int limit) {
+        return namedJdbcTemplate.query(READ_CHUNK_SQL, new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("limit", limit),
+                (rs, rowNum) -> new OverdueLoanRow(
+                        rs.getLong("borrowing_id"),
+                        rs.getLong("user_id"),
+                        rs.getLong("book_id"),
+                        rs.getDate("due_date").toLocalDate()));
+    }
+
+    /**
+     * Flips the given borrowings to OVERDUE if they are still borrowed.
+     * @param ids IDs of the borrowings
+     * @return Number of rows updated
+     */
+    public int markOverdue(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(MARK_OVERDUE_SQL, new MapSqlParameterSource("ids", ids));
+    }
+
+    /**
+     * Inserts reminders, skipping loans that already have one for the day.
+     * @param reminders Reminders to insert
+     * @param reminderDate Day of the reminders
+     */
+    public void insertReminders(List<OverdueLoanRow> reminders, LocalDate reminderDate) {
+        if (reminders.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = reminders.stream()
+                .map(row -> new MapSqlParameterSource()
+                        .addValue("borrowingId", row.borrowingId())
+                        .addValue("userId", row.userId())
+                        .addValue("bookId", row.bookId())
+                        .addValue("daysOverdue", row.daysOverdue(reminderDate))
+                        .addValue("reminderDate", reminderDate)
+                        .addValue("createdAt", now))
+                .toArray(SqlParameterSource[]::new);
+        namedJdbcTemplate.batchUpdate(INSERT_REMINDER_SQL, batch);
+    }
+
+    /**
+     * Counts the overdue loans of the next page of users and finds their oldest due date.
+     * @param afterUserId Only users with a greater ID are read
+     * @param limit Maximum number of users
+     * @return One row per user with at least one overdue loan, ordered by user ID
+     */
+    public List<UserOverdueSummary> summarizeUsers(long afterUserId, int limit) {
+        return namedJdbcTemplate.query(AGGREGATE_BY_USER_SQL, new MapSqlParameterSource()
+                .addValue("afterUserId", afterUserId)
+                .addValue("limit", limit),
+                (rs, rowNum) -> new UserOverdueSummary(
+                        rs.getLong("user_id"),
+                        rs.getInt("overdue_loans"),
+                        rs.getDate("oldest_due_date").toLocalDate()));
+    }
+
+    /**
+     * Inserts or updates standings with one batched UPDATE followed by one batched INSERT of the missing rows.
+     * Not safe against a concurrent writer of the same users, so callers write standings from a single thread.
+     * @param standings Standings to write
+     */
+    public void upsertStandings(List<StandingRow> standings) {
+        if (standings.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] params = standings.stream()
+                .map(row -> new MapSqlParameterSource()
+                        .addValue("userId", row.userId())
+                        .addValue("standing", row.standing())
+                        .addValue("overdueLoans", row.overdueLoans())
+                        .addValue("maxDaysOverdue", row.maxDaysOverdue())
+                        .addValue("runDate", row.runDate())
+                        .addValue("updatedAt", now))
+                .toArray(SqlParameterSource[]::new);
+        int[] updated = namedJdbcTemplate.batchUpdate(UPDATE_STANDING_SQL, params);
+        List<SqlParameterSource> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserts.add(params[i]);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            namedJdbcTemplate.batchUpdate(INSERT_STANDING_SQL, inserts.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    /**
+     * Resets the standing of users that the sweep of the given day did not touch.
+     * @param runDate Day of the sweep
+     * @return Number of rows reset
+     */
+    public int resetUntouchedStandings(LocalDate runDate) {
+        return namedJdbcTemplate.update(RESET_UNTOUCHED_SQL, new MapSqlParameterSource()
+                .addValue("runDate", runDate)
+                .addValue("updatedAt", LocalDateTime.now()));
+    }
+
+    /**
+     * Entry of the overdue set as read by the sweep.
+     */
+    public record OverdueLoanRow(Long borrowingId, Long userId, Long bookId, LocalDate dueDate) {
+
+        public int daysOverdue(LocalDate today) {
+            return (int) ChronoUnit.DAYS.between(dueDate, today);
+        }
+    }
+
+    /**
+     * Overdue loans of one user.
+     */
+    public record UserOverdueSummary(Long userId, int overdueLoans, LocalDate oldestDueDate) { }
+
+    /**
+     * Standing to write for one user.
+     */
+    public record StandingRow(Long userId, String standing, int overdueLoans, int maxDaysOverdue, LocalDate runDate) { }
+}
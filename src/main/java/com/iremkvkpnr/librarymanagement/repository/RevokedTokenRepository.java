@@ -0,0 +1,58 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * JDBC based repository for the revoked_tokens table.
+ */
+@Repository
+public class RevokedTokenRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO revoked_tokens (token_id, expires_at) VALUES (:tokenId, :expiresAt)";
+
+    private static final String EXISTS_SQL =
+            "SELECT COUNT(*) FROM revoked_tokens WHERE token_id = :tokenId";
+
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM revoked_tokens WHERE expires_at <= :now";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public RevokedTokenRepository(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Inserts a token ID. The primary key makes the insert fail if the ID is already present.
+     * @param tokenId Token or family ID
+     * @param expiresAt Time after which the row is no longer needed
+     * @throws org.springframework.dao.DuplicateKeyException if the ID was already revoked
+     */
+    public void insert(String tokenId, LocalDateTime expiresAt) {
+        namedJdbcTemplate.update(INSERT_SQL, new MapSqlParameterSource()
+                .addValue("tokenId", tokenId)
+                .addValue("expiresAt", expiresAt));
+    }
+
+    /**
+     * @param tokenId Token or family ID
+     * @return true if the ID is present
+     */
+    public boolean exists(String tokenId) {
+        Integer count = namedJdbcTemplate.queryForObject(EXISTS_SQL, new MapSqlParameterSource("tokenId", tokenId), Integer.class);
+        return count != null && count > 0;
+    }
+
+    /**
+     * @param now Current time
+     * @return Number of expired rows deleted
+     */
+    public int deleteExpired(LocalDateTime now) {
+        return namedJdbcTemplate.update(DELETE_EXPIRED_SQL, new MapSqlParameterSource("now", now));
+    }
+}
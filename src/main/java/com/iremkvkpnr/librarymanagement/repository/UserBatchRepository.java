@@ -0,0 +1,96 @@
+package com.iremkvkpnr.librarymanagement.repository;
+
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC based repository for bulk user provisioning.
+ * Checks and inserts a whole chunk of users with one statement each instead of one round trip per user.
+ */
+@Repository
+public class UserBatchRepository {
+
+    private static final String FIND_EXISTING_EMAILS_SQL =
+            "SELECT email FROM users WHERE email IN (:emails)";
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (name, email, password, phone, role, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserBatchRepository(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.jdbcTemplate = namedJdbcTemplate.getJdbcTemplate();
+    }
+
+    /**
+     * @param emails Emails to look up
+     * @return The subset of the emails that already belong to a user
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(FIND_EXISTING_EMAILS_SQL,
+                new MapSqlParameterSource("emails", emails), String.class));
+    }
+
+    /**
+     * Inserts all users in a single JDBC batch and assigns the generated IDs back to them.
+     * @param users Users to insert, with the password already encoded
+     * @return The same users with their IDs populated
+     */
+    public List<User> insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return users;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_USER_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        User user = users.get(i);
+                        if (user.getCreatedAt() == null) {
+                            user.setCreatedAt(now);
+                        }
+                        ps.setString(1, user.getName());
+                        ps.setString(2, user.getEmail());
+                        ps.setString(3, user.getPassword());
+                        ps.setString(4, user.getPhone());
+                        ps.setString(5, user.getRole().name());
+                        ps.setTimestamp(6, Timestamp.valueOf(user.getCreatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                },
+                keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < users.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            users.get(i).setId(id.longValue());
+        }
+        return users;
+    }
+}
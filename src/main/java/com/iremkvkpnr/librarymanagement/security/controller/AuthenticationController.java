@@ -1,6 +1,7 @@
 package com.iremkvkpnr.librarymanagement.security.controller;
 
 import com.iremkvkpnr.librarymanagement.model.dto.request.AuthenticationRequest;
+import com.iremkvkpnr.librarymanagement.model.dto.request.RefreshTokenRequest;
 import com.iremkvkpnr.librarymanagement.model.dto.request.RegisterRequest;
 import com.iremkvkpnr.librarymanagement.model.dto.response.AuthenticationResponse;
 import com.iremkvkpnr.librarymanagement.security.service.AuthenticationService;
@@ -13,6 +14,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/v1/auth")
 @RequiredArgsConstructor
@@ -23,17 +26,25 @@ public class AuthenticationController {
 
     @PostMapping("/register")
     @Operation(summary = "Register a new user", description = "Register a new user and return JWT token")
-    public ResponseEntity<AuthenticationResponse> register(
+    public CompletableFuture<ResponseEntity<AuthenticationResponse>> register(
             @jakarta.validation.Valid @RequestBody RegisterRequest request
     ) {
-        return ResponseEntity.ok(service.register(request));
+        return service.registerAsync(request).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/authenticate")
     @Operation(summary = "Authenticate a user", description = "Authenticate a user and return JWT token")
-    public ResponseEntity<AuthenticationResponse> authenticate(
+    public CompletableFuture<ResponseEntity<AuthenticationResponse>> authenticate(
             @RequestBody AuthenticationRequest request
     ) {
-        return ResponseEntity.ok(service.authenticate(request));
+        return service.authenticateAsync(request).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh tokens", description = "Exchange a refresh token for a new access token and a rotated refresh token. Reusing a refresh token revokes all tokens of its login")
+    public ResponseEntity<AuthenticationResponse> refresh(
+            @jakarta.validation.Valid @RequestBody RefreshTokenRequest request
+    ) {
+        return ResponseEntity.ok(service.refresh(request));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,141 @@
+package com.iremkvkpnr.librarymanagement.security.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token buckets with limits configured per endpoint pattern.
+ * Rules are written as {@code capacity:tokensPerSecond}; the most specific matching pattern wins and
+ * unmatched paths use the default rule. Buckets live in a concurrent map and are dropped once they
+ * have refilled completely, since a full bucket behaves exactly like a new one.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final boolean enabled;
+    private final List<Rule> rules;
+    private final Rule defaultRule;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    /**
+     * Limit of a single endpoint pattern.
+     * @param pattern Ant-style path pattern
+     * @param capacity Maximum burst size
+     * @param emissionNanos Time it takes to refill one token
+     */
+    public record Rule(String pattern, long capacity, long emissionNanos) {
+
+        static Rule parse(String pattern, String spec) {
+            String[] parts = spec.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Rate limit must be capacity:tokensPerSecond, got '" + spec + "' for " + pattern);
+            }
+            long capacity = Long.parseLong(parts[0].trim());
+            double perSecond = Double.parseDouble(parts[1].trim());
+            if (capacity < 1 || perSecond <= 0) {
+                throw new IllegalArgumentException("Rate limit must be positive for " + pattern);
+            }
+            return new Rule(pattern, capacity, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+        }
+
+        long burstNanos() {
+            return capacity * emissionNanos;
+        }
+    }
+
+    public RateLimiter(@Value("${application.rate-limit.enabled:true}") boolean enabled,
+                       @Value("#{${application.rate-limit.rules:{:}}}") Map<String, String> rules,
+                       @Value("${application.rate-limit.default:}") String defaultRule,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        List<Rule> parsed = new ArrayList<>();
+        rules.forEach((pattern, spec) -> parsed.add(Rule.parse(pattern, spec)));
+        parsed.sort(Comparator.comparing(Rule::pattern, pathMatcher.getPatternComparator("")));
+        this.rules = List.copyOf(parsed);
+        this.defaultRule = defaultRule.isBlank() ? null : Rule.parse("/**", defaultRule);
+        this.rejected = meterRegistry.counter("library.ratelimit.rejected");
+        Gauge.builder("library.ratelimit.buckets", buckets, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @return true if requests are rate limited
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param path Request path
+     * @return Most specific rule for the path, or the default rule, or empty if the path is unlimited
+     */
+    public Optional<Rule> ruleFor(String path) {
+        for (Rule rule : rules) {
+            if (pathMatcher.match(rule.pattern(), path)) {
+                return Optional.of(rule);
+            }
+        }
+        return Optional.ofNullable(defaultRule);
+    }
+
+    /**
+     * Takes a token from the client's bucket for the rule.
+     * @param rule Rule of the endpoint
+     * @param clientKey Client identity, e.g. "user:alice" or "ip:10.0.0.1"
+     * @return 0 if the request may proceed, otherwise the nanoseconds until the next token
+     */
+    public long tryAcquire(Rule rule, String clientKey) {
+        long now = System.nanoTime();
+        String key = rule.pattern() + '|' + clientKey;
+        // Plain get on the hot path; computeIfAbsent only locks its bin for a first request
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+        }
+        long wait = bucket.tryAcquire(now, rule.emissionNanos(), rule.burstNanos());
+        if (wait > 0) {
+            rejected.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Drops buckets that have refilled completely. A request racing with the removal starts from a
+     * new full bucket, which is what the removed bucket held anyway.
+     */
+    @Scheduled(fixedDelayString = "${application.rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        int evicted = before - buckets.size();
+        if (evicted > 0) {
+            log.info("Idle rate limit buckets evicted: count={}", evicted);
+        }
+    }
+
+    /**
+     * @return Number of live buckets
+     */
+    public int bucketCount() {
+        return buckets.size();
+    }
+}
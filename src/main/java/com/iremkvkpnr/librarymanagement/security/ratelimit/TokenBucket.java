@@ -0,0 +1,46 @@
+package com.iremkvkpnr.librarymanagement.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single theoretical arrival time (the GCRA form of a token bucket).
+ * Taking a token advances the time by one emission interval with a CAS; refill is implicit in the
+ * passing of time, so there is no refill thread and no lock.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     * @param nowNanos Current time in nanoseconds
+     * @param emissionNanos Time it takes to refill one token
+     * @param burstNanos Capacity of the bucket expressed as refill time
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(long nowNanos, long emissionNanos, long burstNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @param nowNanos Current time in nanoseconds
+     * @return true if the bucket is full again, i.e. indistinguishable from a new bucket
+     */
+    boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
@@ -1,33 +1,69 @@
 package com.iremkvkpnr.librarymanagement.security.service;
 
 import com.iremkvkpnr.librarymanagement.model.dto.request.AuthenticationRequest;
+import com.iremkvkpnr.librarymanagement.model.dto.request.RefreshTokenRequest;
 import com.iremkvkpnr.librarymanagement.model.dto.request.RegisterRequest;
 import com.iremkvkpnr.librarymanagement.model.dto.response.AuthenticationResponse;
 import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.model.event.UserRegisteredEvent;
 import com.iremkvkpnr.librarymanagement.model.exception.UserValidationException;
 import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service layer for authentication and registration operations.
  * Handles user registration and authentication, and issues JWT tokens.
+ * Refresh tokens rotate on every use; presenting a used refresh token again revokes its whole family.
  */
 @Service
 @RequiredArgsConstructor
 public class AuthenticationService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthenticationService.class);
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RefreshTokenStore refreshTokenStore;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    /**
+     * Registers a new user on the password hashing executor, off the request thread.
+     * @param request Registration request DTO
+     * @return Future completed with the authentication response
+     * @throws com.iremkvkpnr.librarymanagement.model.exception.ServiceUnavailableException if too many logins are queued
+     */
+    public CompletableFuture<AuthenticationResponse> registerAsync(RegisterRequest request) {
+        return passwordHashingExecutor.submit(() -> register(request));
+    }
 
     /**
-     * Registers a new user and returns a JWT token.
+     * Authenticates a user on the password hashing executor, off the request thread.
+     * @param request Authentication request DTO
+     * @return Future completed with the authentication response
+     * @throws com.iremkvkpnr.librarymanagement.model.exception.ServiceUnavailableException if too many logins are queued
+     */
+    public CompletableFuture<AuthenticationResponse> authenticateAsync(AuthenticationRequest request) {
+        return passwordHashingExecutor.submit(() -> authenticate(request));
+    }
+
+    /**
+     * Registers a new user and returns an access token and a refresh token.
      * @param request Registration request DTO
-     * @return Authentication response with JWT token
+     * @return Authentication response with JWT tokens
      */
     public AuthenticationResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.email())) {
@@ -41,16 +77,14 @@ public class AuthenticationService {
                 .role(User.Role.PATRON)
                 .build();
         userRepository.save(user);
-        String jwtToken = jwtService.generateToken(user);
-        return AuthenticationResponse.builder()
-                .token(jwtToken)
-                .build();
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getId(), user.getEmail()));
+        return issueTokens(user);
     }
 
     /**
-     * Authenticates a user and returns a JWT token if credentials are valid.
+     * Authenticates a user and returns an access token and a refresh token if credentials are valid.
      * @param request Authentication request DTO
-     * @return Authentication response with JWT token
+     * @return Authentication response with JWT tokens
      * @throws UserValidationException if credentials are invalid
      */
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
@@ -66,9 +100,44 @@ public class AuthenticationService {
         }
         User user = userRepository.findByEmail(request.email())
                 .orElseThrow(() -> new UserValidationException("User not found"));
-        String jwtToken = jwtService.generateToken(user);
+        return issueTokens(user);
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token of the same family.
+     * No password check is needed, so clients avoid a BCrypt login whenever their access token expires.
+     * @param request Refresh request DTO
+     * @return Authentication response with the rotated tokens
+     * @throws BadCredentialsException if the refresh token is invalid, revoked or was already used
+     */
+    public AuthenticationResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenClaims claims;
+        try {
+            claims = jwtService.verifyRefreshToken(request.refreshToken());
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (refreshTokenStore.isFamilyRevoked(claims.familyId())) {
+            throw new BadCredentialsException("Refresh token has been revoked");
+        }
+        if (!refreshTokenStore.markUsed(claims.tokenId(), claims.expiration())) {
+            // A used token coming back means it was copied; cut off every token rotated from the same login.
+            refreshTokenStore.revokeFamily(claims.familyId(), jwtService.getRefreshFamilyExpiration());
+            log.warn("Refresh token reuse detected, family revoked: subject={}", claims.subject());
+            throw new BadCredentialsException("Refresh token reuse detected");
+        }
+        User user = userRepository.findByEmail(claims.subject())
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        return AuthenticationResponse.builder()
+                .token(jwtService.generateToken(user))
+                .refreshToken(jwtService.generateRefreshToken(user, claims.familyId()))
+                .build();
+    }
+
+    private AuthenticationResponse issueTokens(User user) {
         return AuthenticationResponse.builder()
-                .token(jwtToken)
+                .token(jwtService.generateToken(user))
+                .refreshToken(jwtService.generateRefreshToken(user))
                 .build();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,120 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.model.event.UserChangedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.UserRegisteredEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * UserDetailsService that keeps a bounded LRU cache of {@link UserPrincipal} snapshots by email,
+ * so authenticated requests skip the user lookup. Entries are evicted when the user is registered,
+ * updated or deleted, immediately and again after commit.
+ */
+public class CachedUserDetailsService implements UserDetailsService {
+
+    private final Function<String, Optional<User>> userLookup;
+    private final boolean enabled;
+    private final Map<String, UserPrincipal> cache;
+    // Bumped on every eviction; a snapshot loaded before an eviction is not cached afterwards.
+    private long generation;
+
+    /**
+     * @param userLookup Reads the user by email from the database
+     * @param enabled Whether principals are cached; when false every call reads the database
+     * @param maxSize Maximum number of cached principals
+     */
+    public CachedUserDetailsService(Function<String, Optional<User>> userLookup, boolean enabled, int maxSize) {
+        this.userLookup = userLookup;
+        this.enabled = enabled;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserPrincipal> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (!enabled) {
+            return load(username);
+        }
+        long loadedAt;
+        synchronized (cache) {
+            UserPrincipal cached = cache.get(username);
+            if (cached != null) {
+                return cached;
+            }
+            loadedAt = generation;
+        }
+        UserPrincipal principal = load(username);
+        synchronized (cache) {
+            if (generation == loadedAt) {
+                cache.put(username, principal);
+            }
+        }
+        return principal;
+    }
+
+    /**
+     * Evicts the previous email of an updated or deleted user.
+     * @param event User change event
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evictNowAndAfterCommit(event.email());
+    }
+
+    /**
+     * Evicts the email of a newly registered user.
+     * @param event User registration event
+     */
+    @EventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        evictNowAndAfterCommit(event.email());
+    }
+
+    /**
+     * @return Number of cached principals
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private UserPrincipal load(String username) {
+        return userLookup.apply(username)
+                .map(UserPrincipal::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+
+    private void evictNowAndAfterCommit(String email) {
+        evict(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(email);
+                }
+            });
+        }
+    }
+
+    private void evict(String email) {
+        synchronized (cache) {
+            cache.remove(email);
+            generation++;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.iremkvkpnr.librarymanagement.security.service;
 
 import com.iremkvkpnr.librarymanagement.model.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -9,11 +10,14 @@ import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -22,12 +26,56 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
+    private static final String TOKEN_TYPE_CLAIM = "type";
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
+    private static final String FAMILY_CLAIM = "fid";
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
     @Value("${application.security.jwt.expiration}")
     private long jwtExpiration;
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long refreshExpiration;
+    @Value("${application.security.jwt.stateless.enabled:false}")
+    private boolean stateless;
+    @Value("${application.security.jwt.stateless.expiration:900000}")
+    private long statelessExpiration;
+
+    // Built lazily from secretKey on first use; the key and parser are immutable and thread-safe.
+    private volatile Key signingKey;
+    private volatile JwtParser parser;
+
+    /**
+     * Parses and verifies the token once and returns its claims.
+     * Inside a web request the result is memoized as a request attribute, so the filter and
+     * controllers handling the same request share a single signature check.
+     * @param token JWT token
+     * @return Verified claims
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token has expired
+     * @throws io.jsonwebtoken.JwtException if the token is malformed or its signature is invalid
+     */
+    public VerifiedToken verify(String token) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof VerifiedToken cached
+                && cached.token().equals(token)) {
+            return cached;
+        }
+        Claims claims = extractAllClaims(token);
+        VerifiedToken verified = new VerifiedToken(
+                token,
+                claims.getSubject(),
+                toUserId(claims.get("userId")),
+                claims.get("role", String.class),
+                claims.getIssuedAt(),
+                claims.getExpiration(),
+                REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM))
+        );
+        if (attributes != null) {
+            attributes.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verified, RequestAttributes.SCOPE_REQUEST);
+        }
+        return verified;
+    }
 
     /**
      * Extracts the username (email) from the JWT token.
@@ -35,7 +83,7 @@ public class JwtService {
      * @return Username (email)
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     /**
@@ -57,6 +105,9 @@ public class JwtService {
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", user.getId());
+        if (user.getRole() != null) {
+            claims.put("role", user.getRole().name());
+        }
         return generateToken(claims, user);
     }
 
@@ -70,18 +121,54 @@ public class JwtService {
             Map<String, Object> extraClaims,
             User user
     ) {
-        return buildToken(extraClaims, user, jwtExpiration);
+        return buildToken(extraClaims, user, getAccessExpiration());
     }
 
     /**
-     * Generates a refresh JWT token for the given user.
+     * Generates a refresh JWT token for the given user that starts a new token family.
      * @param user User entity
      * @return Refresh JWT token
      */
     public String generateRefreshToken(
             User user
     ) {
-        return buildToken(new HashMap<>(), user, refreshExpiration);
+        return generateRefreshToken(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Generates a refresh JWT token with a unique ID in the given family.
+     * @param user User entity
+     * @param familyId ID shared by every refresh token rotated from the same login
+     * @return Refresh JWT token
+     */
+    public String generateRefreshToken(User user, String familyId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE);
+        claims.put(FAMILY_CLAIM, familyId);
+        claims.put(Claims.ID, UUID.randomUUID().toString());
+        return buildToken(claims, user, refreshExpiration);
+    }
+
+    /**
+     * Verifies a refresh token and returns its rotation claims.
+     * @param token Refresh JWT token
+     * @return Claims of the refresh token
+     * @throws io.jsonwebtoken.JwtException if the token is invalid, expired or not a refresh token
+     */
+    public RefreshTokenClaims verifyRefreshToken(String token) {
+        Claims claims = extractAllClaims(token);
+        if (!REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM)) || claims.getId() == null || claims.get(FAMILY_CLAIM) == null) {
+            throw new io.jsonwebtoken.MalformedJwtException("Not a refresh token");
+        }
+        return new RefreshTokenClaims(claims.getId(), claims.get(FAMILY_CLAIM, String.class), claims.getSubject(), claims.getExpiration());
+    }
+
+    /**
+     * Latest expiry of a refresh token issued from now on, used to bound how long a family revocation is kept.
+     * @return Expiry time of a refresh token issued now
+     */
+    public Date getRefreshFamilyExpiration() {
+        return new Date(System.currentTimeMillis() + refreshExpiration);
     }
 
     private String buildToken(
@@ -99,6 +186,30 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * @return true if requests are authenticated from token claims alone, without loading the user
+     */
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    /**
+     * Builds a principal from the claims of a self-contained token without touching the database.
+     * @param token Verified token carrying userId and role claims
+     * @return Principal holding only the ID, email and role
+     */
+    public UserPrincipal toPrincipal(VerifiedToken token) {
+        return new UserPrincipal(token.userId(), token.subject(), User.Role.valueOf(token.role()));
+    }
+
+    /**
+     * @return Lifetime of access tokens in milliseconds
+     */
+    public long getAccessExpiration() {
+        // Stateless tokens cannot observe account changes until they expire, so keep them short-lived.
+        return stateless ? Math.min(jwtExpiration, statelessExpiration) : jwtExpiration;
+    }
+
     /**
      * Validates the JWT token for the given user details.
      * @param token JWT token
@@ -106,30 +217,44 @@ public class JwtService {
      * @return true if valid, false otherwise
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Validates already verified claims for the given user details without re-parsing the token.
+     * @param token Verified token
+     * @param userDetails User details
+     * @return true if valid, false otherwise
+     */
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return !token.refresh() && token.subject().equals(userDetails.getUsername()) && !token.isExpired();
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder()
+                    .setSigningKey(getSignInKey())
+                    .build();
+            parser = current;
+        }
+        return current;
+    }
+
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key current = signingKey;
+        if (current == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+            current = Keys.hmacShaKeyFor(keyBytes);
+            signingKey = current;
+        }
+        return current;
     }
 
     /**
@@ -138,8 +263,10 @@ public class JwtService {
      * @return User ID or null if not present
      */
     public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        Object userIdObj = claims.get("userId");
+        return verify(token).userId();
+    }
+
+    private static Long toUserId(Object userIdObj) {
         if (userIdObj == null) {
             return null;
         }
@@ -0,0 +1,92 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import com.iremkvkpnr.librarymanagement.model.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification off the request threads, on a fixed pool sized to the CPU count.
+ * The wait queue is bounded: when it is full, or a login waited longer than the configured limit,
+ * the request fails fast with 503 instead of tying up a servlet thread behind BCrypt.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+    private final Timer queueWait;
+    private final Timer duration;
+
+    public PasswordHashingExecutor(@Value("${application.security.login.threads:0}") int threads,
+                                   @Value("${application.security.login.queue-capacity:64}") int queueCapacity,
+                                   @Value("${application.security.login.max-wait-ms:2000}") long maxWaitMillis,
+                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.rejected = meterRegistry.counter("library.login.rejected");
+        this.queueWait = meterRegistry.timer("library.login.queue.wait");
+        this.duration = meterRegistry.timer("library.login.duration");
+        Gauge.builder("library.login.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("library.login.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Submits a task that hashes or verifies a password.
+     * @param task Task to run
+     * @return Future completed with the task's result, or exceptionally with the task's exception
+     * @throws ServiceUnavailableException if the wait queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> run(task, submittedAt), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Login rejected, queue full: queued={}", executor.getQueue().size());
+            throw new ServiceUnavailableException("Too many concurrent logins, please retry shortly");
+        }
+    }
+
+    private <T> T run(Supplier<T> task, long submittedAt) {
+        long waited = System.nanoTime() - submittedAt;
+        queueWait.record(waited, TimeUnit.NANOSECONDS);
+        if (waited > maxWaitNanos) {
+            // The client has most likely given up already; do not spend a BCrypt round on it
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many concurrent logins, please retry shortly");
+        }
+        return duration.record(task);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,13 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import java.util.Date;
+
+/**
+ * Verified claims of a refresh token needed for rotation.
+ * @param tokenId Unique ID (jti) of the token
+ * @param familyId ID shared by every token rotated from the same login
+ * @param subject Token subject (user email)
+ * @param expiration Expiry time
+ */
+public record RefreshTokenClaims(String tokenId, String familyId, String subject, Date expiration) {
+}
@@ -0,0 +1,79 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import com.iremkvkpnr.librarymanagement.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Tracks rotated refresh tokens and revoked token families in the revoked_tokens table.
+ * Marking a token as used is a single primary key insert, so two concurrent refreshes with the same token
+ * cannot both succeed, even across instances. Family revocation is a primary key read on every refresh,
+ * so a family revoked on one instance is rejected by all of them.
+ */
+@Service
+public class RefreshTokenStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    private static final String FAMILY_PREFIX = "family:";
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    public RefreshTokenStore(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    /**
+     * Marks a refresh token as used.
+     * @param tokenId jti of the refresh token
+     * @param expiresAt Expiry of the refresh token
+     * @return true on first use, false if the token was already used
+     */
+    public boolean markUsed(String tokenId, Date expiresAt) {
+        return insert(tokenId, expiresAt);
+    }
+
+    /**
+     * Revokes every refresh token of a family.
+     * @param familyId Family ID shared by all tokens rotated from the same login
+     * @param expiresAt Latest expiry of any token the family can still contain
+     */
+    public void revokeFamily(String familyId, Date expiresAt) {
+        insert(FAMILY_PREFIX + familyId, expiresAt);
+    }
+
+    /**
+     * @param familyId Family ID
+     * @return true if the family was revoked
+     */
+    public boolean isFamilyRevoked(String familyId) {
+        return revokedTokenRepository.exists(FAMILY_PREFIX + familyId);
+    }
+
+    /**
+     * Drops expired table rows.
+     */
+    @Scheduled(fixedDelayString = "${application.security.jwt.cache.purge-interval:600000}")
+    public void purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Expired revoked refresh tokens purged: count={}", deleted);
+        }
+    }
+
+    private boolean insert(String id, Date expiresAt) {
+        try {
+            revokedTokenRepository.insert(id, LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Fixed-size key for a bearer token, so raw tokens are never used as map keys.
+ */
+final class TokenDigest {
+
+    private TokenDigest() {
+    }
+
+    static String of(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
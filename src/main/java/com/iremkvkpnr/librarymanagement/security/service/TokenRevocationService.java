@@ -0,0 +1,101 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import com.iremkvkpnr.librarymanagement.model.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory revocation list checked on every authenticated request.
+ * Single tokens are revoked by digest until they expire. In stateless mode every token a user
+ * was issued before an account change is revoked as well, since claims alone cannot reflect the change.
+ * Nothing here touches the database, so the check is free on the request path.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final Clock clock;
+    // Token digest -> expiry of the revoked token
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // User ID -> tokens issued at or before this second are revoked
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenRevocationService(JwtService jwtService, VerifiedTokenCache verifiedTokenCache) {
+        this(jwtService, verifiedTokenCache, Clock.systemUTC());
+    }
+
+    TokenRevocationService(JwtService jwtService, VerifiedTokenCache verifiedTokenCache, Clock clock) {
+        this.jwtService = jwtService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.clock = clock;
+    }
+
+    /**
+     * Revokes a single token until it expires.
+     * @param token Verified token to revoke
+     */
+    public void revoke(VerifiedToken token) {
+        long expiresAt = token.expiration() != null ? token.expiration().getTime() : Long.MAX_VALUE;
+        revokedTokens.put(TokenDigest.of(token.token()), expiresAt);
+        verifiedTokenCache.evict(token.token());
+        log.info("Token revoked: userId={}", token.userId());
+    }
+
+    /**
+     * Revokes every token issued to the user up to now.
+     * @param userId User ID
+     */
+    public void revokeUser(Long userId) {
+        revokedBefore.put(userId, clock.millis() / 1000);
+        log.info("Tokens revoked for user: userId={}", userId);
+    }
+
+    /**
+     * @param token Verified token
+     * @return true if the token or all of its user's earlier tokens were revoked
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        if (!revokedTokens.isEmpty() && revokedTokens.containsKey(TokenDigest.of(token.token()))) {
+            return true;
+        }
+        if (token.userId() == null || token.issuedAt() == null) {
+            return false;
+        }
+        Long cutoff = revokedBefore.get(token.userId());
+        return cutoff != null && token.issuedAt().getTime() / 1000 <= cutoff;
+    }
+
+    /**
+     * Revokes a changed user's stateless tokens. In database mode the changed account is reloaded on the next request instead.
+     * @param event User change event
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (jwtService.isStateless() && event.userId() != null) {
+            revokeUser(event.userId());
+        }
+    }
+
+    /**
+     * Drops revocations that no longer matter because the tokens they cover have expired.
+     */
+    @Scheduled(fixedDelayString = "${application.security.jwt.cache.purge-interval:600000}")
+    public void purgeExpired() {
+        long now = clock.millis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        long oldestLiveIssue = (now - jwtService.getAccessExpiration()) / 1000;
+        revokedBefore.values().removeIf(cutoff -> cutoff < oldestLiveIssue);
+    }
+}
@@ -0,0 +1,62 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the authenticated user, detached from the JPA entity and its collections.
+ * Carries no password; credentials are only checked against the database at login.
+ * @param id User ID
+ * @param email User email, used as the username
+ * @param role User role
+ */
+public record UserPrincipal(Long id, String email, User.Role role) implements UserDetails {
+
+    /**
+     * @param user User entity
+     * @return Snapshot of the user's identity and role
+     */
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
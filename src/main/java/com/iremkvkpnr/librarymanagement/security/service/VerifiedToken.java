@@ -0,0 +1,41 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ * Produced once per request by {@link JwtService#verify(String)} and reused by everything downstream.
+ * @param token Raw compact token the claims were read from
+ * @param subject Token subject (user email)
+ * @param userId Value of the userId claim, or null if absent
+ * @param role Value of the role claim, or null if absent
+ * @param issuedAt Issue time
+ * @param expiration Expiry time
+ * @param refresh true if this is a refresh token, which only the refresh endpoint accepts
+ */
+public record VerifiedToken(String token, String subject, Long userId, String role, Date issuedAt, Date expiration, boolean refresh) {
+
+    /**
+     * Request attribute under which the verified token of the current request is kept.
+     */
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    /**
+     * @return true if the token is past its expiry time
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    /**
+     * @return true if the token carries the claims needed to authenticate without a user lookup
+     */
+    public boolean isSelfContained() {
+        return userId != null && role != null;
+    }
+
+    @Override
+    public String toString() {
+        return "VerifiedToken[subject=" + subject + ", userId=" + userId + ", role=" + role + ", expiration=" + expiration + "]";
+    }
+}
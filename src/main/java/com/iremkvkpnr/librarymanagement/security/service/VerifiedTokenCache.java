@@ -0,0 +1,164 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import com.iremkvkpnr.librarymanagement.model.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Bounded cache from the SHA-256 digest of a bearer token to its verified claims and the principal loaded for it.
+ * A hit lets the authentication filter skip signature verification, claim parsing and the user lookup.
+ * Entries expire at the token's exp claim and are evicted when the user changes or the token is revoked.
+ */
+@Service
+public class VerifiedTokenCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private final boolean enabled;
+    private final Map<String, Entry> cache;
+    // Bumped on every eviction; a principal loaded before an eviction is not cached afterwards.
+    private long generation;
+
+    public VerifiedTokenCache(@Value("${application.security.jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${application.security.jwt.cache.max-size:10000}") int maxSize) {
+        this.enabled = enabled;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Verified claims of a token together with the principal they were validated against.
+     * @param token Verified token
+     * @param principal User details loaded for the token subject
+     */
+    public record Entry(VerifiedToken token, UserDetails principal) { }
+
+    /**
+     * Looks up a token that was verified by an earlier request.
+     * @param token Raw compact token
+     * @return Cached entry, or empty if absent or expired
+     */
+    public Optional<Entry> get(String token) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String key = TokenDigest.of(token);
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (entry.token().isExpired()) {
+                cache.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(entry);
+        }
+    }
+
+    /**
+     * @return Current eviction generation, to be passed to {@link #put} after loading the principal
+     */
+    public long generation() {
+        synchronized (cache) {
+            return generation;
+        }
+    }
+
+    /**
+     * Caches a verified token and its principal unless an eviction happened since the principal was loaded.
+     * @param token Verified token
+     * @param principal User details the token was validated against
+     * @param loadedAt Generation read before the principal was loaded
+     */
+    public void put(VerifiedToken token, UserDetails principal, long loadedAt) {
+        if (!enabled || token.expiration() == null || token.isExpired()) {
+            return;
+        }
+        String key = TokenDigest.of(token.token());
+        synchronized (cache) {
+            if (generation == loadedAt) {
+                cache.put(key, new Entry(token, principal));
+            }
+        }
+    }
+
+    /**
+     * Evicts a single token, e.g. when it is revoked.
+     * @param token Raw compact token
+     */
+    public void evict(String token) {
+        String key = TokenDigest.of(token);
+        synchronized (cache) {
+            cache.remove(key);
+            generation++;
+        }
+    }
+
+    /**
+     * Evicts every token of a user whose account changed. Runs again after commit so that a request
+     * reading the old account state while the change was in flight cannot re-cache it.
+     * @param event User change event
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evictUser(event.userId(), event.email());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictUser(event.userId(), event.email());
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes expired tokens from the cache.
+     */
+    @Scheduled(fixedDelayString = "${application.security.jwt.cache.purge-interval:600000}")
+    public void purgeExpired() {
+        int removed;
+        synchronized (cache) {
+            int before = cache.size();
+            cache.values().removeIf(entry -> entry.token().isExpired());
+            removed = before - cache.size();
+        }
+        if (removed > 0) {
+            log.info("Expired tokens purged from cache: count={}", removed);
+        }
+    }
+
+    /**
+     * @return Number of cached tokens
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private void evictUser(Long userId, String email) {
+        synchronized (cache) {
+            cache.values().removeIf(entry -> (userId != null && userId.equals(entry.token().userId()))
+                    || Objects.equals(email, entry.token().subject()));
+            generation++;
+        }
+    }
+}
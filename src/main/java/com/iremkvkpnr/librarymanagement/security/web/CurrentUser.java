@@ -0,0 +1,21 @@
+package com.iremkvkpnr.librarymanagement.security.web;
+
+import io.swagger.v3.oas.annotations.Parameter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a controller parameter to the authenticated user, taken from the SecurityContext
+ * established by the authentication filter. Supported parameter types are {@code Long} (the user ID)
+ * and {@link com.iremkvkpnr.librarymanagement.security.service.UserPrincipal}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Parameter(hidden = true)
+public @interface CurrentUser {
+}
@@ -2,12 +2,16 @@ package com.iremkvkpnr.librarymanagement.service;
 
 import com.iremkvkpnr.librarymanagement.model.dto.request.BookSearchRequest;
 import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.event.BookInventoryChangedEvent;
 import com.iremkvkpnr.librarymanagement.model.exception.BookNotFoundException;
 import com.iremkvkpnr.librarymanagement.model.exception.BookValidationException;
 import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingArchiveRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingViewRepository;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -26,9 +30,17 @@ public class BookService {
     private static final Logger log = LoggerFactory.getLogger(BookService.class);
 
     private final BookRepository bookRepository;
+    private final BorrowingArchiveRepository borrowingArchiveRepository;
+    private final BorrowingViewRepository borrowingViewRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HoldService holdService;
 
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, BorrowingArchiveRepository borrowingArchiveRepository, BorrowingViewRepository borrowingViewRepository, ApplicationEventPublisher eventPublisher, HoldService holdService) {
         this.bookRepository = bookRepository;
+        this.borrowingArchiveRepository = borrowingArchiveRepository;
+        this.borrowingViewRepository = borrowingViewRepository;
+        this.eventPublisher = eventPublisher;
+        this.holdService = holdService;
     }
 
     /**
@@ -44,6 +56,7 @@ public class BookService {
         }
         Book book = BookMapper.toEntity(request);
         Book saved = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookInventoryChangedEvent(saved.getId(), saved.getTotalCopies(), saved.getAvailableCopies()));
         log.info("New book added: {}", saved);
         return BookMapper.toDto(saved);
     }
@@ -91,6 +104,7 @@ public class BookService {
 
     /**
      * Updates book information.
+     * Changing the number of copies first hands available copies to the book's hold queue.
      * @param id Book ID to update
      * @param request Updated information
      * @return Response DTO of the updated book
@@ -118,8 +132,17 @@ public class BookService {
             existingBook.setIsbn(request.isbn());
         }
         if (request.totalCopies() > 0) {
+            // Copies out on loan stay out; only copies added on top of the old total are new
+            int outstanding = existingBook.getTotalCopies() - existingBook.getAvailableCopies();
+            int added = Math.max(0, request.totalCopies() - existingBook.getTotalCopies());
+            int available = Math.max(0, request.totalCopies() - outstanding);
             existingBook.setTotalCopies(request.totalCopies());
-            existingBook.setAvailableCopies(request.totalCopies());
+            // Added copies go to waiting holders first, as returned copies do
+            int freed = Math.min(added, available);
+            if (freed > 0) {
+                available -= holdService.fulfillHolds(existingBook.getId(), freed);
+            }
+            existingBook.setAvailableCopies(available);
         }
         if (request.genre() != null) {
             existingBook.setGenre(Book.Genre.fromString(request.genre()));
@@ -128,6 +151,10 @@ public class BookService {
             existingBook.setPublicationDate(request.publicationDate());
         }
         Book updated = bookRepository.save(existingBook);
+        borrowingViewRepository.updateBookDetails(updated.getId(), updated.getTitle(), updated.getAuthor());
+        if (request.totalCopies() > 0) {
+            eventPublisher.publishEvent(new BookInventoryChangedEvent(updated.getId(), updated.getTotalCopies(), updated.getAvailableCopies()));
+        }
         log.info("Book updated: {}", updated);
         return BookMapper.toDto(updated);
     }
@@ -144,7 +171,10 @@ public class BookService {
                     log.error("Book to delete not found: id={}", id);
                     return new BookNotFoundException("Book not found with ID: " + id);
                 });
+        borrowingArchiveRepository.deleteByBookId(id);
+        borrowingViewRepository.deleteByBookId(id);
         bookRepository.delete(book);
+        eventPublisher.publishEvent(new BookInventoryChangedEvent(id, 0, 0));
         log.info("Book deleted: {}", book);
     }
 
@@ -0,0 +1,45 @@
+package com.iremkvkpnr.librarymanagement.service;
+
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryRow;
+import com.iremkvkpnr.librarymanagement.model.exception.BorrowingValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the borrowing history keyed by (createdAt, id), encoded as an opaque URL-safe token.
+ */
+public record BorrowingHistoryCursor(LocalDateTime createdAt, Long id) {
+
+    public static BorrowingHistoryCursor after(BorrowingHistoryRow row) {
+        return new BorrowingHistoryCursor(row.createdAt(), row.id());
+    }
+
+    /**
+     * Decodes a cursor token.
+     * @param token Token from a previous page, may be null
+     * @return Decoded cursor, or null if no token was given
+     * @throws BorrowingValidationException if the token is malformed
+     */
+    public static BorrowingHistoryCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new BorrowingHistoryCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BorrowingValidationException("Invalid history cursor");
+        }
+    }
+
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
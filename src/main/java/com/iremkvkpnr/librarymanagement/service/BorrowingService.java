@@ -3,24 +3,51 @@ package com.iremkvkpnr.librarymanagement.service;
 import com.iremkvkpnr.librarymanagement.model.entity.Book;
 import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
 import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.model.event.BookBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BookReturnedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BooksBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BooksReturnedEvent;
 import com.iremkvkpnr.librarymanagement.model.exception.BorrowingValidationException;
 import com.iremkvkpnr.librarymanagement.model.exception.UserPrincipalNotFoundException;
 import com.iremkvkpnr.librarymanagement.model.exception.UserValidationException;
 import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingBatchRepository;
 import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingViewRepository;
 import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.service.overdue.OverdueSetService;
+import com.iremkvkpnr.librarymanagement.service.overdue.OverdueTrackingService;
+import com.iremkvkpnr.librarymanagement.service.report.NdjsonWriter;
+import com.iremkvkpnr.librarymanagement.service.report.OverdueReportFormat;
+import com.iremkvkpnr.librarymanagement.service.report.OverdueReportWriter;
 import com.iremkvkpnr.librarymanagement.validation.BorrowingValidation;
 import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingResponse;
+import com.iremkvkpnr.librarymanagement.model.dto.request.BorrowingHistoryFilter;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BookResponse;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryPage;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryRow;
+import com.iremkvkpnr.librarymanagement.model.dto.response.OverdueReportRow;
 import com.iremkvkpnr.librarymanagement.model.mapper.BorrowingMapper;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service layer for borrowing operations.
@@ -31,18 +58,39 @@ public class BorrowingService {
 
     private static final Logger log = LoggerFactory.getLogger(BorrowingService.class);
 
+    static final int MAX_ACTIVE_BORROWINGS = 3;
+
+    private static final int MAX_BATCH_RETURN_SIZE = 500;
+    private static final int MAX_HISTORY_PAGE_SIZE = 500;
+
     private final BorrowingRepository borrowingRepository;
+    private final BorrowingBatchRepository borrowingBatchRepository;
+    private final BorrowingViewRepository borrowingViewRepository;
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
     private final UserService userService;
+    private final HoldService holdService;
+    private final OverdueTrackingService overdueTrackingService;
+    private final OverdueSetService overdueSetService;
     private final BorrowingValidation borrowingValidation;
+    private final OverdueReportWriter overdueReportWriter;
+    private final NdjsonWriter ndjsonWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BorrowingService(BorrowingRepository borrowingRepository, UserRepository userRepository, BookRepository bookRepository, UserService userService, BorrowingValidation borrowingValidation) {
+    public BorrowingService(BorrowingRepository borrowingRepository, BorrowingBatchRepository borrowingBatchRepository, BorrowingViewRepository borrowingViewRepository, UserRepository userRepository, BookRepository bookRepository, UserService userService, HoldService holdService, OverdueTrackingService overdueTrackingService, OverdueSetService overdueSetService, BorrowingValidation borrowingValidation, OverdueReportWriter overdueReportWriter, NdjsonWriter ndjsonWriter, ApplicationEventPublisher eventPublisher) {
         this.borrowingRepository = borrowingRepository;
+        this.borrowingBatchRepository = borrowingBatchRepository;
+        this.borrowingViewRepository = borrowingViewRepository;
         this.userRepository = userRepository;
         this.bookRepository = bookRepository;
         this.userService = userService;
+        this.holdService = holdService;
+        this.overdueTrackingService = overdueTrackingService;
+        this.overdueSetService = overdueSetService;
         this.borrowingValidation = borrowingValidation;
+        this.overdueReportWriter = overdueReportWriter;
+        this.ndjsonWriter = ndjsonWriter;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -67,18 +115,19 @@ public class BorrowingService {
             throw e;
         }
         // Check for overdue books
-        if (borrowingRepository.countOverdueBooksByUser(userId) > 0) {
+        if (overdueTrackingService.countOverdueByUser(userId) > 0) {
             throw new BorrowingValidationException("You have overdue books. Please return them before borrowing new books.");
         }
-        // Check active borrowing count (maximum 3 books)
-        if (borrowingRepository.countActiveBorrowingsByUser(userId) >= 3) {
-            throw new BorrowingValidationException("You have reached the maximum limit of 3 active borrowings.");
+        // Check active borrowing count (maximum 3 books, holds included)
+        if (borrowingRepository.countSlotsUsedByUser(userId) >= MAX_ACTIVE_BORROWINGS) {
+            throw new BorrowingValidationException("You have reached the maximum limit of " + MAX_ACTIVE_BORROWINGS
+                    + " active borrowings and holds.");
         }
         // Find the book and check availability
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new BorrowingValidationException("Book not found with ID: " + bookId));
         if (book.getAvailableCopies() <= 0) {
-            throw new BorrowingValidationException("No available copies for this book");
+            throw new BorrowingValidationException("No available copies for this book. You can place a hold instead.");
         }
         // Check if user has already borrowed this book
         if (borrowingRepository.findActiveBorrowingByUserAndBook(userId, bookId).isPresent()) {
@@ -95,10 +144,81 @@ public class BorrowingService {
                 .status(Borrowing.Status.BORROWED)
                 .build();
         Borrowing saved = borrowingRepository.save(borrowing);
+        eventPublisher.publishEvent(new BookBorrowedEvent(saved.getId(), userId, bookId, saved.getBorrowDate(), saved.getDueDate()));
         log.info("Book borrowed: userId={}, bookId={}, borrowingId={}", userId, bookId, saved.getId());
         return BorrowingMapper.toDto(saved);
     }
 
+    /**
+     * Allows a user to borrow several books in one transaction.
+     * User rules are checked once for the whole batch, book rows are locked in ascending ID order
+     * and all borrowing records are inserted in a single JDBC batch.
+     * @param userId ID of the user borrowing the books
+     * @param bookIds IDs of the books to be borrowed
+     * @return Borrowing response DTOs in the order of the requested book IDs
+     * @throws BorrowingValidationException if any business rule is violated for any of the books
+     */
+    @Transactional
+    public List<BorrowingResponse> borrowBooks(Long userId, List<Long> bookIds) {
+        borrowingValidation.validateBatchBorrowing(userId, bookIds, MAX_ACTIVE_BORROWINGS);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BorrowingValidationException("User not found with ID: " + userId));
+        if (user.getRole() == User.Role.LIBRARIAN) {
+            throw new BorrowingValidationException("Librarians cannot borrow books");
+        }
+        // Check for overdue books
+        if (overdueTrackingService.countOverdueByUser(userId) > 0) {
+            throw new BorrowingValidationException("You have overdue books. Please return them before borrowing new books.");
+        }
+        // Check active borrowing count including the whole batch and the user's holds
+        long usedSlots = borrowingRepository.countSlotsUsedByUser(userId);
+        if (usedSlots + bookIds.size() > MAX_ACTIVE_BORROWINGS) {
+            throw new BorrowingValidationException("This checkout would exceed the maximum limit of " + MAX_ACTIVE_BORROWINGS
+                    + " active borrowings and holds. You currently have " + usedSlots + ".");
+        }
+        // Check if user has already borrowed any of these books
+        List<Long> alreadyBorrowed = borrowingRepository.findActiveBorrowedBookIds(userId, bookIds);
+        if (!alreadyBorrowed.isEmpty()) {
+            throw new BorrowingValidationException("You have already borrowed these books and haven't returned them yet: " + alreadyBorrowed);
+        }
+        // Lock the books in a deterministic order and check availability
+        Map<Long, Book> books = bookRepository.findAllByIdForUpdate(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        Set<Long> missing = new HashSet<>(bookIds);
+        missing.removeAll(books.keySet());
+        if (!missing.isEmpty()) {
+            throw new BorrowingValidationException("Books not found with IDs: " + missing);
+        }
+        for (Book book : books.values()) {
+            if (book.getAvailableCopies() <= 0) {
+                throw new BorrowingValidationException("No available copies for book with ID: " + book.getId());
+            }
+        }
+        LocalDate today = LocalDate.now();
+        List<Borrowing> borrowings = new ArrayList<>(bookIds.size());
+        for (Long bookId : bookIds) {
+            Book book = books.get(bookId);
+            book.setAvailableCopies(book.getAvailableCopies() - 1);
+            borrowings.add(Borrowing.builder()
+                    .user(user)
+                    .book(book)
+                    .borrowDate(today)
+                    .dueDate(today.plusWeeks(2))
+                    .status(Borrowing.Status.BORROWED)
+                    .build());
+        }
+        bookRepository.saveAll(books.values());
+        List<Borrowing> saved = borrowingBatchRepository.insertAll(borrowings);
+        eventPublisher.publishEvent(new BooksBorrowedEvent(saved.stream()
+                .map(borrowing -> new BookBorrowedEvent(
+                        borrowing.getId(), userId, borrowing.getBook().getId(), borrowing.getBorrowDate(), borrowing.getDueDate()))
+                .toList()));
+        log.info("Books borrowed in batch: userId={}, bookIds={}, count={}", userId, bookIds, saved.size());
+        return saved.stream()
+                .map(BorrowingMapper::toDto)
+                .toList();
+    }
+
     /**
      * Allows a user to return a borrowed book.
      * @param userId ID of the user returning the book
@@ -114,98 +234,218 @@ public class BorrowingService {
         if (!borrowing.getUser().getId().equals(userId)) {
             throw new BorrowingValidationException("You are not authorized to return this book.");
         }
+        if (borrowing.getStatus() == Borrowing.Status.PENDING) {
+            throw new BorrowingValidationException("This record is a hold, not a borrowed book.");
+        }
+        if (borrowing.getStatus() == Borrowing.Status.RETURNED) {
+            throw new BorrowingValidationException("This book has already been returned.");
+        }
         // Return the book
         borrowing.setStatus(Borrowing.Status.RETURNED);
         borrowing.setReturnDate(LocalDate.now());
         Book book = borrowing.getBook();
-        book.setAvailableCopies(book.getAvailableCopies() + 1);
-        bookRepository.save(book);
+        eventPublisher.publishEvent(new BookReturnedEvent(borrowingId, userId, book.getId(), borrowing.getReturnDate()));
+        // Hand the copy to the next holder, or put it back on the shelf
+        if (holdService.fulfillHolds(book.getId(), 1) == 0) {
+            book.setAvailableCopies(book.getAvailableCopies() + 1);
+            bookRepository.save(book);
+        }
         return borrowingRepository.save(borrowing);
     }
 
     /**
-     * Retrieves the borrowing history of a user.
+     * Closes many borrowings at once (librarian or book-drop device).
+     * Borrowings are closed with one set-based update and inventory is incremented with one grouped update per book.
+     * When book IDs are given, each occurrence closes the oldest active borrowing of that book.
+     * IDs without a matching active borrowing are skipped.
+     * @param borrowingIds IDs of the borrowings to close, or null when closing by book
+     * @param bookIds IDs of the returned books, or null when closing by borrowing
+     * @return Responses of the borrowings that were actually closed
+     * @throws BorrowingValidationException if the request is malformed
+     */
+    @Transactional
+    public List<BorrowingResponse> returnBooks(List<Long> borrowingIds, List<Long> bookIds) {
+        borrowingValidation.validateBatchReturn(borrowingIds, bookIds, MAX_BATCH_RETURN_SIZE);
+        List<BorrowingBatchRepository.ActiveBorrowing> toClose;
+        if (borrowingIds != null && !borrowingIds.isEmpty()) {
+            toClose = borrowingBatchRepository.lockActiveByIds(new HashSet<>(borrowingIds));
+        } else {
+            toClose = selectOldestPerBook(bookIds);
+        }
+        if (toClose.isEmpty()) {
+            log.info("Batch return found no active borrowings: borrowingIds={}, bookIds={}", borrowingIds, bookIds);
+            return List.of();
+        }
+        List<Long> ids = toClose.stream().map(BorrowingBatchRepository.ActiveBorrowing::id).toList();
+        Map<Long, Integer> countsByBookId = new TreeMap<>();
+        for (BorrowingBatchRepository.ActiveBorrowing active : toClose) {
+            countsByBookId.merge(active.bookId(), 1, Integer::sum);
+        }
+        LocalDate today = LocalDate.now();
+        int closed = borrowingBatchRepository.markReturned(ids, today);
+        eventPublisher.publishEvent(new BooksReturnedEvent(toClose.stream()
+                .map(active -> new BookReturnedEvent(active.id(), active.userId(), active.bookId(), today))
+                .toList()));
+        // Hand copies to waiting holders first; only the remainder goes back to the shelf
+        Map<Long, Integer> shelvedByBookId = new TreeMap<>();
+        countsByBookId.forEach((bookId, count) -> {
+            int shelved = count - holdService.fulfillHolds(bookId, count);
+            if (shelved > 0) {
+                shelvedByBookId.put(bookId, shelved);
+            }
+        });
+        borrowingBatchRepository.incrementAvailableCopies(shelvedByBookId);
+        log.info("Books returned in batch: requested={}, closed={}, books={}",
+                borrowingIds != null ? borrowingIds.size() : bookIds.size(), closed, countsByBookId.size());
+        return borrowingBatchRepository.findResponsesByIds(ids);
+    }
+
+    private List<BorrowingBatchRepository.ActiveBorrowing> selectOldestPerBook(List<Long> bookIds) {
+        Map<Long, Integer> wanted = new HashMap<>();
+        for (Long bookId : bookIds) {
+            wanted.merge(bookId, 1, Integer::sum);
+        }
+        List<BorrowingBatchRepository.ActiveBorrowing> selected = new ArrayList<>();
+        for (BorrowingBatchRepository.ActiveBorrowing active : borrowingBatchRepository.lockActiveByBookIds(wanted.keySet())) {
+            int remaining = wanted.getOrDefault(active.bookId(), 0);
+            if (remaining > 0) {
+                selected.add(active);
+                wanted.put(active.bookId(), remaining - 1);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Retrieves the borrowing history of a user, including archived records, newest first.
      * @param userId ID of the user
-     * @return List of borrowings
+     * @return List of history rows
      */
-    public List<Borrowing> getUserBorrowingHistory(Long userId) {
+    public List<BorrowingHistoryRow> getUserBorrowingHistory(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new BorrowingValidationException("User not found"));
-        List<Borrowing> result = borrowingRepository.findByUserId(userId);
+        List<BorrowingHistoryRow> result = borrowingViewRepository.findUserHistory(userId);
         log.info("User borrowing history retrieved: userId={}, recordCount={}", userId, result.size());
         return result;
     }
 
     /**
-     * Retrieves the borrowing history for all users (librarian only).
+     * Retrieves one page of the borrowing history of all users, newest first (librarian only).
+     * Pages are keyed by (createdAt, id), so fetching a page costs the same however deep it is.
+     * @param librarianId ID of the librarian
+     * @param filter Optional user, book and date range filters
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param size Maximum number of rows in the page
+     * @return Page of history rows with the cursor of the next page
+     * @throws BorrowingValidationException if the user is not a librarian or the paging arguments are invalid
+     */
+    public BorrowingHistoryPage getAllBorrowingHistory(Long librarianId, BorrowingHistoryFilter filter, String cursor, int size) {
+        verifyHistoryAccess(librarianId);
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new BorrowingValidationException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        validateHistoryFilter(filter);
+        BorrowingHistoryCursor after = BorrowingHistoryCursor.decode(cursor);
+
+        // One extra row tells whether another page follows
+        List<BorrowingHistoryRow> rows = borrowingRepository.findHistoryPage(
+                filter.userId(), filter.bookId(), createdFrom(filter), createdBefore(filter),
+                after == null ? null : after.createdAt(), after == null ? null : after.id(),
+                PageRequest.of(0, size + 1));
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = BorrowingHistoryCursor.after(rows.get(size - 1)).encode();
+        }
+        log.info("All borrowing history page retrieved: librarianId={}, recordCount={}, hasMore={}", librarianId, rows.size(), nextCursor != null);
+        return new BorrowingHistoryPage(rows, nextCursor);
+    }
+
+    /**
+     * Streams the borrowing history of all users as NDJSON, newest first, writing rows as the cursor advances.
+     * Call {@link #verifyHistoryAccess(Long)} first.
+     * @param filter Optional user, book and date range filters
+     * @param cursor Optional cursor to resume after
+     * @param out Target stream
+     * @return Number of rows written
+     */
+    @Transactional
+    public long writeAllBorrowingHistory(BorrowingHistoryFilter filter, String cursor, OutputStream out) {
+        validateHistoryFilter(filter);
+        BorrowingHistoryCursor after = BorrowingHistoryCursor.decode(cursor);
+        try (Stream<BorrowingHistoryRow> rows = borrowingRepository.streamHistory(
+                filter.userId(), filter.bookId(), createdFrom(filter), createdBefore(filter),
+                after == null ? null : after.createdAt(), after == null ? null : after.id())) {
+            long count = ndjsonWriter.write(rows, out);
+            log.info("All borrowing history streamed: rows={}", count);
+            return count;
+        }
+    }
+
+    /**
+     * Checks that the given user may view the borrowing history of all users.
      * @param librarianId ID of the librarian
-     * @return List of all borrowings
      * @throws BorrowingValidationException if the user is not a librarian
      */
-    public List<Borrowing> getAllBorrowingHistory(Long librarianId) {
-        // Check if user is a librarian
-        User librarian = userRepository.findById(librarianId)
-                .orElseThrow(() -> new UserPrincipalNotFoundException("User not found"));
+    public void verifyHistoryAccess(Long librarianId) {
+        requireLibrarian(librarianId, "Only librarians can view all borrowing history");
+    }
 
-        if (librarian.getRole() != User.Role.LIBRARIAN) {
-            throw new BorrowingValidationException("Only librarians can view all borrowing history");
+    private void validateHistoryFilter(BorrowingHistoryFilter filter) {
+        if (filter.from() != null && filter.to() != null && filter.from().isAfter(filter.to())) {
+            throw new BorrowingValidationException("History date range start must not be after its end");
         }
+    }
 
-        List<Borrowing> result = borrowingRepository.findAll();
-        log.info("All borrowing history retrieved: librarianId={}, recordCount={}", librarianId, result.size());
-        return result;
+    private static LocalDateTime createdFrom(BorrowingHistoryFilter filter) {
+        return filter.from() == null ? null : filter.from().atStartOfDay();
+    }
+
+    private static LocalDateTime createdBefore(BorrowingHistoryFilter filter) {
+        return filter.to() == null ? null : filter.to().plusDays(1).atStartOfDay();
     }
 
     /**
-     * Retrieves all overdue borrowings.
-     * @return List of overdue borrowings
+     * Retrieves the books of all overdue borrowings from the materialized overdue set.
+     * @return List of overdue books, one entry per overdue borrowing
      */
-    public List<Borrowing> getOverdueBooks() {
-        LocalDate currentDate = LocalDate.now();
-        List<Borrowing> result = borrowingRepository.findOverdueBooks(currentDate);
+    public List<BookResponse> getOverdueBooks() {
+        List<BookResponse> result = overdueSetService.getOverdueBooks();
         log.info("Overdue books retrieved: count={}", result.size());
         return result;
     }
 
     /**
-     * Generates a report of all overdue books (librarian only).
+     * Checks that the given user may generate overdue book reports.
      * @param librarianId ID of the librarian
-     * @return String report of overdue books
      * @throws BorrowingValidationException if the user is not a librarian
      */
-    public String generateOverdueBooksReport(Long librarianId) {
+    public void verifyReportAccess(Long librarianId) {
+        requireLibrarian(librarianId, "Only librarians can generate overdue book reports");
+    }
+
+    private void requireLibrarian(Long librarianId, String message) {
         User librarian = userRepository.findById(librarianId)
                 .orElseThrow(() -> new UserPrincipalNotFoundException("Librarian not found"));
 
         if (librarian.getRole() != User.Role.LIBRARIAN) {
-            throw new BorrowingValidationException("Only librarians can generate overdue book reports");
+            throw new BorrowingValidationException(message);
         }
+    }
 
-        List<Borrowing> overdueBooks = getOverdueBooks();
-        if (overdueBooks.isEmpty()) {
-            return "No overdue books currently.";
-        }
-
-        StringBuilder reportBuilder = new StringBuilder();
-        reportBuilder.append("OVERDUE BOOKS REPORT\n")
-                .append("----------------------\n")
-                .append(String.format("Total Overdue Books: %d\n", overdueBooks.size()))
-                .append("\n");
-
-        reportBuilder.append("Book Title | User Name | Borrow Date | Due Date | Overdue Days | Status\n")
-                .append("------------------------------------------------------------\n");
-
-        for (Borrowing borrowing : overdueBooks) {
-            long overdueDays = ChronoUnit.DAYS.between(borrowing.getDueDate(), LocalDate.now());
-            reportBuilder.append(String.format("%s | %s | %s | %s | %d | %s\n",
-                    borrowing.getBook().getTitle(),
-                    borrowing.getUser().getName(),
-                    borrowing.getBorrowDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
-                    borrowing.getDueDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
-                    overdueDays,
-                    borrowing.getStatus()));
+    /**
+     * Streams the overdue books report to the given output, one row at a time.
+     * Rows come from a single projection query and are never collected, so memory stays flat.
+     * @param format Output format
+     * @param out Target stream
+     * @return Number of overdue books written
+     */
+    @Transactional
+    public long writeOverdueBooksReport(OverdueReportFormat format, OutputStream out) {
+        try (Stream<OverdueReportRow> rows = borrowingRepository.streamOverdueReportRows()) {
+            long count = overdueReportWriter.write(rows, format, LocalDate.now(), out);
+            log.info("Overdue books report written: format={}, rows={}", format, count);
+            return count;
         }
-
-        return reportBuilder.toString();
     }
 }
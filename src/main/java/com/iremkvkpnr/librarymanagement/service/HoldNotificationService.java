@@ -0,0 +1,38 @@
+package com.iremkvkpnr.librarymanagement.service;
+
+import com.iremkvkpnr.librarymanagement.model.event.HoldFulfilledEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+/**
+ * Pushes hold hand-overs to connected patrons so they do not have to poll for availability.
+ * Events are only emitted after the hand-over transaction has committed.
+ */
+@Service
+public class HoldNotificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldNotificationService.class);
+
+    private final Sinks.Many<HoldFulfilledEvent> sink = Sinks.many().multicast().directBestEffort();
+
+    @TransactionalEventListener
+    public void onHoldFulfilled(HoldFulfilledEvent event) {
+        log.info("Notifying holder: userId={}, bookId={}, borrowingId={}", event.userId(), event.bookId(), event.borrowingId());
+        sink.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    /**
+     * Streams the hold notifications of one user.
+     * @param userId ID of the user
+     * @return Flux of the user's hold notifications
+     */
+    public Flux<HoldFulfilledEvent> streamForUser(Long userId) {
+        return sink.asFlux().filter(event -> event.userId().equals(userId));
+    }
+}
@@ -0,0 +1,174 @@
+package com.iremkvkpnr.librarymanagement.service;
+
+import com.iremkvkpnr.librarymanagement.model.dto.response.HoldResponse;
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.model.event.BookBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.HoldFulfilledEvent;
+import com.iremkvkpnr.librarymanagement.model.exception.BorrowingNotFoundException;
+import com.iremkvkpnr.librarymanagement.model.exception.BorrowingValidationException;
+import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.service.overdue.OverdueTrackingService;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service layer for the hold queue of unavailable books.
+ * A hold is a borrowing record in PENDING status; holds of a book are served first come, first served
+ * when a copy is returned, and the holder is notified through a {@link HoldFulfilledEvent}.
+ */
+@Service
+public class HoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldService.class);
+
+    // Number of queued holds inspected per returned copy when earlier holders are not eligible
+    private static final int HOLD_SCAN_SIZE = 10;
+
+    private final BorrowingRepository borrowingRepository;
+    private final UserRepository userRepository;
+    private final BookRepository bookRepository;
+    private final OverdueTrackingService overdueTrackingService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public HoldService(BorrowingRepository borrowingRepository, UserRepository userRepository, BookRepository bookRepository, OverdueTrackingService overdueTrackingService, ApplicationEventPublisher eventPublisher) {
+        this.borrowingRepository = borrowingRepository;
+        this.userRepository = userRepository;
+        this.bookRepository = bookRepository;
+        this.overdueTrackingService = overdueTrackingService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Places the user in the hold queue of a book that has no available copies.
+     * A hold reserves one of the user's active borrowing slots.
+     * @param userId ID of the user placing the hold
+     * @param bookId ID of the book
+     * @return Hold response DTO with the queue position
+     * @throws BorrowingValidationException if any business rule is violated
+     */
+    @Transactional
+    public HoldResponse placeHold(Long userId, Long bookId) {
+        if (userId == null) {
+            throw new BorrowingValidationException(BorrowingValidationException.EMPTY_USER_ID);
+        }
+        if (bookId == null) {
+            throw new BorrowingValidationException(BorrowingValidationException.EMPTY_BOOK_ID);
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BorrowingValidationException("User not found with ID: " + userId));
+        if (user.getRole() == User.Role.LIBRARIAN) {
+            throw new BorrowingValidationException("Librarians cannot place holds");
+        }
+        if (overdueTrackingService.countOverdueByUser(userId) > 0) {
+            throw new BorrowingValidationException("You have overdue books. Please return them before placing holds.");
+        }
+        // Lock the book so a concurrent return cannot miss this hold
+        Book book = bookRepository.findByIdForUpdate(bookId)
+                .orElseThrow(() -> new BorrowingValidationException("Book not found with ID: " + bookId));
+        if (book.getAvailableCopies() > 0) {
+            throw new BorrowingValidationException("This book has available copies. Please borrow it directly.");
+        }
+        if (borrowingRepository.findActiveBorrowingByUserAndBook(userId, bookId).isPresent()) {
+            throw new BorrowingValidationException("You have already borrowed this book and haven't returned it yet.");
+        }
+        if (borrowingRepository.existsByUserIdAndBookIdAndStatus(userId, bookId, Borrowing.Status.PENDING)) {
+            throw new BorrowingValidationException("You already have a hold on this book.");
+        }
+        if (borrowingRepository.countSlotsUsedByUser(userId) >= BorrowingService.MAX_ACTIVE_BORROWINGS) {
+            throw new BorrowingValidationException("You have reached the maximum limit of " + BorrowingService.MAX_ACTIVE_BORROWINGS
+                    + " active borrowings and holds.");
+        }
+        Borrowing hold = borrowingRepository.save(Borrowing.builder()
+                .user(user)
+                .book(book)
+                .status(Borrowing.Status.PENDING)
+                .build());
+        log.info("Hold placed: userId={}, bookId={}, holdId={}", userId, bookId, hold.getId());
+        return toResponse(hold);
+    }
+
+    /**
+     * Retrieves the holds of a user with their current queue positions.
+     * @param userId ID of the user
+     * @return List of hold response DTOs, oldest first
+     */
+    public List<HoldResponse> getUserHolds(Long userId) {
+        return borrowingRepository.findPendingHoldsByUser(userId).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    /**
+     * Cancels a hold of the user.
+     * @param userId ID of the user
+     * @param holdId ID of the hold
+     * @throws BorrowingNotFoundException if the hold does not exist
+     * @throws BorrowingValidationException if the hold belongs to another user
+     */
+    @Transactional
+    public void cancelHold(Long userId, Long holdId) {
+        Borrowing hold = borrowingRepository.findById(holdId)
+                .filter(borrowing -> borrowing.getStatus() == Borrowing.Status.PENDING)
+                .orElseThrow(() -> new BorrowingNotFoundException("Hold not found with ID: " + holdId));
+        if (!hold.getUser().getId().equals(userId)) {
+            throw new BorrowingValidationException("You are not authorized to cancel this hold.");
+        }
+        borrowingRepository.delete(hold);
+        log.info("Hold cancelled: userId={}, holdId={}", userId, holdId);
+    }
+
+    /**
+     * Hands returned copies of a book to the oldest eligible holders.
+     * Must run in the transaction that returns the copies; the book row is locked for its duration.
+     * @param bookId ID of the returned book
+     * @param copies Number of returned copies
+     * @return Number of copies handed to holders; the rest should go back to the shelf
+     */
+    @Transactional
+    public int fulfillHolds(Long bookId, int copies) {
+        bookRepository.findByIdForUpdate(bookId);
+        LocalDate today = LocalDate.now();
+        int handed = 0;
+        List<Borrowing> candidates = borrowingRepository.findNextHoldsForUpdate(bookId, PageRequest.of(0, HOLD_SCAN_SIZE + copies));
+        for (Borrowing hold : candidates) {
+            if (handed == copies) {
+                break;
+            }
+            Long holderId = hold.getUser().getId();
+            // The hold already occupies one of the holder's slots, so it does not count against itself
+            if (borrowingRepository.countSlotsUsedByUser(holderId) - 1 >= BorrowingService.MAX_ACTIVE_BORROWINGS
+                    || overdueTrackingService.countOverdueByUser(holderId) > 0) {
+                continue;
+            }
+            hold.setStatus(Borrowing.Status.BORROWED);
+            hold.setBorrowDate(today);
+            hold.setDueDate(today.plusWeeks(2));
+            borrowingRepository.save(hold);
+            handed++;
+            eventPublisher.publishEvent(new BookBorrowedEvent(hold.getId(), holderId, bookId, hold.getBorrowDate(), hold.getDueDate()));
+            eventPublisher.publishEvent(new HoldFulfilledEvent(holderId, hold.getId(), bookId, hold.getBook().getTitle(), hold.getDueDate()));
+            log.info("Hold fulfilled: userId={}, bookId={}, borrowingId={}", holderId, bookId, hold.getId());
+        }
+        return handed;
+    }
+
+    private HoldResponse toResponse(Borrowing hold) {
+        return new HoldResponse(
+                hold.getId(),
+                hold.getBook().getId(),
+                hold.getBook().getTitle(),
+                hold.getCreatedAt(),
+                borrowingRepository.countHoldsAhead(hold.getId()));
+    }
+}
@@ -0,0 +1,266 @@
+package com.iremkvkpnr.librarymanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iremkvkpnr.librarymanagement.model.entity.IdempotencyRecord;
+import com.iremkvkpnr.librarymanagement.model.exception.BorrowingValidationException;
+import com.iremkvkpnr.librarymanagement.model.exception.IdempotencyConflictException;
+import com.iremkvkpnr.librarymanagement.repository.IdempotencyRecordRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Service for replaying responses of retried requests that carry an Idempotency-Key header.
+ * A request first claims its key by inserting an in-progress row in its own transaction, so exactly one of
+ * several concurrent duplicates runs the operation; the others wait for it to complete and replay its response.
+ * The response is stored in the same transaction as the operation. Completed keys are held in a bounded,
+ * TTL-evicting in-memory cache backed by the idempotency_keys table.
+ * The claim row stays locked while the operation runs. Once a claim is older than the claim timeout a waiter
+ * tries to delete it, but the delete blocks on that lock, so it only succeeds after the owner is gone (rolled
+ * back or its connection closed by a crash) and never while the operation can still commit.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMillis;
+    private final long claimTimeoutMillis;
+    private final long waitTimeoutMillis;
+    private final Map<String, CachedResponse> cache;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${application.idempotency.ttl:86400000}") long ttlMillis,
+                              @Value("${application.idempotency.cache-size:10000}") int cacheSize,
+                              @Value("${application.idempotency.claim-timeout:30000}") long claimTimeoutMillis,
+                              @Value("${application.idempotency.wait-timeout:5000}") long waitTimeoutMillis) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.ttlMillis = ttlMillis;
+        this.claimTimeoutMillis = claimTimeoutMillis;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    private record CachedResponse(String requestHash, String body, LocalDateTime expiresAt) {
+
+        boolean inProgress() {
+            return body.isEmpty();
+        }
+    }
+
+    /**
+     * Runs the operation once per idempotency key and replays its stored response on retries.
+     * Replays only read; a write transaction is opened only by the request that runs the operation.
+     * @param userId ID of the calling user
+     * @param operation Name of the operation the key belongs to
+     * @param key Value of the Idempotency-Key header, or null to run the operation without idempotency
+     * @param requestHash Fingerprint of the request body, used to reject key reuse with a different request
+     * @param responseType Type of the response
+     * @param action Operation to run on the first request
+     * @return Response of the first request with this key
+     * @throws BorrowingValidationException if the key is invalid or was used for a different request
+     * @throws IdempotencyConflictException if the request holding the key did not complete within the wait timeout
+     */
+    public <T> T execute(Long userId, String operation, String key, String requestHash,
+                         Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BorrowingValidationException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+        String scopedKey = userId + ":" + operation + ":" + key;
+
+        Optional<CachedResponse> stored = findStored(scopedKey, LocalDateTime.now());
+        if (stored.isEmpty()) {
+            LocalDateTime claimExpiresAt = claim(scopedKey, requestHash);
+            if (claimExpiresAt != null) {
+                return runClaimed(scopedKey, requestHash, claimExpiresAt, action);
+            }
+            log.info("Idempotency key claimed concurrently, waiting: userId={}, operation={}", userId, operation);
+            stored = findStored(scopedKey, LocalDateTime.now());
+        }
+        CachedResponse response = awaitCompletion(scopedKey, stored.orElse(null));
+        if (!response.requestHash().equals(requestHash)) {
+            throw new BorrowingValidationException("Idempotency-Key was already used for a different request.");
+        }
+        log.info("Idempotent replay: userId={}, operation={}", userId, operation);
+        return read(response.body(), responseType);
+    }
+
+    // Returns the expiry of the new claim, which identifies it later, or null if the key is already claimed
+    private LocalDateTime claim(String scopedKey, String requestHash) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(Duration.ofMillis(claimTimeoutMillis)).truncatedTo(ChronoUnit.MILLIS);
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .scopedKey(scopedKey)
+                    .requestHash(requestHash)
+                    .responseBody("")
+                    .expiresAt(expiresAt)
+                    .build()));
+            return expiresAt;
+        } catch (DataIntegrityViolationException e) {
+            return null;
+        }
+    }
+
+    private <T> T runClaimed(String scopedKey, String requestHash, LocalDateTime claimExpiresAt, Supplier<T> action) {
+        boolean[] locked = {false};
+        try {
+            return transactionTemplate.execute(status -> {
+                // Held until commit or rollback, so the claim cannot be taken over while the operation runs
+                IdempotencyRecord record = idempotencyRecordRepository.findForUpdate(scopedKey)
+                        .filter(claimed -> claimed.isInProgress() && claimed.getExpiresAt().equals(claimExpiresAt))
+                        .orElseThrow(() -> new IdempotencyConflictException("Idempotency-Key claim was taken over before the request started."));
+                locked[0] = true;
+                T result = action.get();
+                CachedResponse response = new CachedResponse(requestHash, write(result),
+                        LocalDateTime.now().plus(Duration.ofMillis(ttlMillis)));
+                record.setResponseBody(response.body());
+                record.setExpiresAt(response.expiresAt());
+                idempotencyRecordRepository.save(record);
+                cacheAfterCommit(scopedKey, response);
+                return result;
+            });
+        } catch (RuntimeException e) {
+            // Nothing was stored for the failed attempt, so a retry with the same key may run again
+            if (locked[0]) {
+                transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.releaseClaim(scopedKey));
+            }
+            throw e;
+        }
+    }
+
+    private CachedResponse awaitCompletion(String scopedKey, CachedResponse current) {
+        long deadline = System.currentTimeMillis() + waitTimeoutMillis;
+        while (current == null || current.inProgress()) {
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress, retry later.");
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyConflictException("Interrupted while waiting for a request with the same Idempotency-Key.");
+            }
+            current = findStored(scopedKey, LocalDateTime.now()).orElse(null);
+        }
+        return current;
+    }
+
+    /**
+     * Removes expired keys from the table and the in-memory cache.
+     */
+    @Scheduled(fixedDelayString = "${application.idempotency.purge-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (cache) {
+            cache.values().removeIf(cached -> cached.expiresAt().isBefore(now));
+        }
+        int deleted = idempotencyRecordRepository.deleteExpired(now);
+        if (deleted > 0) {
+            log.info("Expired idempotency keys purged: count={}", deleted);
+        }
+    }
+
+    private Optional<CachedResponse> findStored(String scopedKey, LocalDateTime now) {
+        return findStored(scopedKey, now, true);
+    }
+
+    private Optional<CachedResponse> findStored(String scopedKey, LocalDateTime now, boolean takeOverExpired) {
+        synchronized (cache) {
+            CachedResponse cached = cache.get(scopedKey);
+            if (cached != null) {
+                if (cached.expiresAt().isAfter(now)) {
+                    return Optional.of(cached);
+                }
+                cache.remove(scopedKey);
+            }
+        }
+        Optional<IdempotencyRecordRepository.StoredResponse> record = idempotencyRecordRepository.findResponse(scopedKey);
+        if (record.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!record.get().expiresAt().isAfter(now)) {
+            if (!takeOverExpired) {
+                return Optional.empty();
+            }
+            // Also frees keys whose claim was abandoned by a crashed request. The delete waits for a running
+            // owner's lock; if nothing was deleted, the owner completed meanwhile and its response is read instead
+            Integer deleted = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteIfExpired(scopedKey, now));
+            return deleted != null && deleted > 0 ? Optional.empty() : findStored(scopedKey, now, false);
+        }
+        CachedResponse loaded = new CachedResponse(record.get().requestHash(), record.get().responseBody(), record.get().expiresAt());
+        if (!loaded.inProgress()) {
+            synchronized (cache) {
+                cache.put(scopedKey, loaded);
+            }
+        }
+        return Optional.of(loaded);
+    }
+
+    private void cacheAfterCommit(String scopedKey, CachedResponse response) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (cache) {
+                cache.put(scopedKey, response);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (cache) {
+                    cache.put(scopedKey, response);
+                }
+            }
+        });
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response could not be stored for idempotent replay", e);
+        }
+    }
+
+    private <T> T read(String body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+}
@@ -2,21 +2,22 @@ package com.iremkvkpnr.librarymanagement.service;
 
 import com.iremkvkpnr.librarymanagement.model.dto.request.UserRequest;
 import com.iremkvkpnr.librarymanagement.model.dto.response.UserResponse;
-import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
 import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.model.event.UserChangedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.UserRegisteredEvent;
 import com.iremkvkpnr.librarymanagement.model.exception.UserPrincipalNotFoundException;
 import com.iremkvkpnr.librarymanagement.model.exception.UserValidationException;
 import com.iremkvkpnr.librarymanagement.model.mapper.UserMapper;
-import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingArchiveRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingViewRepository;
 import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.service.overdue.OverdueTrackingService;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
-import java.util.List;
-
 /**
  * Service layer for user operations.
  * Handles user registration, update, deletion, detail retrieval, and eligibility checks.
@@ -27,11 +28,17 @@ public class UserService {
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
-    private final BorrowingRepository borrowingRepository;
+    private final OverdueTrackingService overdueTrackingService;
+    private final BorrowingArchiveRepository borrowingArchiveRepository;
+    private final BorrowingViewRepository borrowingViewRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepository userRepository, BorrowingRepository borrowingRepository) {
+    public UserService(UserRepository userRepository, OverdueTrackingService overdueTrackingService, BorrowingArchiveRepository borrowingArchiveRepository, BorrowingViewRepository borrowingViewRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
-        this.borrowingRepository = borrowingRepository;
+        this.overdueTrackingService = overdueTrackingService;
+        this.borrowingArchiveRepository = borrowingArchiveRepository;
+        this.borrowingViewRepository = borrowingViewRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -47,6 +54,7 @@ public class UserService {
         }
         User user = UserMapper.toEntity(request);
         User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserRegisteredEvent(saved.getId(), saved.getEmail()));
         log.info("New user registered: {}", saved);
         return UserMapper.toDto(saved);
     }
@@ -82,6 +90,7 @@ public class UserService {
                     log.error("User to update not found: id={}", id);
                     return new UserPrincipalNotFoundException("User not found with ID: " + id);
                 });
+        String previousEmail = existingUser.getEmail();
 
         if (request.name() != null && !request.name().trim().isEmpty()) {
             existingUser.setName(request.name());
@@ -99,6 +108,8 @@ public class UserService {
             existingUser.setRole(request.role());
         }
         User updated = userRepository.save(existingUser);
+        borrowingViewRepository.updateUserName(updated.getId(), updated.getName());
+        eventPublisher.publishEvent(new UserChangedEvent(updated.getId(), previousEmail));
         log.info("User updated: {}", updated);
         return UserMapper.toDto(updated);
     }
@@ -115,7 +126,10 @@ public class UserService {
                     log.error("User to delete not found: id={}", id);
                     return new UserPrincipalNotFoundException("User not found with ID: " + id);
                 });
+        borrowingArchiveRepository.deleteByUserId(id);
+        borrowingViewRepository.deleteByUserId(id);
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
         log.info("User deleted: {}", user);
     }
 
@@ -128,9 +142,7 @@ public class UserService {
     public boolean isUserEligible(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserPrincipalNotFoundException("User not found with ID: " + userId));
-        List<Borrowing> overdueBooks = borrowingRepository.findOverdueBooks(LocalDate.now());
-        boolean hasOverdueBooks = overdueBooks.stream()
-                .anyMatch(borrowing -> borrowing.getUser().getId().equals(userId));
+        boolean hasOverdueBooks = overdueTrackingService.countOverdueByUser(userId) > 0;
         if (hasOverdueBooks) {
             throw new UserValidationException("User has overdue books and is not eligible to borrow.");
         }
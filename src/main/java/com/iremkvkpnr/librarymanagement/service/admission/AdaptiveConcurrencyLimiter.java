@@ -0,0 +1,197 @@
+package com.iremkvkpnr.librarymanagement.service.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control with a concurrency limit that follows request latency (AIMD).
+ * Latencies are collected per window; when a window's average latency exceeds the SLO the limit is cut
+ * multiplicatively, and when latency is within the SLO while at least half of the limit was in use it grows
+ * by one. Each priority may only fill its share of the limit, so low priority traffic is shed first as the
+ * limit shrinks while critical traffic can still use all of it. Only critical and normal requests contribute
+ * latency samples: low priority routes such as imports and search are slow by nature and would otherwise
+ * shrink the limit that critical traffic depends on.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private final boolean enabled;
+    private final long sloNanos;
+    private final long windowNanos;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final Map<RequestPriority, Double> shares = new EnumMap<>(RequestPriority.class);
+    private final List<Map.Entry<String, RequestPriority>> priorities;
+    private final List<String> exempt;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final LongAdder windowLatency = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private volatile double limit;
+
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+
+    public AdaptiveConcurrencyLimiter(@Value("${application.load-shedding.enabled:true}") boolean enabled,
+                                      @Value("${application.load-shedding.latency-slo-ms:500}") long sloMillis,
+                                      @Value("${application.load-shedding.window-ms:1000}") long windowMillis,
+                                      @Value("${application.load-shedding.initial-limit:100}") int initialLimit,
+                                      @Value("${application.load-shedding.min-limit:10}") int minLimit,
+                                      @Value("${application.load-shedding.max-limit:200}") int maxLimit,
+                                      @Value("${application.load-shedding.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${application.load-shedding.normal-share:0.8}") double normalShare,
+                                      @Value("${application.load-shedding.low-share:0.5}") double lowShare,
+                                      @Value("#{${application.load-shedding.priorities:{:}}}") Map<String, String> priorities,
+                                      @Value("${application.load-shedding.exempt:}") List<String> exempt,
+                                      MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.sloNanos = TimeUnit.MILLISECONDS.toNanos(sloMillis);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        shares.put(RequestPriority.CRITICAL, 1.0);
+        shares.put(RequestPriority.NORMAL, normalShare);
+        shares.put(RequestPriority.LOW, lowShare);
+
+        List<Map.Entry<String, RequestPriority>> parsed = new ArrayList<>();
+        priorities.forEach((pattern, priority) ->
+                parsed.add(Map.entry(pattern, RequestPriority.valueOf(priority.trim().toUpperCase(Locale.ROOT)))));
+        parsed.sort(Map.Entry.comparingByKey(pathMatcher.getPatternComparator("")));
+        this.priorities = List.copyOf(parsed);
+        this.exempt = exempt.stream().filter(pattern -> !pattern.isBlank()).map(String::trim).toList();
+
+        Gauge.builder("library.admission.limit", this, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("library.admission.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejected.put(priority, Counter.builder("library.admission.rejected")
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return true if requests are subject to admission control
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param path Request path
+     * @return Priority of the path, or empty if the path bypasses admission control (e.g. long-lived streams)
+     */
+    public Optional<RequestPriority> priorityOf(String path) {
+        for (String pattern : exempt) {
+            if (pathMatcher.match(pattern, path)) {
+                return Optional.empty();
+            }
+        }
+        for (Map.Entry<String, RequestPriority> entry : priorities) {
+            if (pathMatcher.match(entry.getKey(), path)) {
+                return Optional.of(entry.getValue());
+            }
+        }
+        return Optional.of(RequestPriority.NORMAL);
+    }
+
+    /**
+     * Admits a request if its priority's share of the limit is not used up.
+     * Every admitted request must be followed by exactly one {@link #release}.
+     * @param priority Priority of the request
+     * @return true if admitted
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * shares.get(priority)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and records its latency unless it is low priority.
+     * @param priority Priority the request was admitted with
+     * @param latencyNanos Time the request took, or a negative value to release without a sample
+     */
+    public void release(RequestPriority priority, long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos >= 0 && priority != RequestPriority.LOW) {
+            windowLatency.add(latencyNanos);
+            windowSamples.increment();
+        }
+        maybeAdjust(System.nanoTime());
+    }
+
+    /**
+     * Closes the current window once it has elapsed and adjusts the limit from its samples.
+     * Only the thread that wins the CAS on the window start adjusts, so concurrent releases never block.
+     */
+    void maybeAdjust(long now) {
+        long start = windowStart.get();
+        if (now - start < windowNanos || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        long samples = windowSamples.sumThenReset();
+        long latency = windowLatency.sumThenReset();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        if (samples == 0) {
+            return;
+        }
+        double previous = limit;
+        if (latency / samples > sloNanos) {
+            limit = Math.max(minLimit, previous * backoffRatio);
+        } else if (peak * 2 >= previous) {
+            limit = Math.min(maxLimit, previous + 1);
+        }
+        if ((int) limit != (int) previous) {
+            log.info("Concurrency limit adjusted: limit={}, avgLatencyMs={}, peakInFlight={}",
+                    (int) limit, TimeUnit.NANOSECONDS.toMillis(latency / samples), peak);
+        }
+    }
+
+    /**
+     * @return Current concurrency limit
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return Requests currently admitted
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,11 @@
+package com.iremkvkpnr.librarymanagement.service.admission;
+
+/**
+ * How important a request is when the service is overloaded.
+ * Lower priorities may only use a share of the concurrency limit, so they are shed first as the limit shrinks.
+ */
+public enum RequestPriority {
+    CRITICAL,
+    NORMAL,
+    LOW
+}
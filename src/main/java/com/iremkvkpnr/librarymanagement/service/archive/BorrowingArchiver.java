@@ -0,0 +1,55 @@
+package com.iremkvkpnr.librarymanagement.service.archive;
+
+import com.iremkvkpnr.librarymanagement.repository.BorrowingArchiveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Background job that keeps the borrowings table small by moving returned loans to borrowings_archive.
+ * Active loans, holds and recently returned loans stay in the hot table, which is all that operational
+ * queries read. Each chunk is moved in its own transaction so a run never holds long locks.
+ */
+@Service
+public class BorrowingArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowingArchiver.class);
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final BorrowingArchiveRepository archiveRepository;
+    private final boolean enabled;
+    private final int minAgeDays;
+
+    public BorrowingArchiver(BorrowingArchiveRepository archiveRepository,
+                             @Value("${application.borrowing-archive.enabled:true}") boolean enabled,
+                             @Value("${application.borrowing-archive.min-age-days:30}") int minAgeDays) {
+        this.archiveRepository = archiveRepository;
+        this.enabled = enabled;
+        this.minAgeDays = minAgeDays;
+    }
+
+    /**
+     * Moves every borrowing returned more than the configured number of days ago to the archive.
+     * @return Number of borrowings moved
+     */
+    @Scheduled(cron = "${application.borrowing-archive.cron:0 30 2 * * *}")
+    public long archiveReturnedLoans() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(minAgeDays);
+        long total = 0;
+        int moved;
+        do {
+            moved = archiveRepository.moveReturnedBefore(cutoff, CHUNK_SIZE);
+            total += moved;
+        } while (moved == CHUNK_SIZE);
+        log.info("Returned borrowings archived: cutoff={}, count={}", cutoff, total);
+        return total;
+    }
+}
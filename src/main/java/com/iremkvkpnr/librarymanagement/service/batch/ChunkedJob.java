@@ -0,0 +1,54 @@
+package com.iremkvkpnr.librarymanagement.service.batch;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Batch job that {@link ChunkedJobRunner} drives in keyset chunks.
+ * Items are read in ascending key order. Chunk writes must be idempotent: after a crash the runner
+ * resumes from the last checkpoint and may write up to one wave of chunks again.
+ * @param <T> Type of the items
+ */
+public interface ChunkedJob<T> {
+
+    /**
+     * @return Unique name, used as the checkpoint key
+     */
+    String name();
+
+    /**
+     * Called once before the first chunk of a new run, not when a run is resumed.
+     * @param runDate Business day of the run
+     */
+    default void beforeRun(LocalDate runDate) {
+    }
+
+    /**
+     * Reads the next chunk.
+     * @param afterKey Only items with a greater key are read
+     * @param limit Maximum number of items
+     * @param runDate Business day of the run
+     * @return Items in ascending key order
+     */
+    List<T> read(long afterKey, int limit, LocalDate runDate);
+
+    /**
+     * @param item Item read by {@link #read}
+     * @return Key of the item
+     */
+    long keyOf(T item);
+
+    /**
+     * Processes one chunk. Runs inside a transaction, possibly in parallel with other chunks of the same wave.
+     * @param chunk Items of the chunk
+     * @param runDate Business day of the run
+     */
+    void write(List<T> chunk, LocalDate runDate);
+
+    /**
+     * Called once after the last chunk of a run.
+     * @param runDate Business day of the run
+     */
+    default void afterRun(LocalDate runDate) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.iremkvkpnr.librarymanagement.service.batch;
+
+import com.iremkvkpnr.librarymanagement.model.entity.JobCheckpoint;
+import com.iremkvkpnr.librarymanagement.repository.JobCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs {@link ChunkedJob}s with restartable checkpoints.
+ * Each wave reads up to {@code parallelism} chunks on the calling thread, writes them in parallel on virtual
+ * threads (one transaction per chunk) and then stores the key of the last item as the checkpoint. A run that
+ * fails keeps its checkpoint and resumes from it when started again for the same day; a completed run for
+ * the same day is not repeated. Work per run is proportional to the number of items the job reads.
+ */
+@Service
+public class ChunkedJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedJobRunner.class);
+
+    private final JobCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ChunkedJobRunner(JobCheckpointRepository checkpointRepository, TransactionTemplate transactionTemplate) {
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Runs a job for a business day, resuming an unfinished run of the same day.
+     * @param job Job to run
+     * @param runDate Business day of the run
+     * @param chunkSize Items per chunk
+     * @param parallelism Chunks written concurrently
+     * @return Checkpoint of the completed run
+     */
+    public <T> JobCheckpoint run(ChunkedJob<T> job, LocalDate runDate, int chunkSize, int parallelism) {
+        JobCheckpoint checkpoint = checkpointRepository.findById(job.name())
+                .filter(existing -> existing.getRunDate().equals(runDate))
+                .orElse(null);
+        if (checkpoint != null && checkpoint.getStatus() == JobCheckpoint.Status.COMPLETED) {
+            log.info("Batch job already completed: job={}, runDate={}", job.name(), runDate);
+            return checkpoint;
+        }
+        if (checkpoint == null) {
+            job.beforeRun(runDate);
+            checkpoint = save(JobCheckpoint.builder()
+                    .jobName(job.name())
+                    .runDate(runDate)
+                    .status(JobCheckpoint.Status.RUNNING)
+                    .build());
+        } else {
+            log.info("Batch job resumed: job={}, runDate={}, afterKey={}", job.name(), runDate, checkpoint.getLastKey());
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long afterKey = checkpoint.getLastKey();
+            boolean exhausted = false;
+            while (!exhausted) {
+                List<List<T>> wave = new ArrayList<>();
+                while (wave.size() < parallelism) {
+                    List<T> chunk = job.read(afterKey, chunkSize, runDate);
+                    if (!chunk.isEmpty()) {
+                        wave.add(chunk);
+                        afterKey = job.keyOf(chunk.get(chunk.size() - 1));
+                    }
+                    if (chunk.size() < chunkSize) {
+                        exhausted = true;
+                        break;
+                    }
+                }
+                if (wave.isEmpty()) {
+                    break;
+                }
+                List<Future<?>> writes = new ArrayList<>();
+                for (List<T> chunk : wave) {
+                    writes.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> job.write(chunk, runDate))));
+                }
+                for (Future<?> write : writes) {
+                    write.get();
+                }
+                checkpoint.setLastKey(afterKey);
+                checkpoint.setItemsProcessed(checkpoint.getItemsProcessed() + wave.stream().mapToInt(List::size).sum());
+                checkpoint = save(checkpoint);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch job interrupted: " + job.name(), e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch job failed: " + job.name() + ", resumes after key " + checkpoint.getLastKey(), e.getCause());
+        }
+
+        job.afterRun(runDate);
+        checkpoint.setStatus(JobCheckpoint.Status.COMPLETED);
+        checkpoint = save(checkpoint);
+        log.info("Batch job completed: job={}, runDate={}, items={}", job.name(), runDate, checkpoint.getItemsProcessed());
+        return checkpoint;
+    }
+
+    private JobCheckpoint save(JobCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return checkpointRepository.save(checkpoint);
+    }
+}
@@ -0,0 +1,157 @@
+package com.iremkvkpnr.librarymanagement.service.fine;
+
+import com.iremkvkpnr.librarymanagement.model.entity.FineRun;
+import com.iremkvkpnr.librarymanagement.model.entity.LoanFine;
+import com.iremkvkpnr.librarymanagement.repository.FineRepository;
+import com.iremkvkpnr.librarymanagement.repository.FineRepository.FineCandidate;
+import com.iremkvkpnr.librarymanagement.repository.FineRunRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calculates late fees for all late loans and stores them in loan_fines.
+ * Loans are read in keyset chunks on the calling thread; each chunk is priced and upserted in its own
+ * transaction on a virtual thread, with at most {@code parallelism} chunks in flight so memory stays bounded.
+ * Incremental runs only read loans that are still open or were returned since the last finished run;
+ * the first run, and any run after the rates changed, is full.
+ */
+@Service
+public class FineEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(FineEngine.class);
+
+    private final FineRepository fineRepository;
+    private final FineRunRepository fineRunRepository;
+    private final FinePolicy finePolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public FineEngine(FineRepository fineRepository,
+                      FineRunRepository fineRunRepository,
+                      FinePolicy finePolicy,
+                      TransactionTemplate transactionTemplate,
+                      @Value("${application.fines.enabled:true}") boolean enabled,
+                      @Value("${application.fines.chunk-size:1000}") int chunkSize,
+                      @Value("${application.fines.parallelism:4}") int parallelism) {
+        this.fineRepository = fineRepository;
+        this.fineRunRepository = fineRunRepository;
+        this.finePolicy = finePolicy;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    @Scheduled(cron = "${application.fines.cron:0 45 0 * * *}")
+    public void runNightly() {
+        if (enabled) {
+            run(false);
+        }
+    }
+
+    /**
+     * Runs the engine.
+     * @param full Recalculate every late loan instead of only those changed since the last run
+     * @return The finished run, or empty if another run was in progress
+     */
+    public Optional<FineRun> run(boolean full) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Fine run skipped, another run is in progress");
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(execute(full));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private FineRun execute(boolean full) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime startedAt = LocalDateTime.now();
+        String fingerprint = finePolicy.fingerprint();
+        Optional<FineRun> last = fineRunRepository.findFirstByFinishedAtIsNotNullOrderByStartedAtDesc();
+        boolean incremental = !full && last.isPresent() && last.get().getRatesFingerprint().equals(fingerprint);
+        // Returns are dated by day, so the last run's day is included again
+        LocalDate since = incremental ? last.get().getStartedAt().toLocalDate() : null;
+
+        FineRun run = fineRunRepository.save(FineRun.builder()
+                .mode(incremental ? FineRun.Mode.INCREMENTAL : FineRun.Mode.FULL)
+                .ratesFingerprint(fingerprint)
+                .startedAt(startedAt)
+                .build());
+
+        AtomicLong written = new AtomicLong();
+        long processed = 0;
+        Semaphore inFlight = new Semaphore(parallelism);
+        List<Future<?>> chunks = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long afterId = 0;
+            List<FineCandidate> chunk;
+            do {
+                chunk = incremental
+                        ? fineRepository.findChangedCandidates(afterId, since, today, chunkSize)
+                        : fineRepository.findCandidates(afterId, today, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1).borrowingId();
+                processed += chunk.size();
+                inFlight.acquireUninterruptibly();
+                List<FineCandidate> loans = chunk;
+                chunks.add(executor.submit(() -> {
+                    try {
+                        written.addAndGet(writeChunk(loans, today, startedAt));
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            } while (chunk.size() == chunkSize);
+            for (Future<?> future : chunks) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Fine run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fine run failed: id=" + run.getId(), e.getCause());
+        }
+
+        run.setLoansProcessed(processed);
+        run.setFinesWritten(written.get());
+        run.setFinishedAt(LocalDateTime.now());
+        fineRunRepository.save(run);
+        log.info("Fine run finished: mode={}, loans={}, fines={}", run.getMode(), processed, written.get());
+        return run;
+    }
+
+    private int writeChunk(List<FineCandidate> loans, LocalDate today, LocalDateTime calculatedAt) {
+        List<LoanFine> fines = loans.stream()
+                .map(loan -> finePolicy.calculate(loan, today, calculatedAt))
+                .filter(Objects::nonNull)
+                .toList();
+        Integer count = transactionTemplate.execute(status -> fineRepository.upsertAll(fines));
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,80 @@
+package com.iremkvkpnr.librarymanagement.service.fine;
+
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.LoanFine;
+import com.iremkvkpnr.librarymanagement.repository.FineRepository.FineCandidate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Late fee rules: a per-day rate by genre (falling back to a default rate), capped per loan.
+ * A loan is late from the day after its due date until it is returned, or until today while it is open.
+ */
+@Component
+public class FinePolicy {
+
+    private final Map<Book.Genre, BigDecimal> ratesByGenre;
+    private final BigDecimal defaultRate;
+    private final BigDecimal maxPerLoan;
+
+    public FinePolicy(@Value("#{${application.fines.rates:{:}}}") Map<String, String> rates,
+                      @Value("${application.fines.default-rate:0.50}") BigDecimal defaultRate,
+                      @Value("${application.fines.max-per-loan:0}") BigDecimal maxPerLoan) {
+        this.ratesByGenre = new EnumMap<>(Book.Genre.class);
+        rates.forEach((genre, rate) -> ratesByGenre.put(Book.Genre.valueOf(genre.toUpperCase()), new BigDecimal(rate)));
+        this.defaultRate = defaultRate;
+        this.maxPerLoan = maxPerLoan;
+    }
+
+    /**
+     * Calculates the fine of a loan.
+     * @param candidate Loan to charge
+     * @param today Current day
+     * @param calculatedAt Time stamp of the run
+     * @return Fine, or null if the loan is not late
+     */
+    public LoanFine calculate(FineCandidate candidate, LocalDate today, LocalDateTime calculatedAt) {
+        LocalDate end = candidate.returnDate() != null ? candidate.returnDate() : today;
+        long daysLate = ChronoUnit.DAYS.between(candidate.dueDate(), end);
+        if (daysLate <= 0) {
+            return null;
+        }
+        BigDecimal amount = rateFor(candidate.genre()).multiply(BigDecimal.valueOf(daysLate));
+        if (maxPerLoan.signum() > 0 && amount.compareTo(maxPerLoan) > 0) {
+            amount = maxPerLoan;
+        }
+        return LoanFine.builder()
+                .borrowingId(candidate.borrowingId())
+                .userId(candidate.userId())
+                .bookId(candidate.bookId())
+                .daysLate((int) daysLate)
+                .amount(amount.setScale(2, RoundingMode.HALF_UP))
+                .calculatedAt(calculatedAt)
+                .build();
+    }
+
+    /**
+     * Describes the configured rates, so that runs can detect a rate change.
+     * @return Stable text form of the rates
+     */
+    public String fingerprint() {
+        String rates = ratesByGenre.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue().stripTrailingZeros().toPlainString())
+                .collect(Collectors.joining(","));
+        return rates + ";default=" + defaultRate.stripTrailingZeros().toPlainString()
+                + ";max=" + maxPerLoan.stripTrailingZeros().toPlainString();
+    }
+
+    private BigDecimal rateFor(Book.Genre genre) {
+        return genre == null ? defaultRate : ratesByGenre.getOrDefault(genre, defaultRate);
+    }
+}
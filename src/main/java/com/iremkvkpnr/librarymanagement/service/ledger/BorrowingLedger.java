@@ -0,0 +1,143 @@
+package com.iremkvkpnr.librarymanagement.service.ledger;
+
+import com.iremkvkpnr.librarymanagement.model.event.BookBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BookInventoryChangedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BookReturnedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BooksBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BooksReturnedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Audit trail of every borrow, return and inventory change, kept in a {@link SegmentedLog} on local disk.
+ * Entries are appended after the database transaction commits, and a dedicated thread fsyncs all entries
+ * appended since the previous run in one go, so a crash can lose at most one sync interval. The thread is
+ * owned by the ledger rather than the shared Spring scheduler, where batch jobs could delay the fsync.
+ * Replaying the ledger rebuilds inventory and per-user counters without querying the database.
+ */
+@Service
+public class BorrowingLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowingLedger.class);
+
+    private final SegmentedLog segmentedLog;
+    private final ScheduledExecutorService syncExecutor;
+
+    public BorrowingLedger(@Value("${application.ledger.enabled:true}") boolean enabled,
+                           @Value("${application.ledger.directory:data/ledger}") String directory,
+                           @Value("${application.ledger.segment-size:67108864}") int segmentSize,
+                           @Value("${application.ledger.fsync-interval-ms:50}") long fsyncIntervalMillis) throws IOException {
+        this.segmentedLog = enabled ? new SegmentedLog(Path.of(directory), segmentSize) : null;
+        this.syncExecutor = enabled ? Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("ledger-fsync").daemon().factory()) : null;
+        if (enabled) {
+            syncExecutor.scheduleWithFixedDelay(this::sync, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+            log.info("Borrowing ledger opened: directory={}", directory);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookBorrowed(BookBorrowedEvent event) {
+        append(LedgerEvent.borrowed(System.currentTimeMillis(), event.borrowingId(), event.userId(), event.bookId()));
+    }
+
+    @TransactionalEventListener
+    public void onBookReturned(BookReturnedEvent event) {
+        append(LedgerEvent.returned(System.currentTimeMillis(), event.borrowingId(), event.userId(), event.bookId()));
+    }
+
+    @TransactionalEventListener
+    public void onBooksBorrowed(BooksBorrowedEvent event) {
+        event.borrowings().forEach(this::onBookBorrowed);
+    }
+
+    @TransactionalEventListener
+    public void onBooksReturned(BooksReturnedEvent event) {
+        event.returns().forEach(this::onBookReturned);
+    }
+
+    @TransactionalEventListener
+    public void onInventoryChanged(BookInventoryChangedEvent event) {
+        append(LedgerEvent.inventory(System.currentTimeMillis(), event.bookId(), event.totalCopies(), event.availableCopies()));
+    }
+
+    /**
+     * Group fsync: flushes every entry appended since the previous call.
+     */
+    public void sync() {
+        if (segmentedLog == null) {
+            return;
+        }
+        // An exception would cancel the periodic task, so a failed fsync is logged and retried next interval
+        try {
+            segmentedLog.force();
+        } catch (RuntimeException e) {
+            log.error("Failed to sync borrowing ledger", e);
+        }
+    }
+
+    /**
+     * Replays every entry in the ledger in append order.
+     * @param consumer Receives each entry
+     * @return Number of entries replayed
+     */
+    public long replay(Consumer<LedgerEvent> consumer) {
+        if (segmentedLog == null) {
+            return 0;
+        }
+        return segmentedLog.replay(payload -> consumer.accept(LedgerEvent.decode(payload)));
+    }
+
+    /**
+     * Rebuilds inventory, per-user active loan counters and open borrowings from the ledger.
+     * @return Folded ledger state
+     */
+    public LedgerState rebuildState() {
+        long start = System.nanoTime();
+        LedgerState state = new LedgerState();
+        replay(state::apply);
+        log.info("Ledger state rebuilt: events={}, tookMs={}", state.getEventCount(), (System.nanoTime() - start) / 1_000_000);
+        return state;
+    }
+
+    public boolean isEnabled() {
+        return segmentedLog != null;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (segmentedLog != null) {
+            // Let a running fsync finish before the segment is closed, which forces it one last time
+            syncExecutor.shutdown();
+            try {
+                syncExecutor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            segmentedLog.close();
+        }
+    }
+
+    // The database is the source of truth, so a failed append is logged rather than failing the request
+    private void append(LedgerEvent event) {
+        if (segmentedLog == null) {
+            return;
+        }
+        try {
+            segmentedLog.append(event.encode());
+        } catch (RuntimeException e) {
+            log.error("Failed to append ledger event: {}", event, e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.iremkvkpnr.librarymanagement.service.ledger;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One entry of the borrowing ledger, encoded as a fixed 41-byte record.
+ * Copy counts are only meaningful for {@link Type#INVENTORY} entries and are zero otherwise.
+ */
+public record LedgerEvent(
+        Type type,
+        long timestamp,
+        long borrowingId,
+        long userId,
+        long bookId,
+        int totalCopies,
+        int availableCopies
+) {
+
+    static final int SIZE = 1 + 8 + 8 + 8 + 8 + 4 + 4;
+
+    public enum Type {
+        BORROWED,
+        RETURNED,
+        INVENTORY
+    }
+
+    public static LedgerEvent borrowed(long timestamp, long borrowingId, long userId, long bookId) {
+        return new LedgerEvent(Type.BORROWED, timestamp, borrowingId, userId, bookId, 0, 0);
+    }
+
+    public static LedgerEvent returned(long timestamp, long borrowingId, long userId, long bookId) {
+        return new LedgerEvent(Type.RETURNED, timestamp, borrowingId, userId, bookId, 0, 0);
+    }
+
+    public static LedgerEvent inventory(long timestamp, long bookId, int totalCopies, int availableCopies) {
+        return new LedgerEvent(Type.INVENTORY, timestamp, 0, 0, bookId, totalCopies, availableCopies);
+    }
+
+    ByteBuffer encode() {
+        return ByteBuffer.allocate(SIZE)
+                .put((byte) type.ordinal())
+                .putLong(timestamp)
+                .putLong(borrowingId)
+                .putLong(userId)
+                .putLong(bookId)
+                .putInt(totalCopies)
+                .putInt(availableCopies)
+                .flip();
+    }
+
+    static LedgerEvent decode(ByteBuffer buffer) {
+        if (buffer.remaining() != SIZE) {
+            throw new IllegalArgumentException("Unexpected ledger record size: " + buffer.remaining());
+        }
+        return new LedgerEvent(
+                Type.values()[buffer.get()],
+                buffer.getLong(),
+                buffer.getLong(),
+                buffer.getLong(),
+                buffer.getLong(),
+                buffer.getInt(),
+                buffer.getInt());
+    }
+}
@@ -0,0 +1,61 @@
+package com.iremkvkpnr.librarymanagement.service.ledger;
+
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Replays the {@link BorrowingLedger} at startup and checks its open borrowings against the database.
+ * A borrowing the ledger still holds open but the database has closed or removed means a return was lost
+ * from the ledger, which is logged so the ledger can be repaired before it is trusted for an audit.
+ * The folded state is not used to warm caches: ledger entries carry no due dates for the overdue tracker,
+ * and the database stays the source of truth for inventory.
+ */
+@Component
+public class LedgerStartupCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerStartupCheck.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int LOGGED_IDS = 20;
+
+    private final BorrowingLedger borrowingLedger;
+    private final BorrowingRepository borrowingRepository;
+
+    public LedgerStartupCheck(BorrowingLedger borrowingLedger, BorrowingRepository borrowingRepository) {
+        this.borrowingLedger = borrowingLedger;
+        this.borrowingRepository = borrowingRepository;
+    }
+
+    /**
+     * Rebuilds the ledger state and compares its open borrowings with the database.
+     * @return IDs of borrowings open in the ledger but not in the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public Set<Long> verify() {
+        if (!borrowingLedger.isEnabled()) {
+            return Set.of();
+        }
+        LedgerState state = borrowingLedger.rebuildState();
+        List<Long> ledgerOpen = List.copyOf(state.getOpenBorrowings());
+        Set<Long> diverged = new HashSet<>(ledgerOpen);
+        for (int from = 0; from < ledgerOpen.size(); from += CHUNK_SIZE) {
+            borrowingRepository.findOpenIdsIn(ledgerOpen.subList(from, Math.min(from + CHUNK_SIZE, ledgerOpen.size())))
+                    .forEach(diverged::remove);
+        }
+        if (diverged.isEmpty()) {
+            log.info("Ledger matches database: openBorrowings={}", ledgerOpen.size());
+        } else {
+            log.warn("Ledger diverges from database: openInLedgerOnly={}, sample={}",
+                    diverged.size(), diverged.stream().sorted().limit(LOGGED_IDS).toList());
+        }
+        return diverged;
+    }
+}
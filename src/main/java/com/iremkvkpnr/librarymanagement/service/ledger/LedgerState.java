@@ -0,0 +1,55 @@
+package com.iremkvkpnr.librarymanagement.service.ledger;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * State folded from ledger events: available copies per book, active loans per user and the open borrowings.
+ * Inventory entries set a book's copies absolutely and borrows and returns adjust them by one, so a book
+ * whose inventory entry precedes the ledger only shows the net change since then.
+ */
+public class LedgerState {
+
+    private final Map<Long, Integer> availableCopies = new HashMap<>();
+    private final Map<Long, Integer> activeLoansByUser = new HashMap<>();
+    private final Set<Long> openBorrowings = new HashSet<>();
+    private long eventCount;
+
+    void apply(LedgerEvent event) {
+        eventCount++;
+        switch (event.type()) {
+            case BORROWED -> {
+                availableCopies.merge(event.bookId(), -1, Integer::sum);
+                if (openBorrowings.add(event.borrowingId())) {
+                    activeLoansByUser.merge(event.userId(), 1, Integer::sum);
+                }
+            }
+            case RETURNED -> {
+                availableCopies.merge(event.bookId(), 1, Integer::sum);
+                if (openBorrowings.remove(event.borrowingId())) {
+                    activeLoansByUser.computeIfPresent(event.userId(), (userId, count) -> count > 1 ? count - 1 : null);
+                }
+            }
+            case INVENTORY -> availableCopies.put(event.bookId(), event.availableCopies());
+        }
+    }
+
+    public Map<Long, Integer> getAvailableCopies() {
+        return Collections.unmodifiableMap(availableCopies);
+    }
+
+    public Map<Long, Integer> getActiveLoansByUser() {
+        return Collections.unmodifiableMap(activeLoansByUser);
+    }
+
+    public Set<Long> getOpenBorrowings() {
+        return Collections.unmodifiableSet(openBorrowings);
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+}
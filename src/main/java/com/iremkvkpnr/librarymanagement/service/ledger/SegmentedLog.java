@@ -0,0 +1,196 @@
+package com.iremkvkpnr.librarymanagement.service.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log stored as a sequence of fixed-size, memory-mapped segment files.
+ * Each record is framed as [int length][int CRC32C][payload]. Segments are preallocated and zero-filled,
+ * so a zero length marks the end of the written data. A record whose length or checksum does not add up
+ * is treated as a torn write: recovery and replay stop there and the tail is zeroed before new appends.
+ * Appends only copy into the mapping; {@link #force()} flushes everything appended since the previous
+ * call, which lets a caller fsync many appends at once.
+ */
+public class SegmentedLog implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private FileChannel activeChannel;
+    private MappedByteBuffer active;
+    private long activeBase;
+    private volatile boolean dirty;
+
+    /**
+     * Opens the log in the given directory, creating it if needed, and recovers the write position.
+     * @param directory Directory holding the segment files
+     * @param segmentSize Size of each new segment in bytes
+     * @throws IOException if the directory or the last segment cannot be opened
+     */
+    public SegmentedLog(Path directory, int segmentSize) throws IOException {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            activeBase = baseOf(last);
+            activeChannel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, activeChannel.size());
+            int end = scan(active, active.capacity(), payload -> { }).end();
+            // Clear whatever follows the last valid record so it can never be mistaken for data later
+            for (int i = end; i < active.capacity(); i++) {
+                active.put(i, (byte) 0);
+            }
+            active.position(end);
+        }
+    }
+
+    /**
+     * Appends one record.
+     * @param payload Record bytes, from position to limit
+     * @return Logical offset of the record across all segments
+     */
+    public synchronized long append(ByteBuffer payload) {
+        int length = payload.remaining();
+        int frameSize = HEADER_SIZE + length;
+        if (length == 0 || frameSize > segmentSize) {
+            throw new IllegalArgumentException("Invalid record length: " + length);
+        }
+        if (active.remaining() < frameSize) {
+            roll();
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        int position = active.position();
+        long offset = activeBase + position;
+        active.position(position + HEADER_SIZE);
+        active.put(payload);
+        active.putInt(position + 4, (int) crc.getValue());
+        // Length goes in last: until it is set the frame still reads as the end of the log
+        active.putInt(position, length);
+        dirty = true;
+        return offset;
+    }
+
+    /**
+     * Flushes every record appended so far to disk.
+     */
+    public void force() {
+        MappedByteBuffer buffer;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            buffer = active;
+        }
+        buffer.force();
+    }
+
+    /**
+     * Reads every valid record from the oldest segment to the current write position.
+     * Appends are blocked while the replay runs.
+     * @param consumer Receives a read-only view of each payload
+     * @return Number of records replayed
+     */
+    public synchronized long replay(Consumer<ByteBuffer> consumer) {
+        long count = 0;
+        try {
+            for (Path segment : listSegments()) {
+                if (baseOf(segment) == activeBase) {
+                    count += scan(active, active.position(), consumer).records();
+                    continue;
+                }
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    count += scan(buffer, buffer.capacity(), consumer).records();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to replay log in " + directory, e);
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.force();
+        activeChannel.close();
+    }
+
+    private record ScanResult(int end, long records) { }
+
+    // Walks the valid records of one segment up to the limit, stopping at the first empty or damaged frame
+    private static ScanResult scan(ByteBuffer buffer, int limit, Consumer<ByteBuffer> consumer) {
+        ByteBuffer view = buffer.duplicate();
+        int position = 0;
+        long records = 0;
+        while (position + HEADER_SIZE <= limit) {
+            int length = view.getInt(position);
+            if (length <= 0 || length > limit - position - HEADER_SIZE) {
+                break;
+            }
+            ByteBuffer payload = view.duplicate().position(position + HEADER_SIZE).limit(position + HEADER_SIZE + length).slice();
+            CRC32C crc = new CRC32C();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != view.getInt(position + 4)) {
+                break;
+            }
+            consumer.accept(payload.asReadOnlyBuffer());
+            records++;
+            position += HEADER_SIZE + length;
+        }
+        return new ScanResult(position, records);
+    }
+
+    private void roll() {
+        try {
+            active.force();
+            activeChannel.close();
+            openSegment(activeBase + active.position());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll log segment in " + directory, e);
+        }
+    }
+
+    private void openSegment(long base) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        activeBase = base;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    private static long baseOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
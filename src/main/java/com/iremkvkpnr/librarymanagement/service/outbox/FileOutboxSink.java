@@ -0,0 +1,57 @@
+package com.iremkvkpnr.librarymanagement.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.iremkvkpnr.librarymanagement.model.entity.OutboxMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Outbox consumer that appends every message as one NDJSON line to a local file,
+ * for downstream systems that tail or ship the file.
+ */
+@Component
+@ConditionalOnProperty("application.outbox.file-sink.path")
+public class FileOutboxSink implements OutboxConsumer {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxSink(@Value("${application.outbox.file-sink.path}") String path, ObjectMapper objectMapper) throws IOException {
+        this.path = Path.of(path);
+        this.objectMapper = objectMapper;
+        Path parent = this.path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    @Override
+    public synchronized void accept(List<OutboxMessage> batch) {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxMessage message : batch) {
+                ObjectNode line = objectMapper.createObjectNode()
+                        .put("id", message.getId())
+                        .put("type", message.getEventType())
+                        .put("aggregateId", message.getAggregateId())
+                        .put("createdAt", message.getCreatedAt().toString());
+                line.set("payload", objectMapper.readTree(message.getPayload()));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write outbox batch to " + path, e);
+        }
+    }
+}
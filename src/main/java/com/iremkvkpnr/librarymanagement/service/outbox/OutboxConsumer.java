@@ -0,0 +1,19 @@
+package com.iremkvkpnr.librarymanagement.service.outbox;
+
+import com.iremkvkpnr.librarymanagement.model.entity.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * Local consumer of outbox messages. Every bean implementing this interface receives each dispatched batch.
+ * Delivery is at least once: if any consumer throws, the batch stays in the outbox and is redelivered to
+ * all consumers on the next run, so consumers should tolerate duplicates (message IDs are stable).
+ */
+public interface OutboxConsumer {
+
+    /**
+     * Handles one batch of messages.
+     * @param batch Messages in insertion order
+     */
+    void accept(List<OutboxMessage> batch);
+}
@@ -0,0 +1,127 @@
+package com.iremkvkpnr.librarymanagement.service.outbox;
+
+import com.iremkvkpnr.librarymanagement.model.entity.OutboxMessage;
+import com.iremkvkpnr.librarymanagement.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox in batches and hands each batch to every {@link OutboxConsumer}.
+ * A batch is locked with SKIP LOCKED, delivered and deleted in one transaction, so several instances can
+ * drain the same outbox in parallel without blocking each other or delivering a message twice on success.
+ * Metrics: library.outbox.dispatched (messages), library.outbox.batch (batch duration),
+ * library.outbox.delivery.lag (time from write to delivery) and library.outbox.oldest.age (age in ms of
+ * the oldest message at the start of the last run, 0 when the outbox was empty).
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxConsumer> consumers;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final Counter dispatchedCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryLagTimer;
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+
+    public OutboxDispatcher(OutboxRepository outboxRepository,
+                            List<OutboxConsumer> consumers,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${application.outbox.enabled:true}") boolean enabled,
+                            @Value("${application.outbox.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.consumers = consumers;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.dispatchedCounter = Counter.builder("library.outbox.dispatched")
+                .description("Outbox messages delivered to all consumers")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("library.outbox.batch")
+                .description("Time to lock, deliver and delete one outbox batch")
+                .register(meterRegistry);
+        this.deliveryLagTimer = Timer.builder("library.outbox.delivery.lag")
+                .description("Time between writing a message to the outbox and delivering it")
+                .register(meterRegistry);
+        Gauge.builder("library.outbox.oldest.age", oldestAgeMillis, AtomicLong::get)
+                .description("Age of the oldest outbox message at the start of the last dispatcher run")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        if (consumers.isEmpty()) {
+            log.warn("No outbox consumers registered; dispatched messages are discarded");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.outbox.poll-interval-ms:500}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.error("Outbox dispatch failed, batch will be retried", e);
+        }
+    }
+
+    /**
+     * Dispatches batches until the outbox is empty.
+     * @return Number of messages dispatched
+     */
+    public int drain() {
+        int total = 0;
+        int dispatched;
+        boolean first = true;
+        do {
+            boolean recordOldestAge = first;
+            dispatched = batchTimer.record(() -> dispatchBatch(recordOldestAge));
+            total += dispatched;
+            first = false;
+        } while (dispatched == batchSize);
+        if (total > 0) {
+            log.info("Outbox drained: count={}", total);
+        }
+        return total;
+    }
+
+    // Only the first batch of a run holds the oldest message; later batches of a backlog are newer
+    private int dispatchBatch(boolean recordOldestAge) {
+        Integer dispatched = transactionTemplate.execute(status -> {
+            List<OutboxMessage> batch = outboxRepository.lockNextBatch(batchSize);
+            LocalDateTime now = LocalDateTime.now();
+            if (recordOldestAge) {
+                oldestAgeMillis.set(batch.isEmpty() ? 0 : Duration.between(batch.get(0).getCreatedAt(), now).toMillis());
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            for (OutboxConsumer consumer : consumers) {
+                consumer.accept(batch);
+            }
+            outboxRepository.deleteAll(batch.stream().map(OutboxMessage::getId).toList());
+            batch.forEach(message -> deliveryLagTimer.record(Duration.between(message.getCreatedAt(), now)));
+            dispatchedCounter.increment(batch.size());
+            return batch.size();
+        });
+        return dispatched == null ? 0 : dispatched;
+    }
+}
@@ -0,0 +1,99 @@
+package com.iremkvkpnr.librarymanagement.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iremkvkpnr.librarymanagement.model.entity.OutboxMessage;
+import com.iremkvkpnr.librarymanagement.model.event.BookBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BookReturnedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BooksBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BooksReturnedEvent;
+import com.iremkvkpnr.librarymanagement.repository.OutboxRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes borrow and return events to the outbox inside the transaction that produced them.
+ * Listens synchronously, collects the messages of the current transaction and inserts them in one
+ * JDBC batch just before commit, so a batch checkout adds one statement rather than one per book.
+ * If the transaction rolls back nothing is written.
+ */
+@Component
+public class OutboxWriter {
+
+    static final String BOOK_BORROWED = "borrowing.borrowed";
+    static final String BOOK_RETURNED = "borrowing.returned";
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onBookBorrowed(BookBorrowedEvent event) {
+        enqueue(BOOK_BORROWED, event.borrowingId(), event);
+    }
+
+    @EventListener
+    public void onBookReturned(BookReturnedEvent event) {
+        enqueue(BOOK_RETURNED, event.borrowingId(), event);
+    }
+
+    @EventListener
+    public void onBooksBorrowed(BooksBorrowedEvent event) {
+        event.borrowings().forEach(this::onBookBorrowed);
+    }
+
+    @EventListener
+    public void onBooksReturned(BooksReturnedEvent event) {
+        event.returns().forEach(this::onBookReturned);
+    }
+
+    private void enqueue(String eventType, Long aggregateId, Object event) {
+        OutboxMessage message = OutboxMessage.builder()
+                .eventType(eventType)
+                .aggregateId(aggregateId)
+                .payload(toJson(event))
+                .createdAt(LocalDateTime.now())
+                .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxRepository.insertAll(List.of(message));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<OutboxMessage> pending = (List<OutboxMessage>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<OutboxMessage> messages = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, messages);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    outboxRepository.insertAll(messages);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+                }
+            });
+            pending = messages;
+        }
+        pending.add(message);
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox event " + event, e);
+        }
+    }
+}
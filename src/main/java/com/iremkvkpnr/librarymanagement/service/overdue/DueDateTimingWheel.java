@@ -0,0 +1,134 @@
+package com.iremkvkpnr.librarymanagement.service.overdue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Two-level hierarchical timing wheel with a resolution of one day.
+ * Level 0 has one slot per day for deadlines within the next 64 days; level 1 has one slot per
+ * 64-day span for deadlines up to 4096 days ahead and is cascaded into level 0 whenever a new span
+ * starts. Later deadlines wait in an overflow map until they come within range.
+ * Scheduling, cancelling and expiring an entry are O(1). Not thread safe.
+ */
+public class DueDateTimingWheel {
+
+    private static final int BITS = 6;
+    private static final int WHEEL_SIZE = 1 << BITS;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final long RANGE = (long) WHEEL_SIZE * WHEEL_SIZE;
+
+    private final List<Set<Long>> days = newLevel();
+    private final List<Set<Long>> spans = newLevel();
+    private final TreeMap<Long, Set<Long>> overflow = new TreeMap<>();
+    private final Map<Long, Long> deadlineById = new HashMap<>();
+    private long currentDay;
+
+    public DueDateTimingWheel(LocalDate today) {
+        this.currentDay = today.toEpochDay();
+    }
+
+    private static List<Set<Long>> newLevel() {
+        List<Set<Long>> level = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            level.add(new HashSet<>());
+        }
+        return level;
+    }
+
+    /**
+     * Schedules an entry to expire at the start of the given day, replacing any previous deadline.
+     * @param id Entry ID
+     * @param deadline First day on which the entry is expired
+     * @return false if the deadline has already been reached; the entry is then not scheduled
+     */
+    public boolean schedule(Long id, LocalDate deadline) {
+        cancel(id);
+        long day = deadline.toEpochDay();
+        if (day <= currentDay) {
+            return false;
+        }
+        deadlineById.put(id, day);
+        place(id, day);
+        return true;
+    }
+
+    /**
+     * Removes an entry from the wheel.
+     * @param id Entry ID
+     * @return true if the entry was scheduled
+     */
+    public boolean cancel(Long id) {
+        Long day = deadlineById.remove(id);
+        if (day == null) {
+            return false;
+        }
+        days.get((int) (day & MASK)).remove(id);
+        spans.get((int) ((day >> BITS) & MASK)).remove(id);
+        Set<Long> bucket = overflow.get(day);
+        if (bucket != null && bucket.remove(id) && bucket.isEmpty()) {
+            overflow.remove(day);
+        }
+        return true;
+    }
+
+    /**
+     * Advances the wheel day by day up to the given day.
+     * @param today Day to advance to
+     * @return IDs of the entries whose deadline was reached
+     */
+    public List<Long> advanceTo(LocalDate today) {
+        long target = today.toEpochDay();
+        List<Long> expired = new ArrayList<>();
+        while (currentDay < target) {
+            currentDay++;
+            if ((currentDay & MASK) == 0) {
+                cascade();
+            }
+            Set<Long> slot = days.get((int) (currentDay & MASK));
+            for (Long id : slot) {
+                deadlineById.remove(id);
+                expired.add(id);
+            }
+            slot.clear();
+        }
+        return expired;
+    }
+
+    public int size() {
+        return deadlineById.size();
+    }
+
+    public boolean contains(Long id) {
+        return deadlineById.containsKey(id);
+    }
+
+    private void place(Long id, long day) {
+        long delta = day - currentDay;
+        if (delta < WHEEL_SIZE) {
+            days.get((int) (day & MASK)).add(id);
+        } else if (delta < RANGE) {
+            spans.get((int) ((day >> BITS) & MASK)).add(id);
+        } else {
+            overflow.computeIfAbsent(day, d -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void cascade() {
+        Set<Long> span = spans.get((int) ((currentDay >> BITS) & MASK));
+        List<Long> moved = new ArrayList<>(span);
+        span.clear();
+        SortedMap<Long, Set<Long>> due = overflow.headMap(currentDay + RANGE);
+        due.values().forEach(moved::addAll);
+        due.clear();
+        for (Long id : moved) {
+            place(id, deadlineById.get(id));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.iremkvkpnr.librarymanagement.service.overdue;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-value cache that never serves a value loaded before the last invalidation.
+ * Every entry records the version it was loaded under. A load that races with an invalidation is still
+ * stored, but under the old version, so the next read reloads. Entries also expire after a time to live
+ * and at the end of the day.
+ * @param <T> Type of the cached value
+ */
+class InvalidatingCache<T> {
+
+    private record Entry<T>(long version, LocalDate day, long loadedAtMillis, T value) { }
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<Entry<T>> entry = new AtomicReference<>();
+    private final long ttlMillis;
+    private final Clock clock;
+
+    InvalidatingCache(long ttlMillis, Clock clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value, loading it when it is missing, invalidated or expired.
+     * @param loader Loads the current value
+     * @return Cached or freshly loaded value
+     */
+    T get(Supplier<T> loader) {
+        long current = version.get();
+        LocalDate today = LocalDate.now(clock);
+        long now = clock.millis();
+        Entry<T> cached = entry.get();
+        if (cached != null && cached.version() == current && cached.day().equals(today)
+                && now - cached.loadedAtMillis() < ttlMillis) {
+            return cached.value();
+        }
+        T value = loader.get();
+        entry.set(new Entry<>(current, today, now, value));
+        return value;
+    }
+
+    /**
+     * Invalidates the cached value. Call after the change is visible to new readers, i.e. after commit.
+     */
+    void invalidate() {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,77 @@
+package com.iremkvkpnr.librarymanagement.service.overdue;
+
+import com.iremkvkpnr.librarymanagement.repository.OverdueLoanRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Compares the overdue_loans set with the borrowings table and, unless disabled, repairs the difference.
+ * Runs at startup and daily after the due-date rollover. When the overdue tracker is disabled this run is
+ * what adds the loans that came due.
+ */
+@Service
+public class OverdueConsistencyChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueConsistencyChecker.class);
+
+    private final OverdueLoanRepository overdueLoanRepository;
+    private final OverdueSetService overdueSetService;
+    private final boolean repair;
+
+    public OverdueConsistencyChecker(OverdueLoanRepository overdueLoanRepository,
+                                     OverdueSetService overdueSetService,
+                                     @Value("${application.overdue.consistency.repair:true}") boolean repair) {
+        this.overdueLoanRepository = overdueLoanRepository;
+        this.overdueSetService = overdueSetService;
+        this.repair = repair;
+    }
+
+    /**
+     * Differences found by one check.
+     * @param missing Overdue borrowings that were not in the set
+     * @param stale Entries of the set that were no longer overdue
+     */
+    public record Result(List<Long> missing, List<Long> stale) {
+
+        public boolean isConsistent() {
+            return missing.isEmpty() && stale.isEmpty();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void checkOnStartup() {
+        check();
+    }
+
+    /**
+     * Checks the overdue set against the base table.
+     * @return Differences found before repair
+     */
+    @Scheduled(cron = "${application.overdue.consistency.cron:0 15 0 * * *}")
+    @Transactional
+    public Result check() {
+        LocalDate today = LocalDate.now();
+        Result result = new Result(overdueLoanRepository.findMissing(today), overdueLoanRepository.findStale(today));
+        if (result.isConsistent()) {
+            log.info("Overdue set consistent");
+            return result;
+        }
+        log.warn("Overdue set differs from borrowings: missing={}, stale={}, repair={}",
+                result.missing().size(), result.stale().size(), repair);
+        if (repair) {
+            overdueSetService.add(result.missing());
+            overdueSetService.remove(result.stale());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package com.iremkvkpnr.librarymanagement.service.overdue;
+
+import com.iremkvkpnr.librarymanagement.model.dto.response.BookResponse;
+import com.iremkvkpnr.librarymanagement.model.event.BookReturnedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BooksReturnedEvent;
+import com.iremkvkpnr.librarymanagement.repository.OverdueLoanRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains the overdue_loans table incrementally instead of recomputing the overdue set on every read.
+ * Entries are added when loans come due ({@link OverdueTrackingService} rollover, or the
+ * {@link OverdueConsistencyChecker} when the tracker is disabled) and removed in the same transaction as
+ * the return. Reads cost O(result). The overdue book list is cached and invalidated after every commit
+ * that changes the set; book details in the cached list may lag by at most the cache time to live.
+ */
+@Service
+public class OverdueSetService {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final OverdueLoanRepository overdueLoanRepository;
+    private final InvalidatingCache<List<BookResponse>> overdueBooksCache;
+
+    public OverdueSetService(OverdueLoanRepository overdueLoanRepository,
+                             @Value("${application.overdue.cache-ttl-ms:30000}") long cacheTtlMillis) {
+        this.overdueLoanRepository = overdueLoanRepository;
+        this.overdueBooksCache = new InvalidatingCache<>(cacheTtlMillis, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Adds borrowings that came due to the set.
+     * @param ids IDs of the borrowings
+     * @return Number of entries added
+     */
+    public int add(Collection<Long> ids) {
+        List<Long> idList = List.copyOf(ids);
+        LocalDate today = LocalDate.now();
+        int added = 0;
+        for (int from = 0; from < idList.size(); from += CHUNK_SIZE) {
+            added += overdueLoanRepository.insertOverdue(idList.subList(from, Math.min(from + CHUNK_SIZE, idList.size())), today);
+        }
+        if (added > 0) {
+            invalidateAfterCommit();
+        }
+        return added;
+    }
+
+    /**
+     * Removes borrowings from the set.
+     * @param ids IDs of the borrowings
+     * @return Number of entries removed
+     */
+    public int remove(Collection<Long> ids) {
+        List<Long> idList = List.copyOf(ids);
+        int removed = 0;
+        for (int from = 0; from < idList.size(); from += CHUNK_SIZE) {
+            removed += overdueLoanRepository.deleteAll(idList.subList(from, Math.min(from + CHUNK_SIZE, idList.size())));
+        }
+        if (removed > 0) {
+            invalidateAfterCommit();
+        }
+        return removed;
+    }
+
+    @EventListener
+    public void onBookReturned(BookReturnedEvent event) {
+        remove(List.of(event.borrowingId()));
+    }
+
+    @EventListener
+    public void onBooksReturned(BooksReturnedEvent event) {
+        remove(event.returns().stream().map(BookReturnedEvent::borrowingId).toList());
+    }
+
+    /**
+     * Retrieves the books of all overdue borrowings, ordered by due date.
+     * @return Overdue books, one entry per overdue borrowing
+     */
+    public List<BookResponse> getOverdueBooks() {
+        return overdueBooksCache.get(this::loadOverdueBooks);
+    }
+
+    private List<BookResponse> loadOverdueBooks() {
+        return overdueLoanRepository.findBooks();
+    }
+
+    // Invalidates now so the writing transaction reads its own change, and again after commit so that
+    // a list loaded by another reader before the commit is not kept
+    private void invalidateAfterCommit() {
+        overdueBooksCache.invalidate();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                overdueBooksCache.invalidate();
+            }
+        });
+    }
+}
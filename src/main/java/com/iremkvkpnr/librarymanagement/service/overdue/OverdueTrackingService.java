@@ -0,0 +1,194 @@
+package com.iremkvkpnr.librarymanagement.service.overdue;
+
+import com.iremkvkpnr.librarymanagement.model.event.BookBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BookReturnedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BooksBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BooksReturnedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.LoanOverdueEvent;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every open loan in a {@link DueDateTimingWheel} keyed by its due date.
+ * When a loan comes due it is flipped to OVERDUE in memory and in the database, the per-user
+ * overdue counter is incremented and a {@link LoanOverdueEvent} is published.
+ * Per-user overdue counts are then answered from memory instead of range scans over the borrowings table,
+ * and loans that come due are added to the materialized overdue set of {@link OverdueSetService}.
+ * The state is rebuilt from the database at startup and kept current through borrow and return events.
+ * It is local to one application instance; disable it with application.overdue.tracker.enabled=false
+ * when several instances serve the same database, and lookups fall back to the repository queries.
+ */
+@Service
+public class OverdueTrackingService {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueTrackingService.class);
+
+    private static final int UPDATE_CHUNK_SIZE = 1000;
+
+    private final BorrowingRepository borrowingRepository;
+    private final OverdueSetService overdueSetService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+
+    private final Map<Long, TrackedLoan> loans = new HashMap<>();
+    private final Map<Long, Integer> overdueCountByUser = new ConcurrentHashMap<>();
+    private final Set<Long> overdueIds = ConcurrentHashMap.newKeySet();
+    private DueDateTimingWheel wheel = new DueDateTimingWheel(LocalDate.now());
+    private volatile boolean ready;
+
+    public OverdueTrackingService(BorrowingRepository borrowingRepository,
+                                  OverdueSetService overdueSetService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${application.overdue.tracker.enabled:true}") boolean enabled) {
+        this.borrowingRepository = borrowingRepository;
+        this.overdueSetService = overdueSetService;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+    }
+
+    private record TrackedLoan(Long userId, Long bookId, LocalDate dueDate) { }
+
+    /**
+     * Loads all open loans from the database into the wheel.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> expired = new ArrayList<>();
+        synchronized (this) {
+            loans.clear();
+            overdueCountByUser.clear();
+            overdueIds.clear();
+            wheel = new DueDateTimingWheel(LocalDate.now());
+            for (BorrowingRepository.OpenLoan loan : borrowingRepository.findOpenLoans()) {
+                TrackedLoan tracked = new TrackedLoan(loan.userId(), loan.bookId(), loan.dueDate());
+                loans.put(loan.id(), tracked);
+                if (!wheel.schedule(loan.id(), overdueFrom(loan.dueDate()))) {
+                    markOverdue(loan.id(), tracked);
+                    expired.add(loan.id());
+                }
+            }
+            ready = true;
+        }
+        persistOverdue(expired);
+        log.info("Overdue tracker rebuilt: openLoans={}, overdue={}", loans.size(), overdueIds.size());
+    }
+
+    /**
+     * Advances the wheel to today and flips the loans that came due.
+     */
+    @Scheduled(cron = "${application.overdue.tracker.tick-cron:0 1 0 * * *}")
+    @Transactional
+    public void tick() {
+        if (!ready) {
+            return;
+        }
+        List<Long> expired;
+        List<LoanOverdueEvent> events = new ArrayList<>();
+        synchronized (this) {
+            expired = wheel.advanceTo(LocalDate.now());
+            for (Long id : expired) {
+                TrackedLoan loan = loans.get(id);
+                markOverdue(id, loan);
+                events.add(new LoanOverdueEvent(id, loan.userId(), loan.bookId(), loan.dueDate()));
+            }
+        }
+        persistOverdue(expired);
+        events.forEach(eventPublisher::publishEvent);
+        if (!expired.isEmpty()) {
+            log.info("Loans came due: count={}", expired.size());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookBorrowed(BookBorrowedEvent event) {
+        if (!ready || event.dueDate() == null) {
+            return;
+        }
+        TrackedLoan loan = new TrackedLoan(event.userId(), event.bookId(), event.dueDate());
+        synchronized (this) {
+            loans.put(event.borrowingId(), loan);
+            if (!wheel.schedule(event.borrowingId(), overdueFrom(event.dueDate()))) {
+                markOverdue(event.borrowingId(), loan);
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookReturned(BookReturnedEvent event) {
+        if (!ready) {
+            return;
+        }
+        synchronized (this) {
+            TrackedLoan loan = loans.remove(event.borrowingId());
+            wheel.cancel(event.borrowingId());
+            if (loan != null && overdueIds.remove(event.borrowingId())) {
+                overdueCountByUser.computeIfPresent(loan.userId(), (userId, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBooksBorrowed(BooksBorrowedEvent event) {
+        event.borrowings().forEach(this::onBookBorrowed);
+    }
+
+    @TransactionalEventListener
+    public void onBooksReturned(BooksReturnedEvent event) {
+        event.returns().forEach(this::onBookReturned);
+    }
+
+    /**
+     * Counts the overdue loans of a user.
+     * @param userId ID of the user
+     * @return Number of overdue loans
+     */
+    public long countOverdueByUser(Long userId) {
+        if (!ready) {
+            return borrowingRepository.countOverdueBooksByUser(userId);
+        }
+        return overdueCountByUser.getOrDefault(userId, 0);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // A loan is overdue from the day after its due date, matching dueDate < CURRENT_DATE
+    private static LocalDate overdueFrom(LocalDate dueDate) {
+        return dueDate.plusDays(1);
+    }
+
+    private void markOverdue(Long id, TrackedLoan loan) {
+        if (overdueIds.add(id)) {
+            overdueCountByUser.merge(loan.userId(), 1, Integer::sum);
+        }
+    }
+
+    private void persistOverdue(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += UPDATE_CHUNK_SIZE) {
+            borrowingRepository.markOverdue(ids.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, ids.size())));
+        }
+        overdueSetService.add(ids);
+    }
+}
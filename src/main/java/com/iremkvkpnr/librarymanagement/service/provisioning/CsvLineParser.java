@@ -0,0 +1,50 @@
+package com.iremkvkpnr.librarymanagement.service.provisioning;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a single CSV line into fields.
+ * Fields may be quoted to contain commas, with {@code ""} standing for a literal quote; quoted line breaks are not supported.
+ */
+final class CsvLineParser {
+
+    private CsvLineParser() {
+    }
+
+    /**
+     * @param line One line of CSV without its line terminator
+     * @return Fields of the line, unquoted and trimmed
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
@@ -0,0 +1,253 @@
+package com.iremkvkpnr.librarymanagement.service.provisioning;
+
+import com.iremkvkpnr.librarymanagement.model.dto.request.UserRequest;
+import com.iremkvkpnr.librarymanagement.model.dto.response.UserImportReport;
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.model.event.UserRegisteredEvent;
+import com.iremkvkpnr.librarymanagement.model.exception.UserValidationException;
+import com.iremkvkpnr.librarymanagement.repository.UserBatchRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Creates users from a CSV file in bulk.
+ * The file is read line by line and handled in chunks: each chunk is checked against existing emails with one
+ * query, its passwords are hashed in parallel, and its users are inserted with one JDBC batch in their own
+ * transaction. Rows that cannot be imported are reported with their line number; they never fail the file.
+ * Columns are matched by header name: {@code name}, {@code email} and {@code password} are required,
+ * {@code phone} and {@code role} are optional, and a missing role means {@code PATRON}.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "email", "password");
+
+    private final UserBatchRepository userBatchRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int hashThreads;
+
+    public UserImportService(UserBatchRepository userBatchRepository,
+                             PasswordEncoder passwordEncoder,
+                             Validator validator,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${application.user-import.chunk-size:500}") int chunkSize,
+                             @Value("${application.user-import.hash-threads:0}") int hashThreads) {
+        this.userBatchRepository = userBatchRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.hashThreads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    private record Row(long line, UserRequest request) { }
+
+    /**
+     * Imports all rows of a CSV file.
+     * @param csv UTF-8 encoded CSV with a header line; read to the end but not closed
+     * @return Counts and the per-row errors of the import
+     * @throws UserValidationException if the file is empty or its header lacks a required column
+     */
+    public UserImportReport importCsv(InputStream csv) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        List<UserImportReport.RowError> errors = new ArrayList<>();
+        long rows = 0;
+        long created = 0;
+        try (ExecutorService hashers = Executors.newFixedThreadPool(hashThreads)) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new UserValidationException("CSV file is empty");
+            }
+            Map<String, Integer> columns = columns(header);
+            Set<String> seenEmails = new HashSet<>();
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                rows++;
+                Row row = toRow(lineNumber, line, columns, seenEmails, errors);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() >= chunkSize) {
+                    created += importChunk(chunk, hashers, errors);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            created += importChunk(chunk, hashers, errors);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read user import file", e);
+        }
+        log.info("User import completed: rows={}, created={}, failed={}", rows, created, errors.size());
+        return new UserImportReport(rows, created, errors.size(), errors);
+    }
+
+    private Map<String, Integer> columns(String header) {
+        List<String> names = CsvLineParser.parse(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new UserValidationException("CSV header must contain column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private Row toRow(long lineNumber, String line, Map<String, Integer> columns, Set<String> seenEmails,
+                      List<UserImportReport.RowError> errors) {
+        List<String> fields;
+        try {
+            fields = CsvLineParser.parse(line);
+        } catch (IllegalArgumentException e) {
+            errors.add(new UserImportReport.RowError(lineNumber, null, e.getMessage()));
+            return null;
+        }
+        String email = field(fields, columns, "email");
+        String role = field(fields, columns, "role");
+        User.Role parsedRole;
+        try {
+            parsedRole = role == null ? User.Role.PATRON : User.Role.valueOf(role.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            errors.add(new UserImportReport.RowError(lineNumber, email, "Unknown role: " + role));
+            return null;
+        }
+        UserRequest request = new UserRequest(
+                field(fields, columns, "name"), email, field(fields, columns, "password"), field(fields, columns, "phone"), parsedRole);
+
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            errors.add(new UserImportReport.RowError(lineNumber, email, message));
+            return null;
+        }
+        if (!seenEmails.add(email)) {
+            errors.add(new UserImportReport.RowError(lineNumber, email, "Email appears more than once in the file"));
+            return null;
+        }
+        return new Row(lineNumber, request);
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private long importChunk(List<Row> chunk, ExecutorService hashers, List<UserImportReport.RowError> errors) {
+        List<Row> fresh = withoutExistingEmails(chunk, errors);
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+        List<User> users = hash(fresh, hashers);
+        try {
+            return insert(users);
+        } catch (DuplicateKeyException e) {
+            // Someone registered one of the emails since the check; the batch was rolled back, so check again and retry once
+            log.info("User import chunk hit a concurrent registration, retrying: firstLine={}", fresh.get(0).line());
+            Set<String> retained = withoutExistingEmails(fresh, errors).stream()
+                    .map(row -> row.request().email())
+                    .collect(Collectors.toSet());
+            return insert(users.stream().filter(user -> retained.contains(user.getEmail())).toList());
+        }
+    }
+
+    private List<Row> withoutExistingEmails(List<Row> chunk, List<UserImportReport.RowError> errors) {
+        Set<String> existing = userBatchRepository.findExistingEmails(
+                chunk.stream().map(row -> row.request().email()).toList());
+        List<Row> fresh = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (existing.contains(row.request().email())) {
+                errors.add(new UserImportReport.RowError(row.line(), row.request().email(), "Email already exists"));
+            } else {
+                fresh.add(row);
+            }
+        }
+        return fresh;
+    }
+
+    private List<User> hash(List<Row> rows, ExecutorService hashers) {
+        List<Future<String>> hashes = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            hashes.add(hashers.submit(() -> passwordEncoder.encode(row.request().password())));
+        }
+        List<User> users = new ArrayList<>(rows.size());
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                UserRequest request = rows.get(i).request();
+                users.add(User.builder()
+                        .name(request.name())
+                        .email(request.email())
+                        .password(hashes.get(i).get())
+                        .phone(request.phone())
+                        .role(request.role())
+                        .build());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed during user import", e.getCause());
+        }
+        return users;
+    }
+
+    private long insert(List<User> users) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            userBatchRepository.insertAll(users);
+            for (User user : users) {
+                eventPublisher.publishEvent(new UserRegisteredEvent(user.getId(), user.getEmail()));
+            }
+        });
+        return users.size();
+    }
+}
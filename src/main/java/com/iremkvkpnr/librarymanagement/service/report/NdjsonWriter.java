@@ -0,0 +1,56 @@
+package com.iremkvkpnr.librarymanagement.service.report;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of objects as newline-delimited JSON, one object per line, as the stream advances.
+ * Rows are flushed every {@value #FLUSH_INTERVAL} rows rather than after each one.
+ */
+@Component
+public class NdjsonWriter {
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+
+    public NdjsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Serializes every element of the stream on its own line.
+     * @param rows Rows to write; consumed once
+     * @param out Target stream; flushed but not closed
+     * @return Number of rows written
+     */
+    public long write(Stream<?> rows, OutputStream out) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long count = 0;
+            Iterator<?> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++count % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write NDJSON", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.iremkvkpnr.librarymanagement.service.report;
+
+import com.iremkvkpnr.librarymanagement.model.exception.BorrowingValidationException;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Output formats supported by the overdue books report.
+ */
+public enum OverdueReportFormat {
+    TEXT("text/plain"),
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    OverdueReportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Resolves a format from its case-insensitive name.
+     * @param value Format name, e.g. "csv"
+     * @return Matching format
+     * @throws BorrowingValidationException if the format is not supported
+     */
+    public static OverdueReportFormat from(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new BorrowingValidationException("Unsupported report format: " + value
+                        + ". Supported formats: " + Arrays.stream(values())
+                        .map(format -> format.name().toLowerCase(Locale.ROOT))
+                        .collect(Collectors.joining(", "))));
+    }
+}
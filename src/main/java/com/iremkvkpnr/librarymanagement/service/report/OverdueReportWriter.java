@@ -0,0 +1,118 @@
+package com.iremkvkpnr.librarymanagement.service.report;
+
+import com.iremkvkpnr.librarymanagement.model.dto.response.OverdueReportRow;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes overdue report rows to an output stream one at a time.
+ * Rows are never collected, so memory use does not depend on the size of the report.
+ */
+@Component
+public class OverdueReportWriter {
+
+    private static final int FLUSH_INTERVAL = 500;
+    private static final String CSV_HEADER = "borrowing_id,book_title,user_name,user_email,borrow_date,due_date,overdue_days,status";
+    private static final String TEXT_SEPARATOR = "------------------------------------------------------------";
+
+    private final NdjsonWriter ndjsonWriter;
+
+    public OverdueReportWriter(NdjsonWriter ndjsonWriter) {
+        this.ndjsonWriter = ndjsonWriter;
+    }
+
+    // Field layout of one NDJSON line
+    record NdjsonLine(Long borrowingId, String bookTitle, String userName, String userEmail,
+                      String borrowDate, String dueDate, long overdueDays, String status) { }
+
+    /**
+     * Writes the rows in the given format.
+     * @param rows Rows to write; consumed once
+     * @param format Output format
+     * @param today Day the overdue days are counted up to
+     * @param out Target stream; flushed but not closed
+     * @return Number of rows written
+     */
+    public long write(Stream<OverdueReportRow> rows, OverdueReportFormat format, LocalDate today, OutputStream out) {
+        if (format == OverdueReportFormat.NDJSON) {
+            return ndjsonWriter.write(rows.map(row -> new NdjsonLine(row.borrowingId(), row.bookTitle(), row.userName(),
+                    row.userEmail(), String.valueOf(row.borrowDate()), String.valueOf(row.dueDate()),
+                    overdueDays(row, today), String.valueOf(row.status()))), out);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            long count = format == OverdueReportFormat.TEXT
+                    ? writeText(rows.iterator(), today, writer)
+                    : writeCsv(rows.iterator(), today, writer);
+            writer.flush();
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write overdue report", e);
+        }
+    }
+
+    private long writeText(Iterator<OverdueReportRow> rows, LocalDate today, Writer writer) throws IOException {
+        if (!rows.hasNext()) {
+            writer.write("No overdue books currently.");
+            return 0;
+        }
+        writer.write("OVERDUE BOOKS REPORT\n----------------------\n\n");
+        writer.write("Book Title | User Name | Borrow Date | Due Date | Overdue Days | Status\n");
+        writer.write(TEXT_SEPARATOR + "\n");
+        long count = 0;
+        while (rows.hasNext()) {
+            OverdueReportRow row = rows.next();
+            writer.write(row.bookTitle() + " | " + row.userName() + " | " + row.borrowDate() + " | " + row.dueDate()
+                    + " | " + overdueDays(row, today) + " | " + row.status() + "\n");
+            flushPeriodically(++count, writer);
+        }
+        writer.write(TEXT_SEPARATOR + "\n");
+        writer.write("Total Overdue Books: " + count + "\n");
+        return count;
+    }
+
+    private long writeCsv(Iterator<OverdueReportRow> rows, LocalDate today, Writer writer) throws IOException {
+        writer.write(CSV_HEADER + "\n");
+        long count = 0;
+        while (rows.hasNext()) {
+            OverdueReportRow row = rows.next();
+            writer.write(row.borrowingId() + "," + csv(row.bookTitle()) + "," + csv(row.userName()) + ","
+                    + csv(row.userEmail()) + "," + row.borrowDate() + "," + row.dueDate() + ","
+                    + overdueDays(row, today) + "," + row.status() + "\n");
+            flushPeriodically(++count, writer);
+        }
+        return count;
+    }
+
+    private static long overdueDays(OverdueReportRow row, LocalDate today) {
+        return ChronoUnit.DAYS.between(row.dueDate(), today);
+    }
+
+    // Pushes completed rows to the client instead of holding them in the buffer
+    private static void flushPeriodically(long count, Writer writer) throws IOException {
+        if (count % FLUSH_INTERVAL == 0) {
+            writer.flush();
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
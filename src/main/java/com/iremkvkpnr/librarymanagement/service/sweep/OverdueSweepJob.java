@@ -0,0 +1,136 @@
+package com.iremkvkpnr.librarymanagement.service.sweep;
+
+import com.iremkvkpnr.librarymanagement.model.entity.JobCheckpoint;
+import com.iremkvkpnr.librarymanagement.model.entity.UserStanding;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingViewRepository;
+import com.iremkvkpnr.librarymanagement.repository.OverdueSweepRepository;
+import com.iremkvkpnr.librarymanagement.repository.OverdueSweepRepository.OverdueLoanRow;
+import com.iremkvkpnr.librarymanagement.repository.OverdueSweepRepository.StandingRow;
+import com.iremkvkpnr.librarymanagement.repository.OverdueSweepRepository.UserOverdueSummary;
+import com.iremkvkpnr.librarymanagement.service.batch.ChunkedJob;
+import com.iremkvkpnr.librarymanagement.service.batch.ChunkedJobRunner;
+import com.iremkvkpnr.librarymanagement.service.overdue.OverdueConsistencyChecker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Nightly sweep over the overdue set: flips loans to OVERDUE, generates reminders and recalculates
+ * the standing of the affected users. Reads overdue_loans by primary key in chunks and writes with
+ * batched JDBC statements, so no entities are loaded and the run time grows with the number of
+ * overdue loans only. Runs through {@link ChunkedJobRunner}, which checkpoints after every wave.
+ * Loans are written in parallel chunks, but standings are written in one pass by user ID after the last
+ * chunk, since a user's loans can span chunks and concurrent upserts of one user would collide.
+ */
+@Component
+public class OverdueSweepJob implements ChunkedJob<OverdueLoanRow> {
+
+    private final ChunkedJobRunner jobRunner;
+    private final OverdueSweepRepository sweepRepository;
+    private final BorrowingViewRepository borrowingViewRepository;
+    private final OverdueConsistencyChecker consistencyChecker;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int reminderIntervalDays;
+    private final int suspendAfterDays;
+
+    public OverdueSweepJob(ChunkedJobRunner jobRunner,
+                           OverdueSweepRepository sweepRepository,
+                           BorrowingViewRepository borrowingViewRepository,
+                           OverdueConsistencyChecker consistencyChecker,
+                           @Value("${application.overdue-sweep.enabled:true}") boolean enabled,
+                           @Value("${application.overdue-sweep.chunk-size:500}") int chunkSize,
+                           @Value("${application.overdue-sweep.parallelism:4}") int parallelism,
+                           @Value("${application.overdue-sweep.reminder-interval-days:7}") int reminderIntervalDays,
+                           @Value("${application.overdue-sweep.suspend-after-days:30}") int suspendAfterDays) {
+        this.jobRunner = jobRunner;
+        this.sweepRepository = sweepRepository;
+        this.borrowingViewRepository = borrowingViewRepository;
+        this.consistencyChecker = consistencyChecker;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.reminderIntervalDays = reminderIntervalDays;
+        this.suspendAfterDays = suspendAfterDays;
+    }
+
+    @Scheduled(cron = "${application.overdue-sweep.cron:0 30 0 * * *}")
+    public void sweepNightly() {
+        if (enabled) {
+            sweep(LocalDate.now());
+        }
+    }
+
+    /**
+     * Runs or resumes the sweep of a day.
+     * @param runDate Day of the sweep
+     * @return Checkpoint of the completed run
+     */
+    public JobCheckpoint sweep(LocalDate runDate) {
+        return jobRunner.run(this, runDate, chunkSize, parallelism);
+    }
+
+    @Override
+    public String name() {
+        return "overdue-sweep";
+    }
+
+    @Override
+    public void beforeRun(LocalDate runDate) {
+        // Brings the overdue set up to date with the borrowings table before it is read
+        consistencyChecker.check();
+    }
+
+    @Override
+    public List<OverdueLoanRow> read(long afterKey, int limit, LocalDate runDate) {
+        return sweepRepository.readChunk(afterKey, limit);
+    }
+
+    @Override
+    public long keyOf(OverdueLoanRow item) {
+        return item.borrowingId();
+    }
+
+    @Override
+    public void write(List<OverdueLoanRow> chunk, LocalDate runDate) {
+        List<Long> ids = chunk.stream().map(OverdueLoanRow::borrowingId).toList();
+        sweepRepository.markOverdue(ids);
+        borrowingViewRepository.markOverdue(ids);
+        sweepRepository.insertReminders(chunk.stream().filter(row -> isReminderDay(row, runDate)).toList(), runDate);
+    }
+
+    @Override
+    public void afterRun(LocalDate runDate) {
+        long afterUserId = 0;
+        List<UserOverdueSummary> page;
+        do {
+            page = sweepRepository.summarizeUsers(afterUserId, chunkSize);
+            sweepRepository.upsertStandings(page.stream()
+                    .map(summary -> {
+                        int maxDaysOverdue = (int) ChronoUnit.DAYS.between(summary.oldestDueDate(), runDate);
+                        return new StandingRow(summary.userId(), standingFor(maxDaysOverdue).name(),
+                                summary.overdueLoans(), maxDaysOverdue, runDate);
+                    })
+                    .toList());
+            if (!page.isEmpty()) {
+                afterUserId = page.get(page.size() - 1).userId();
+            }
+        } while (page.size() == chunkSize);
+        sweepRepository.resetUntouchedStandings(runDate);
+    }
+
+    // First reminder on the first overdue day, then every reminderIntervalDays
+    private boolean isReminderDay(OverdueLoanRow row, LocalDate runDate) {
+        int daysOverdue = row.daysOverdue(runDate);
+        return daysOverdue >= 1 && (daysOverdue - 1) % reminderIntervalDays == 0;
+    }
+
+    private UserStanding.Standing standingFor(int maxDaysOverdue) {
+        return maxDaysOverdue >= suspendAfterDays ? UserStanding.Standing.SUSPENDED : UserStanding.Standing.WARNING;
+    }
+}
@@ -0,0 +1,75 @@
+package com.iremkvkpnr.librarymanagement.service.view;
+
+import com.iremkvkpnr.librarymanagement.model.event.BookBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BookReturnedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BooksBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BooksReturnedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.LoanOverdueEvent;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingViewRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the borrowing_view read model in step with the borrowings write model.
+ * Listens synchronously, so the view row is written in the same transaction as the loan and a patron
+ * sees their own borrow or return on the next read.
+ */
+@Service
+public class BorrowingViewProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowingViewProjector.class);
+
+    private final BorrowingViewRepository borrowingViewRepository;
+
+    public BorrowingViewProjector(BorrowingViewRepository borrowingViewRepository) {
+        this.borrowingViewRepository = borrowingViewRepository;
+    }
+
+    @EventListener
+    public void onBookBorrowed(BookBorrowedEvent event) {
+        borrowingViewRepository.insertBorrowed(event.borrowingId(), event.borrowDate(), event.dueDate());
+    }
+
+    @EventListener
+    public void onBookReturned(BookReturnedEvent event) {
+        borrowingViewRepository.markReturned(event.borrowingId(), event.returnDate());
+    }
+
+    @EventListener
+    public void onBooksBorrowed(BooksBorrowedEvent event) {
+        borrowingViewRepository.insertAllBorrowed(event.borrowings().stream().map(BookBorrowedEvent::borrowingId).toList());
+    }
+
+    // A batch return closes every borrowing on the same day, but grouping keeps this correct if that changes
+    @EventListener
+    public void onBooksReturned(BooksReturnedEvent event) {
+        event.returns().stream()
+                .collect(Collectors.groupingBy(BookReturnedEvent::returnDate,
+                        Collectors.mapping(BookReturnedEvent::borrowingId, Collectors.toList())))
+                .forEach((returnDate, ids) -> borrowingViewRepository.markAllReturned(ids, returnDate));
+    }
+
+    @EventListener
+    public void onLoanOverdue(LoanOverdueEvent event) {
+        borrowingViewRepository.markOverdue(List.of(event.borrowingId()));
+    }
+
+    /**
+     * Backfills the read model on startup when it is still empty, e.g. the first start after it was introduced.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (borrowingViewRepository.count() == 0) {
+            int rows = borrowingViewRepository.rebuild();
+            log.info("Borrowing view backfilled: rows={}", rows);
+        }
+    }
+}
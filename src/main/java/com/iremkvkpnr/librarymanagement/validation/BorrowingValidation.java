@@ -8,6 +8,10 @@ import com.iremkvkpnr.librarymanagement.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @Component
 public class BorrowingValidation {
 
@@ -45,5 +49,51 @@ public class BorrowingValidation {
         }
     }
 
+    /**
+     * Validates the shape of a batch checkout before any database access.
+     * @param userId ID of the user borrowing the books
+     * @param bookIds IDs of the books to be borrowed
+     * @param maxBooks Maximum number of books allowed in one batch
+     */
+    public void validateBatchBorrowing(Long userId, List<Long> bookIds, int maxBooks) {
+        if (userId == null) {
+            throw new BorrowingValidationException(BorrowingValidationException.EMPTY_USER_ID);
+        }
+        if (bookIds == null || bookIds.isEmpty()) {
+            throw new BorrowingValidationException(BorrowingValidationException.EMPTY_BOOK_IDS);
+        }
+        if (bookIds.size() > maxBooks) {
+            throw new BorrowingValidationException("You can borrow at most " + maxBooks + " books at once.");
+        }
+        Set<Long> seen = new HashSet<>();
+        for (Long bookId : bookIds) {
+            if (bookId == null) {
+                throw new BorrowingValidationException(BorrowingValidationException.EMPTY_BOOK_ID);
+            }
+            if (!seen.add(bookId)) {
+                throw new BorrowingValidationException("Book ID is listed more than once: " + bookId);
+            }
+        }
+    }
 
+    /**
+     * Validates a batch return request: exactly one of the ID lists must be given, without null entries.
+     * @param borrowingIds IDs of the borrowings to close
+     * @param bookIds IDs of the returned books
+     * @param maxSize Maximum number of IDs allowed in one batch
+     */
+    public void validateBatchReturn(List<Long> borrowingIds, List<Long> bookIds, int maxSize) {
+        boolean hasBorrowingIds = borrowingIds != null && !borrowingIds.isEmpty();
+        boolean hasBookIds = bookIds != null && !bookIds.isEmpty();
+        if (hasBorrowingIds == hasBookIds) {
+            throw new BorrowingValidationException("Either borrowing IDs or book IDs must be given, but not both.");
+        }
+        List<Long> ids = hasBorrowingIds ? borrowingIds : bookIds;
+        if (ids.size() > maxSize) {
+            throw new BorrowingValidationException("At most " + maxSize + " items can be returned at once.");
+        }
+        if (ids.contains(null)) {
+            throw new BorrowingValidationException("Return IDs cannot contain null values.");
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package com.iremkvkpnr.librarymanagement.config;
+
+import com.iremkvkpnr.librarymanagement.service.admission.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoadSheddingFilterTest {
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 500, 1000, 2, 2, 2, 0.9, 0.8, 0.5,
+            Map.of("/api/borrowings", "CRITICAL", "/api/books/search", "LOW"), List.of(), new SimpleMeterRegistry());
+
+    private final LoadSheddingFilter filter = new LoadSheddingFilter(limiter);
+
+    @Test
+    void doFilter_WhileBusy_ShedsLowPriorityButAdmitsCritical() throws Exception {
+        MockHttpServletResponse search = new MockHttpServletResponse();
+        MockHttpServletResponse borrow = new MockHttpServletResponse();
+
+        // The outer request holds one of the two slots while the inner ones arrive
+        filter.doFilter(request("/api/books/1"), new MockHttpServletResponse(), (req, res) -> {
+            filter.doFilter(request("/api/books/search"), search, (innerReq, innerRes) -> { });
+            filter.doFilter(request("/api/borrowings"), borrow, (innerReq, innerRes) -> { });
+        });
+
+        assertEquals(503, search.getStatus());
+        assertEquals("1", search.getHeader("Retry-After"));
+        assertEquals(200, borrow.getStatus());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void doFilter_Idle_AdmitsLowPriority() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("/api/books/search"), response, (req, res) -> { });
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        return new MockHttpServletRequest("GET", path);
+    }
+}
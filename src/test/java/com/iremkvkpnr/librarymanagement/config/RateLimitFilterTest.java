@@ -0,0 +1,52 @@
+package com.iremkvkpnr.librarymanagement.config;
+
+import com.iremkvkpnr.librarymanagement.security.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new RateLimiter(true, Map.of("/api/v1/auth/**", "1:1"), "", new SimpleMeterRegistry()));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_AuthenticatedCallersBehindOneIp_GetTheirOwnBuckets() throws Exception {
+        assertEquals(200, statusAs("alice@test.com"));
+        assertEquals(200, statusAs("bob@test.com"));
+        assertEquals(429, statusAs("alice@test.com"));
+    }
+
+    @Test
+    void doFilter_AnonymousCallersBehindOneIp_ShareTheIpBucket() throws Exception {
+        assertEquals(200, statusAs(null));
+        assertEquals(429, statusAs(null));
+    }
+
+    private int statusAs(String username) throws Exception {
+        SecurityContextHolder.clearContext();
+        if (username != null) {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/refresh");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> { });
+        return response.getStatus();
+    }
+}
@@ -6,8 +6,11 @@ import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
 import com.iremkvkpnr.librarymanagement.model.entity.User;
 import com.iremkvkpnr.librarymanagement.repository.BookRepository;
 import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingViewRepository;
 import com.iremkvkpnr.librarymanagement.repository.UserRepository;
 import com.iremkvkpnr.librarymanagement.security.service.JwtService;
+import com.iremkvkpnr.librarymanagement.model.dto.request.BatchBorrowingRequest;
+import com.iremkvkpnr.librarymanagement.model.dto.request.BatchReturnRequest;
 import com.iremkvkpnr.librarymanagement.model.dto.request.BorrowingRequest;
 import com.iremkvkpnr.librarymanagement.model.dto.request.ReturnRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,11 +22,14 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.test.context.support.WithMockUser;
 
 import java.time.LocalDate;
+import java.util.List;
 
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -54,6 +60,9 @@ public class BorrowingControllerIntegrationTest {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private BorrowingViewRepository borrowingViewRepository;
+
     private String adminToken;
     private String userToken;
     private User testUser;
@@ -102,6 +111,7 @@ public class BorrowingControllerIntegrationTest {
         testBorrowing.setBorrowDate(LocalDate.now());
         testBorrowing.setDueDate(LocalDate.now().plusDays(14));
         borrowingRepository.save(testBorrowing);
+        borrowingViewRepository.rebuild();
 
         // create token
         adminToken = "Bearer " + jwtService.generateToken(admin);
@@ -118,6 +128,59 @@ public class BorrowingControllerIntegrationTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void borrowBook_RetryWithIdempotencyKey_ReturnsOriginalResponse() throws Exception {
+        BorrowingRequest request = new BorrowingRequest(testBook.getId());
+        String first = mockMvc.perform(post("/api/borrowings")
+                .header("Authorization", userToken)
+                .header("Idempotency-Key", "kiosk-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/api/borrowings")
+                .header("Authorization", userToken)
+                .header("Idempotency-Key", "kiosk-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(content().json(first));
+    }
+
+    @Test
+    void borrowBooks_ValidBatch_ReturnsCreated() throws Exception {
+        Book secondBook = new Book();
+        secondBook.setTitle("Second Book");
+        secondBook.setAuthor("Second Author");
+        secondBook.setIsbn("0987654321");
+        secondBook.setGenre(Book.Genre.SCIENCE);
+        secondBook.setTotalCopies(1);
+        secondBook.setAvailableCopies(1);
+        secondBook = bookRepository.save(secondBook);
+
+        BatchBorrowingRequest request = new BatchBorrowingRequest(List.of(secondBook.getId(), testBook.getId()));
+        mockMvc.perform(post("/api/borrowings/batch")
+                .header("Authorization", userToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].bookTitle").value("Second Book"))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[1].bookTitle").value("Test Book"));
+    }
+
+    @Test
+    void borrowBooks_DuplicateBookIds_ReturnsBadRequest() throws Exception {
+        BatchBorrowingRequest request = new BatchBorrowingRequest(List.of(testBook.getId(), testBook.getId()));
+        mockMvc.perform(post("/api/borrowings/batch")
+                .header("Authorization", userToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void returnBook_ValidRequest_ReturnsOk() throws Exception {
         ReturnRequest request = new ReturnRequest(testBorrowing.getId());
@@ -128,6 +191,32 @@ public class BorrowingControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void returnBooks_ByBookIds_AsLibrarian_ReturnsClosedBorrowings() throws Exception {
+        testBorrowing.setStatus(Borrowing.Status.BORROWED);
+        borrowingRepository.saveAndFlush(testBorrowing);
+
+        BatchReturnRequest request = new BatchReturnRequest(null, List.of(testBook.getId()));
+        mockMvc.perform(post("/api/borrowings/return/batch")
+                .header("Authorization", adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(testBorrowing.getId()))
+                .andExpect(jsonPath("$[0].returnDate").isNotEmpty());
+    }
+
+    @Test
+    void returnBooks_AsPatron_ReturnsForbidden() throws Exception {
+        BatchReturnRequest request = new BatchReturnRequest(List.of(testBorrowing.getId()), null);
+        mockMvc.perform(post("/api/borrowings/return/batch")
+                .header("Authorization", userToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void returnBook_AlreadyReturned_ReturnsBadRequest() throws Exception {
         testBorrowing.setReturnDate(LocalDate.now());
@@ -155,6 +244,95 @@ public class BorrowingControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllBorrowingHistory_PagesWithCursor() throws Exception {
+        Long librarianId = userRepository.findByEmail("admin@test.com").orElseThrow().getId();
+        for (int i = 0; i < 2; i++) {
+            borrowingRepository.save(Borrowing.builder()
+                    .user(testUser).book(testBook)
+                    .borrowDate(LocalDate.now()).dueDate(LocalDate.now().plusDays(14))
+                    .status(Borrowing.Status.RETURNED).returnDate(LocalDate.now()).build());
+        }
+
+        MvcResult first = mockMvc.perform(get("/api/borrowings/history/all")
+                .header("Authorization", adminToken)
+                .param("librarianId", librarianId.toString())
+                .param("bookId", testBook.getId().toString())
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+
+        mockMvc.perform(get("/api/borrowings/history/all")
+                .header("Authorization", adminToken)
+                .param("librarianId", librarianId.toString())
+                .param("bookId", testBook.getId().toString())
+                .param("size", "2")
+                .param("cursor", first.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(testBorrowing.getId()))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getAllBorrowingHistory_UserFilterOnly_ExcludesOtherUsers() throws Exception {
+        User librarian = userRepository.findByEmail("admin@test.com").orElseThrow();
+        borrowingRepository.save(Borrowing.builder()
+                .user(librarian).book(testBook)
+                .borrowDate(LocalDate.now()).dueDate(LocalDate.now().plusDays(14))
+                .status(Borrowing.Status.RETURNED).returnDate(LocalDate.now()).build());
+
+        mockMvc.perform(get("/api/borrowings/history/all")
+                .header("Authorization", adminToken)
+                .param("librarianId", librarian.getId().toString())
+                .param("userId", testUser.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(testBorrowing.getId()));
+    }
+
+    @Test
+    void getAllBorrowingHistory_FutureDateRange_ReturnsEmptyPage() throws Exception {
+        Long librarianId = userRepository.findByEmail("admin@test.com").orElseThrow().getId();
+
+        mockMvc.perform(get("/api/borrowings/history/all")
+                .header("Authorization", adminToken)
+                .param("librarianId", librarianId.toString())
+                .param("from", LocalDate.now().plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void getOverdueBooksReport_Csv_StreamsHeader() throws Exception {
+        Long librarianId = userRepository.findByEmail("admin@test.com").orElseThrow().getId();
+
+        MvcResult result = mockMvc.perform(get("/api/borrowings/overdue-books/report")
+                .header("Authorization", adminToken)
+                .param("librarianId", librarianId.toString())
+                .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(startsWith("borrowing_id,book_title,")));
+    }
+
+    @Test
+    void getOverdueBooksReport_UnknownFormat_ReturnsBadRequest() throws Exception {
+        Long librarianId = userRepository.findByEmail("admin@test.com").orElseThrow().getId();
+
+        mockMvc.perform(get("/api/borrowings/overdue-books/report")
+                .header("Authorization", adminToken)
+                .param("librarianId", librarianId.toString())
+                .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void borrowBook_WithoutAuth_ReturnsUnauthorized() throws Exception {
         BorrowingRequest request = new BorrowingRequest(testBook.getId());
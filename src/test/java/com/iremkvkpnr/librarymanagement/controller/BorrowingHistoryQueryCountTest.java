@@ -0,0 +1,143 @@
+package com.iremkvkpnr.librarymanagement.controller;
+
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingViewRepository;
+import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.security.service.JwtService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the history endpoints against N+1 selects: the number of statements must not grow with the
+ * number of borrowings returned.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class BorrowingHistoryQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private BorrowingViewRepository borrowingViewRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User librarian;
+    private User patron;
+    private int bookCount;
+
+    @BeforeEach
+    void setUp() {
+        borrowingRepository.deleteAll();
+        userRepository.deleteAll();
+        bookRepository.deleteAll();
+
+        librarian = userRepository.save(User.builder()
+                .name("Librarian").email("librarian@test.com").password("password")
+                .phone("1234567890").role(User.Role.LIBRARIAN).build());
+        patron = userRepository.save(User.builder()
+                .name("Patron").email("patron@test.com").password("password")
+                .phone("1234567890").role(User.Role.PATRON).build());
+    }
+
+    @Test
+    void getUserBorrowingHistory_StatementCountIndependentOfSize() throws Exception {
+        RequestBuilder request = get("/api/borrowings/history")
+                .header("Authorization", "Bearer " + jwtService.generateToken(patron));
+
+        addBorrowings(2);
+        long few = countStatements(request, 2);
+        addBorrowings(20);
+        long many = countStatements(request, 22);
+
+        assertEquals(few, many);
+    }
+
+    @Test
+    void getAllBorrowingHistory_StatementCountIndependentOfSize() throws Exception {
+        RequestBuilder request = get("/api/borrowings/history/all")
+                .header("Authorization", "Bearer " + jwtService.generateToken(librarian))
+                .param("librarianId", librarian.getId().toString());
+
+        addBorrowings(2);
+        long few = countStatements(request, 2);
+        addBorrowings(20);
+        long many = countStatements(request, 22);
+
+        assertEquals(few, many);
+    }
+
+    private void addBorrowings(int count) {
+        for (int i = 0; i < count; i++) {
+            Book book = new Book();
+            book.setTitle("Book " + bookCount);
+            book.setAuthor("Author " + bookCount);
+            book.setIsbn("isbn-" + bookCount++);
+            book.setGenre(Book.Genre.FICTION);
+            book.setTotalCopies(1);
+            book.setAvailableCopies(0);
+            book = bookRepository.save(book);
+            borrowingRepository.save(Borrowing.builder()
+                    .user(patron).book(book)
+                    .borrowDate(LocalDate.now()).dueDate(LocalDate.now().plusWeeks(2))
+                    .status(Borrowing.Status.BORROWED).build());
+        }
+        // Seeded straight into the write model, so project it by hand
+        borrowingViewRepository.rebuild();
+    }
+
+    // Starts from an empty persistence context so lazy associations cannot be served from it
+    private long countStatements(RequestBuilder request, int expectedRows) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(expectedRows));
+
+        return statistics.getPrepareStatementCount();
+    }
+}
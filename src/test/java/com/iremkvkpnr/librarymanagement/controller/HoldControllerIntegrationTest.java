@@ -0,0 +1,212 @@
+package com.iremkvkpnr.librarymanagement.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iremkvkpnr.librarymanagement.model.dto.request.BookRequest;
+import com.iremkvkpnr.librarymanagement.model.dto.request.BorrowingRequest;
+import com.iremkvkpnr.librarymanagement.model.dto.request.ReturnRequest;
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.security.service.JwtService;
+import com.iremkvkpnr.librarymanagement.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class HoldControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private BookService bookService;
+
+    private String borrowerToken;
+    private String holderToken;
+    private User holder;
+    private Book testBook;
+    private Borrowing activeBorrowing;
+
+    @BeforeEach
+    void setUp() {
+        borrowingRepository.deleteAll();
+        userRepository.deleteAll();
+        bookRepository.deleteAll();
+
+        User borrower = userRepository.save(User.builder()
+                .name("Borrower").email("borrower@test.com").password("password")
+                .phone("1234567890").role(User.Role.PATRON).build());
+        holder = userRepository.save(User.builder()
+                .name("Holder").email("holder@test.com").password("password")
+                .phone("1234567890").role(User.Role.PATRON).build());
+
+        testBook = new Book();
+        testBook.setTitle("Popular Book");
+        testBook.setAuthor("Test Author");
+        testBook.setIsbn("1234567890");
+        testBook.setGenre(Book.Genre.FICTION);
+        testBook.setTotalCopies(1);
+        testBook.setAvailableCopies(0);
+        testBook = bookRepository.save(testBook);
+
+        activeBorrowing = borrowingRepository.save(Borrowing.builder()
+                .user(borrower).book(testBook)
+                .borrowDate(LocalDate.now()).dueDate(LocalDate.now().plusWeeks(2))
+                .status(Borrowing.Status.BORROWED).build());
+
+        borrowerToken = "Bearer " + jwtService.generateToken(borrower);
+        holderToken = "Bearer " + jwtService.generateToken(holder);
+    }
+
+    @Test
+    void placeHold_UnavailableBook_ReturnsCreatedWithPosition() throws Exception {
+        mockMvc.perform(post("/api/holds")
+                .header("Authorization", holderToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BorrowingRequest(testBook.getId()))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.bookTitle").value("Popular Book"))
+                .andExpect(jsonPath("$.queuePosition").value(1));
+
+        mockMvc.perform(get("/api/holds")
+                .header("Authorization", holderToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void returnBook_WithHoldQueued_HandsCopyToHolder() throws Exception {
+        mockMvc.perform(post("/api/holds")
+                .header("Authorization", holderToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BorrowingRequest(testBook.getId()))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/borrowings/return")
+                .header("Authorization", borrowerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReturnRequest(activeBorrowing.getId()))))
+                .andExpect(status().isOk());
+
+        assertEquals(1, borrowingRepository.countActiveBorrowingsByUser(holder.getId()));
+        assertEquals(0, bookRepository.findById(testBook.getId()).orElseThrow().getAvailableCopies());
+        mockMvc.perform(get("/api/holds")
+                .header("Authorization", holderToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void borrowBook_WithHold_HoldCountsAgainstLimitAndIsServedOnReturn() throws Exception {
+        mockMvc.perform(post("/api/holds")
+                .header("Authorization", holderToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BorrowingRequest(testBook.getId()))))
+                .andExpect(status().isCreated());
+        for (int i = 0; i < 3; i++) {
+            Book other = new Book();
+            other.setTitle("Other Book " + i);
+            other.setAuthor("Test Author");
+            other.setIsbn("99900000" + i);
+            other.setGenre(Book.Genre.FICTION);
+            other.setTotalCopies(1);
+            other.setAvailableCopies(1);
+            other = bookRepository.save(other);
+            // The hold occupies one of the three slots, so only two direct borrowings fit
+            mockMvc.perform(post("/api/borrowings")
+                    .header("Authorization", holderToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new BorrowingRequest(other.getId()))))
+                    .andExpect(i < 2 ? status().isCreated() : status().isBadRequest());
+        }
+
+        mockMvc.perform(post("/api/borrowings/return")
+                .header("Authorization", borrowerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReturnRequest(activeBorrowing.getId()))))
+                .andExpect(status().isOk());
+
+        assertEquals(3, borrowingRepository.countActiveBorrowingsByUser(holder.getId()));
+        assertEquals(0, bookRepository.findById(testBook.getId()).orElseThrow().getAvailableCopies());
+    }
+
+    @Test
+    void updateBook_AddedCopies_GoToHoldersBeforeTheShelf() throws Exception {
+        mockMvc.perform(post("/api/holds")
+                .header("Authorization", holderToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BorrowingRequest(testBook.getId()))))
+                .andExpect(status().isCreated());
+
+        bookService.updateBook(testBook.getId(), new BookRequest(null, null, null, null, 2, null));
+
+        assertEquals(1, borrowingRepository.countActiveBorrowingsByUser(holder.getId()));
+        assertEquals(0, bookRepository.findById(testBook.getId()).orElseThrow().getAvailableCopies());
+    }
+
+    @Test
+    void updateBook_SameTotalWhileAllCopiesOnLoan_CreatesNoLoan() throws Exception {
+        mockMvc.perform(post("/api/holds")
+                .header("Authorization", holderToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BorrowingRequest(testBook.getId()))))
+                .andExpect(status().isCreated());
+
+        bookService.updateBook(testBook.getId(), new BookRequest(null, null, null, null, 1, null));
+
+        assertEquals(0, borrowingRepository.countActiveBorrowingsByUser(holder.getId()));
+        assertEquals(0, bookRepository.findById(testBook.getId()).orElseThrow().getAvailableCopies());
+        mockMvc.perform(get("/api/holds")
+                .header("Authorization", holderToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void cancelHold_OwnHold_ReturnsNoContent() throws Exception {
+        String body = mockMvc.perform(post("/api/holds")
+                .header("Authorization", holderToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BorrowingRequest(testBook.getId()))))
+                .andReturn().getResponse().getContentAsString();
+        Long holdId = objectMapper.readTree(body).get("id").asLong();
+
+        mockMvc.perform(delete("/api/holds/{id}", holdId)
+                .header("Authorization", holderToken))
+                .andExpect(status().isNoContent());
+    }
+}
@@ -17,6 +17,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -146,4 +149,54 @@ public class UserControllerIntegrationTest {
     @WithMockUser(roles = "LIBRARIAN")
     public void deleteUser_WithLibrarianRole_ReturnsNoContent() throws Exception {
     }
-} 
\ No newline at end of file
+
+    @Test
+    void importUsers_MixedRows_CreatesValidUsersAndReportsTheRest() throws Exception {
+        String csv = """
+                name,email,password,phone,role
+                Student One,student1@test.com,password123,,
+                "Doe, Jane",student2@test.com,password123,5551234567,patron
+                Duplicate,student1@test.com,password123,,
+                Existing,user@test.com,password123,,
+                No Password,student3@test.com,,,
+                Bad Role,student4@test.com,password123,,ADMIN
+                """;
+
+        mockMvc.perform(post("/api/users/import")
+                .header("Authorization", adminToken)
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(6))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(4))
+                .andExpect(jsonPath("$.errors[?(@.line == 4)].message").value("Email appears more than once in the file"))
+                .andExpect(jsonPath("$.errors[?(@.line == 5)].message").value("Email already exists"))
+                .andExpect(jsonPath("$.errors[?(@.line == 6)].email").value("student3@test.com"))
+                .andExpect(jsonPath("$.errors[?(@.line == 7)].message").value("Unknown role: ADMIN"));
+
+        User imported = userRepository.findByEmail("student2@test.com").orElseThrow();
+        assertEquals("Doe, Jane", imported.getName());
+        assertEquals(User.Role.PATRON, imported.getRole());
+        assertTrue(passwordEncoder.matches("password123", imported.getPassword()));
+        assertNotNull(userRepository.findByEmail("student1@test.com").orElseThrow().getCreatedAt());
+    }
+
+    @Test
+    void importUsers_MissingRequiredColumn_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/users/import")
+                .header("Authorization", adminToken)
+                .contentType("text/csv")
+                .content("name,email\nStudent,student@test.com\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importUsers_AsPatron_ReturnsForbidden() throws Exception {
+        mockMvc.perform(post("/api/users/import")
+                .header("Authorization", userToken)
+                .contentType("text/csv")
+                .content("name,email,password\nStudent,student@test.com,password123\n"))
+                .andExpect(status().isForbidden());
+    }
+}
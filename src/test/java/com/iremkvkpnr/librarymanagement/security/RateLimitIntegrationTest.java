@@ -0,0 +1,61 @@
+package com.iremkvkpnr.librarymanagement.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "application.rate-limit.enabled=true",
+        "application.rate-limit.rules={'/api/books/search':'2:0.001'}",
+        "application.rate-limit.default="
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RateLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void limitedEndpoint_RejectsRequestsBeyondBurstWith429() throws Exception {
+        mockMvc.perform(get("/api/books/search").with(ip("10.1.0.1"))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/books/search").with(ip("10.1.0.1"))).andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/books/search").with(ip("10.1.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.error").value("Too many requests"));
+    }
+
+    @Test
+    void limitedEndpoint_KeepsClientsApart() throws Exception {
+        mockMvc.perform(get("/api/books/search").with(ip("10.2.0.1"))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/books/search").with(ip("10.2.0.1"))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/books/search").with(ip("10.2.0.1"))).andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/api/books/search").with(ip("10.2.0.2"))).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void unlimitedEndpoint_IsNotThrottled() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/books/1").with(ip("10.3.0.1"))).andExpect(status().isForbidden());
+        }
+    }
+
+    private static RequestPostProcessor ip(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
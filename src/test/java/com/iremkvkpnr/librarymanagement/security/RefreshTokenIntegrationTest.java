@@ -0,0 +1,91 @@
+package com.iremkvkpnr.librarymanagement.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RefreshTokenIntegrationTest {
+
+    private static final List<String> EMAILS = List.of("refresh@test.com", "refresh-bearer@test.com");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Registration commits on the password hashing executor, outside any test transaction
+    @AfterEach
+    void tearDown() {
+        EMAILS.forEach(email -> userRepository.findByEmail(email).ifPresent(userRepository::delete));
+    }
+
+    @Test
+    void refresh_RotatesAndDetectsReuse() throws Exception {
+        JsonNode registered = read(register("refresh@test.com").andExpect(status().isOk()));
+        String firstRefresh = registered.get("refreshToken").asText();
+
+        JsonNode rotated = read(refresh(firstRefresh).andExpect(status().isOk()));
+        String secondRefresh = rotated.get("refreshToken").asText();
+        assertNotEquals(firstRefresh, secondRefresh);
+        mockMvc.perform(get("/api/borrowings/history").header("Authorization", "Bearer " + rotated.get("token").asText()))
+                .andExpect(status().isOk());
+
+        // The first token was already used: replaying it revokes the whole family, including the rotated token
+        refresh(firstRefresh).andExpect(status().isUnauthorized());
+        refresh(secondRefresh).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refreshToken_CannotBeUsedAsAccessToken() throws Exception {
+        JsonNode registered = read(register("refresh-bearer@test.com").andExpect(status().isOk()));
+
+        mockMvc.perform(get("/api/borrowings/history").header("Authorization", "Bearer " + registered.get("refreshToken").asText()))
+                .andExpect(status().isForbidden());
+    }
+
+    // The response arrives through an async dispatch once the executor finished hashing
+    private ResultActions register(String email) throws Exception {
+        MvcResult pending = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Refresh User\",\"email\":\"" + email + "\",\"password\":\"password123\",\"phone\":\"1234567890\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(pending));
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"));
+    }
+
+    private JsonNode read(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
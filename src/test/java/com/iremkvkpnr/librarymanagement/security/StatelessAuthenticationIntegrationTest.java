@@ -0,0 +1,91 @@
+package com.iremkvkpnr.librarymanagement.security;
+
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.security.service.JwtService;
+import com.iremkvkpnr.librarymanagement.security.service.TokenRevocationService;
+import com.iremkvkpnr.librarymanagement.security.service.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * In stateless mode the caller is authenticated from token claims alone: the librarian below never exists
+ * in the users table, so any user lookup during authentication would reject the request.
+ */
+@SpringBootTest(properties = {
+        "application.security.jwt.stateless.enabled=true",
+        "application.security.jwt.stateless.expiration=60000",
+        "application.security.jwt.cache.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class StatelessAuthenticationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // Identical claims issued within the same second yield identical tokens, so each test gets its own ID.
+    private static final AtomicLong LIBRARIAN_IDS = new AtomicLong(Long.MAX_VALUE);
+
+    private User librarian;
+    private User patron;
+
+    @BeforeEach
+    void setUp() {
+        librarian = User.builder()
+                .id(LIBRARIAN_IDS.getAndDecrement()).email("stateless-librarian@test.com").role(User.Role.LIBRARIAN).build();
+        patron = userRepository.save(User.builder()
+                .name("Patron").email("stateless-patron@test.com").password("password")
+                .phone("1234567890").role(User.Role.PATRON).build());
+    }
+
+    @Test
+    void request_AuthenticatesFromClaimsWithoutUserLookup() throws Exception {
+        String token = jwtService.generateToken(librarian);
+
+        mockMvc.perform(get("/api/users/" + patron.getId()).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        VerifiedToken verified = jwtService.verify(token);
+        assertTrue(verified.expiration().getTime() - verified.issuedAt().getTime() <= 60000);
+    }
+
+    @Test
+    void request_WithRevokedToken_IsRejected() throws Exception {
+        String token = jwtService.generateToken(librarian);
+        tokenRevocationService.revoke(jwtService.verify(token));
+
+        mockMvc.perform(get("/api/users/" + patron.getId()).header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void request_AfterUserRevocation_IsRejected() throws Exception {
+        String token = jwtService.generateToken(patron);
+        tokenRevocationService.revokeUser(patron.getId());
+
+        mockMvc.perform(get("/api/borrowings/history").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,115 @@
+package com.iremkvkpnr.librarymanagement.security.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private RateLimiter limiter(Map<String, String> rules, String defaultRule) {
+        return new RateLimiter(true, rules, defaultRule, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void bucket_AllowsBurstThenRefillsOverTime() {
+        TokenBucket bucket = new TokenBucket(0);
+        long emission = SECOND / 2;
+        long burst = 3 * emission;
+
+        assertEquals(0, bucket.tryAcquire(0, emission, burst));
+        assertEquals(0, bucket.tryAcquire(0, emission, burst));
+        assertEquals(0, bucket.tryAcquire(0, emission, burst));
+        assertEquals(emission, bucket.tryAcquire(0, emission, burst));
+
+        assertEquals(0, bucket.tryAcquire(emission, emission, burst));
+        assertTrue(bucket.tryAcquire(emission, emission, burst) > 0);
+        assertTrue(bucket.isFull(4 * emission));
+    }
+
+    @Test
+    void bucket_ConcurrentAcquiresNeverExceedCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(0);
+        long emission = SECOND;
+        long capacity = 1_000;
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (bucket.tryAcquire(0, emission, capacity * emission) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(capacity, granted.get());
+    }
+
+    @Test
+    void ruleFor_PrefersMostSpecificPatternAndFallsBackToDefault() {
+        RateLimiter limiter = limiter(Map.of("/api/**", "100:10", "/api/books/search", "5:1"), "50:50");
+
+        assertEquals("/api/books/search", limiter.ruleFor("/api/books/search").orElseThrow().pattern());
+        assertEquals("/api/**", limiter.ruleFor("/api/books/1").orElseThrow().pattern());
+        assertEquals("/**", limiter.ruleFor("/actuator/health").orElseThrow().pattern());
+    }
+
+    @Test
+    void ruleFor_NoDefault_LeavesUnmatchedPathsUnlimited() {
+        RateLimiter limiter = limiter(Map.of("/api/**", "100:10"), "");
+
+        assertTrue(limiter.ruleFor("/actuator/health").isEmpty());
+    }
+
+    @Test
+    void tryAcquire_KeepsSeparateBucketsPerClient() {
+        RateLimiter limiter = limiter(Map.of("/api/**", "1:0.001"), "");
+        RateLimiter.Rule rule = limiter.ruleFor("/api/books").orElseThrow();
+
+        assertEquals(0, limiter.tryAcquire(rule, "ip:10.0.0.1"));
+        assertTrue(limiter.tryAcquire(rule, "ip:10.0.0.1") > 0);
+        assertEquals(0, limiter.tryAcquire(rule, "ip:10.0.0.2"));
+        assertEquals(2, limiter.bucketCount());
+    }
+
+    @Test
+    void evictIdle_DropsOnlyRefilledBuckets() throws InterruptedException {
+        RateLimiter limiter = limiter(Map.of("/fast", "1:1000000", "/slow", "1:0.001"), "");
+
+        limiter.tryAcquire(limiter.ruleFor("/fast").orElseThrow(), "ip:10.0.0.1");
+        limiter.tryAcquire(limiter.ruleFor("/slow").orElseThrow(), "ip:10.0.0.1");
+        Thread.sleep(5);
+        limiter.evictIdle();
+
+        assertEquals(1, limiter.bucketCount());
+    }
+
+    @Test
+    void constructor_InvalidRule_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> limiter(Map.of("/api/**", "10"), ""));
+        assertThrows(IllegalArgumentException.class, () -> limiter(Map.of("/api/**", "0:5"), ""));
+    }
+}
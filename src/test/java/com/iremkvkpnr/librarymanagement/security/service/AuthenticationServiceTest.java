@@ -1,9 +1,11 @@
 package com.iremkvkpnr.librarymanagement.security.service;
 
 import com.iremkvkpnr.librarymanagement.model.dto.request.AuthenticationRequest;
+import com.iremkvkpnr.librarymanagement.model.dto.request.RefreshTokenRequest;
 import com.iremkvkpnr.librarymanagement.model.dto.request.RegisterRequest;
 import com.iremkvkpnr.librarymanagement.model.dto.response.AuthenticationResponse;
 import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.model.event.UserRegisteredEvent;
 import com.iremkvkpnr.librarymanagement.model.exception.UserValidationException;
 import com.iremkvkpnr.librarymanagement.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,14 +14,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Date;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +43,12 @@ class AuthenticationServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -80,6 +92,7 @@ class AuthenticationServiceTest {
         assertEquals("jwtToken", response.token());
         verify(userRepository, times(1)).save(any(User.class));
         verify(jwtService, times(1)).generateToken(any(User.class));
+        verify(eventPublisher).publishEvent(any(UserRegisteredEvent.class));
     }
 
     @Test
@@ -116,4 +129,45 @@ class AuthenticationServiceTest {
         assertThrows(UserValidationException.class, () -> authenticationService.authenticate(authRequest));
         verify(jwtService, never()).generateToken(any(User.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void refresh_RotatesWithinFamily() {
+        Date expiration = new Date(System.currentTimeMillis() + 60000);
+        when(jwtService.verifyRefreshToken("refresh-1"))
+            .thenReturn(new RefreshTokenClaims("jti-1", "family-1", "test@example.com", expiration));
+        when(refreshTokenStore.isFamilyRevoked("family-1")).thenReturn(false);
+        when(refreshTokenStore.markUsed("jti-1", expiration)).thenReturn(true);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(jwtService.generateToken(testUser)).thenReturn("jwtToken");
+        when(jwtService.generateRefreshToken(testUser, "family-1")).thenReturn("refresh-2");
+
+        AuthenticationResponse response = authenticationService.refresh(new RefreshTokenRequest("refresh-1"));
+
+        assertEquals("jwtToken", response.token());
+        assertEquals("refresh-2", response.refreshToken());
+        verify(authenticationManager, never()).authenticate(any());
+    }
+
+    @Test
+    void refresh_ReusedToken_RevokesFamily() {
+        Date expiration = new Date(System.currentTimeMillis() + 60000);
+        Date familyExpiration = new Date(System.currentTimeMillis() + 120000);
+        when(jwtService.verifyRefreshToken("refresh-1"))
+            .thenReturn(new RefreshTokenClaims("jti-1", "family-1", "test@example.com", expiration));
+        when(refreshTokenStore.isFamilyRevoked("family-1")).thenReturn(false);
+        when(refreshTokenStore.markUsed("jti-1", expiration)).thenReturn(false);
+        when(jwtService.getRefreshFamilyExpiration()).thenReturn(familyExpiration);
+
+        assertThrows(BadCredentialsException.class, () -> authenticationService.refresh(new RefreshTokenRequest("refresh-1")));
+        verify(refreshTokenStore).revokeFamily("family-1", familyExpiration);
+        verify(jwtService, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void refresh_InvalidToken_Throws() {
+        when(jwtService.verifyRefreshToken(anyString())).thenThrow(new io.jsonwebtoken.MalformedJwtException("bad"));
+
+        assertThrows(BadCredentialsException.class, () -> authenticationService.refresh(new RefreshTokenRequest("bad")));
+        verify(refreshTokenStore, never()).markUsed(any(), any());
+    }
+}
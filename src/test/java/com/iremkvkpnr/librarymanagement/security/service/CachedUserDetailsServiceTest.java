@@ -0,0 +1,74 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.model.event.UserChangedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.UserRegisteredEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedUserDetailsServiceTest {
+
+    private final Map<String, User> users = new HashMap<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private CachedUserDetailsService service;
+
+    @BeforeEach
+    void setUp() {
+        users.put("patron@example.com", User.builder()
+                .id(1L).email("patron@example.com").password("hash").role(User.Role.PATRON).build());
+        service = new CachedUserDetailsService(email -> {
+            lookups.incrementAndGet();
+            return Optional.ofNullable(users.get(email));
+        }, true, 10);
+    }
+
+    @Test
+    void loadUserByUsername_CachesSnapshot() {
+        UserDetails first = service.loadUserByUsername("patron@example.com");
+        UserDetails second = service.loadUserByUsername("patron@example.com");
+
+        assertSame(first, second);
+        assertEquals(1, lookups.get());
+        assertEquals(new UserPrincipal(1L, "patron@example.com", User.Role.PATRON), first);
+        assertNull(first.getPassword());
+    }
+
+    @Test
+    void loadUserByUsername_UnknownUser_IsNotCached() {
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("missing@example.com"));
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("missing@example.com"));
+
+        assertEquals(2, lookups.get());
+        assertEquals(0, service.size());
+    }
+
+    @Test
+    void onUserChanged_ReloadsUpdatedUser() {
+        service.loadUserByUsername("patron@example.com");
+        users.get("patron@example.com").setRole(User.Role.LIBRARIAN);
+
+        service.onUserChanged(new UserChangedEvent(1L, "patron@example.com"));
+
+        assertEquals("ROLE_LIBRARIAN",
+                service.loadUserByUsername("patron@example.com").getAuthorities().iterator().next().getAuthority());
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void onUserRegistered_EvictsEmail() {
+        service.loadUserByUsername("patron@example.com");
+
+        service.onUserRegistered(new UserRegisteredEvent(1L, "patron@example.com"));
+
+        assertEquals(0, service.size());
+    }
+}
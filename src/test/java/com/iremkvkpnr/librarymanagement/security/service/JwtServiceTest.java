@@ -3,13 +3,17 @@ package com.iremkvkpnr.librarymanagement.security.service;
 import com.iremkvkpnr.librarymanagement.model.entity.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -124,4 +128,54 @@ class JwtServiceTest {
             jwtService.isTokenValid(expiredToken, testUser);
         });
     }
-} 
\ No newline at end of file
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void verify_ReturnsClaims() {
+        String token = jwtService.generateToken(testUser);
+
+        VerifiedToken verified = jwtService.verify(token);
+
+        assertEquals(testUser.getEmail(), verified.subject());
+        assertEquals(testUser.getId(), verified.userId());
+        assertNotNull(verified.expiration());
+        assertFalse(verified.isExpired());
+    }
+
+    @Test
+    void verify_WithinRequest_ParsesOnce() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        String token = jwtService.generateToken(testUser);
+
+        VerifiedToken first = jwtService.verify(token);
+
+        assertSame(first, request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE));
+        assertSame(first, jwtService.verify(token));
+        assertEquals(testUser.getId(), jwtService.extractUserId(token));
+    }
+
+    @Test
+    void verify_WithinRequest_DifferentTokenIsParsedAgain() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        String token = jwtService.generateToken(testUser);
+        String refreshToken = jwtService.generateRefreshToken(testUser);
+
+        VerifiedToken first = jwtService.verify(token);
+        VerifiedToken second = jwtService.verify(refreshToken);
+
+        assertNotSame(first, second);
+        assertNull(second.userId());
+    }
+
+    @Test
+    void isTokenValid_WithVerifiedToken() {
+        VerifiedToken verified = jwtService.verify(jwtService.generateToken(testUser));
+
+        assertTrue(jwtService.isTokenValid(verified, testUser));
+    }
+}
@@ -0,0 +1,46 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import com.iremkvkpnr.librarymanagement.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenStoreTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private RefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RefreshTokenStore(revokedTokenRepository);
+    }
+
+    @Test
+    void isFamilyRevoked_RevokedByAnotherInstance_ReadsTable() {
+        when(revokedTokenRepository.exists("family:f1")).thenReturn(true);
+
+        assertTrue(store.isFamilyRevoked("f1"));
+    }
+
+    @Test
+    void markUsed_UsedOnAnotherInstance_IsRejectedByPrimaryKey() {
+        doThrow(new DuplicateKeyException("duplicate")).when(revokedTokenRepository).insert(eq("t1"), any(LocalDateTime.class));
+
+        assertFalse(store.markUsed("t1", new Date(System.currentTimeMillis() + 60_000)));
+        verify(revokedTokenRepository, never()).exists("t1");
+    }
+}
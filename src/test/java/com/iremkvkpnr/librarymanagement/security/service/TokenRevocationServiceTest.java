@@ -0,0 +1,71 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import com.iremkvkpnr.librarymanagement.model.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TokenRevocationService(jwtService, verifiedTokenCache, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void revoke_RejectsOnlyThatToken() {
+        VerifiedToken revoked = token("a", NOW.minusSeconds(10));
+        VerifiedToken other = token("b", NOW.minusSeconds(10));
+
+        service.revoke(revoked);
+
+        assertTrue(service.isRevoked(revoked));
+        assertFalse(service.isRevoked(other));
+        verify(verifiedTokenCache).evict("a");
+    }
+
+    @Test
+    void onUserChanged_InStatelessMode_RevokesEarlierTokens() {
+        when(jwtService.isStateless()).thenReturn(true);
+
+        service.onUserChanged(new UserChangedEvent(1L, "patron@example.com"));
+
+        assertTrue(service.isRevoked(token("a", NOW.minusSeconds(10))));
+        assertFalse(service.isRevoked(token("b", NOW.plusSeconds(1))));
+    }
+
+    @Test
+    void onUserChanged_InDatabaseMode_RevokesNothing() {
+        when(jwtService.isStateless()).thenReturn(false);
+
+        service.onUserChanged(new UserChangedEvent(1L, "patron@example.com"));
+
+        assertFalse(service.isRevoked(token("a", NOW.minusSeconds(10))));
+    }
+
+    private static VerifiedToken token(String raw, Instant issuedAt) {
+        return new VerifiedToken(raw, "patron@example.com", 1L, "PATRON",
+                Date.from(issuedAt), Date.from(issuedAt.plusSeconds(900)), false);
+    }
+}
@@ -0,0 +1,72 @@
+package com.iremkvkpnr.librarymanagement.security.service;
+
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.model.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private VerifiedTokenCache cache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(true, 2);
+        user = User.builder().id(1L).email("patron@example.com").role(User.Role.PATRON).build();
+    }
+
+    @Test
+    void get_ReturnsCachedPrincipalUntilExpiry() {
+        VerifiedToken live = token("a", 1L, "patron@example.com", 60_000);
+        VerifiedToken expired = token("b", 1L, "patron@example.com", -1_000);
+
+        cache.put(live, user, cache.generation());
+        cache.put(expired, user, cache.generation());
+
+        assertSame(user, cache.get("a").orElseThrow().principal());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("unknown").isEmpty());
+    }
+
+    @Test
+    void onUserChanged_EvictsAllTokensOfUser() {
+        cache.put(token("a", 1L, "patron@example.com", 60_000), user, cache.generation());
+        cache.put(token("refresh", null, "patron@example.com", 60_000), user, cache.generation());
+
+        cache.onUserChanged(new UserChangedEvent(1L, "patron@example.com"));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_AfterEviction_IsIgnored() {
+        long loadedAt = cache.generation();
+        cache.evict("other");
+
+        cache.put(token("a", 1L, "patron@example.com", 60_000), user, loadedAt);
+
+        assertTrue(cache.get("a").isEmpty());
+    }
+
+    @Test
+    void put_BeyondMaxSize_EvictsLeastRecentlyUsed() {
+        cache.put(token("a", 1L, "patron@example.com", 60_000), user, cache.generation());
+        cache.put(token("b", 1L, "patron@example.com", 60_000), user, cache.generation());
+        cache.get("a");
+        cache.put(token("c", 1L, "patron@example.com", 60_000), user, cache.generation());
+
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+    }
+
+    private static VerifiedToken token(String raw, Long userId, String subject, long expiresInMillis) {
+        long now = System.currentTimeMillis();
+        return new VerifiedToken(raw, subject, userId, "PATRON", new Date(now), new Date(now + expiresInMillis), false);
+    }
+}
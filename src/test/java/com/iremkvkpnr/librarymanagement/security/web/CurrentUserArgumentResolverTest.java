@@ -0,0 +1,58 @@
+package com.iremkvkpnr.librarymanagement.security.web;
+
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.security.service.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrentUserArgumentResolverTest {
+
+    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver();
+
+    @SuppressWarnings("unused")
+    void handler(@CurrentUser Long userId, @CurrentUser UserPrincipal principal, Long other) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void supportsParameter_OnlyAnnotatedIdOrPrincipal() throws Exception {
+        assertTrue(resolver.supportsParameter(parameter(0)));
+        assertTrue(resolver.supportsParameter(parameter(1)));
+        assertFalse(resolver.supportsParameter(parameter(2)));
+    }
+
+    @Test
+    void resolveArgument_ReadsPrincipalFromSecurityContext() throws Exception {
+        UserPrincipal principal = new UserPrincipal(7L, "patron@example.com", User.Role.PATRON);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        assertEquals(7L, resolver.resolveArgument(parameter(0), null, null, null));
+        assertSame(principal, resolver.resolveArgument(parameter(1), null, null, null));
+    }
+
+    @Test
+    void resolveArgument_WithoutAuthentication_Throws() throws Exception {
+        MethodParameter parameter = parameter(0);
+
+        assertThrows(AuthenticationCredentialsNotFoundException.class,
+                () -> resolver.resolveArgument(parameter, null, null, null));
+    }
+
+    private MethodParameter parameter(int index) throws NoSuchMethodException {
+        Method method = getClass().getDeclaredMethod("handler", Long.class, UserPrincipal.class, Long.class);
+        return new MethodParameter(method, index);
+    }
+}
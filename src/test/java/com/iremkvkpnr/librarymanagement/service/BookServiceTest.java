@@ -7,6 +7,8 @@ import com.iremkvkpnr.librarymanagement.model.entity.Book;
 import com.iremkvkpnr.librarymanagement.model.exception.BookNotFoundException;
 import com.iremkvkpnr.librarymanagement.model.exception.BookValidationException;
 import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingArchiveRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingViewRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +17,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -35,6 +38,18 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private BorrowingArchiveRepository borrowingArchiveRepository;
+
+    @Mock
+    private BorrowingViewRepository borrowingViewRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HoldService holdService;
+
     @InjectMocks
     private BookService bookService;
 
@@ -152,6 +167,34 @@ class BookServiceTest {
         assertEquals(testBook.getAuthor(), response.author());
         verify(bookRepository, times(1)).findById(1L);
         verify(bookRepository, times(1)).save(any(Book.class));
+        verify(borrowingViewRepository).updateBookDetails(testBook.getId(), testBook.getTitle(), testBook.getAuthor());
+    }
+
+    @Test
+    void updateBook_NewCopies_GoToHoldQueueFirst() {
+        testBook.setTotalCopies(3);
+        testBook.setAvailableCopies(0);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(holdService.fulfillHolds(1L, 2)).thenReturn(1);
+
+        BookResponse response = bookService.updateBook(1L, testBookRequest);
+
+        assertEquals(5, response.totalCopies());
+        assertEquals(1, response.availableCopies());
+        verify(holdService).fulfillHolds(1L, 2);
+    }
+
+    @Test
+    void updateBook_SameTotalWithCopiesOnLoan_KeepsLoansOutAndHoldsWaiting() {
+        testBook.setAvailableCopies(2);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookResponse response = bookService.updateBook(1L, testBookRequest);
+
+        assertEquals(2, response.availableCopies());
+        verify(holdService, never()).fulfillHolds(anyLong(), anyInt());
     }
 
     @Test
@@ -195,6 +238,7 @@ class BookServiceTest {
         assertDoesNotThrow(() -> bookService.deleteBook(1L));
         verify(bookRepository, times(1)).findById(1L);
         verify(bookRepository, times(1)).delete(testBook);
+        verify(borrowingViewRepository).deleteByBookId(1L);
     }
 
     @Test
@@ -1,13 +1,26 @@
 package com.iremkvkpnr.librarymanagement.service;
 
+import com.iremkvkpnr.librarymanagement.model.dto.request.BorrowingHistoryFilter;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BookResponse;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryPage;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryRow;
 import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingResponse;
+import com.iremkvkpnr.librarymanagement.model.dto.response.OverdueReportRow;
 import com.iremkvkpnr.librarymanagement.model.entity.Book;
 import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
 import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.model.mapper.BookMapper;
 import com.iremkvkpnr.librarymanagement.model.exception.BorrowingValidationException;
 import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingBatchRepository;
 import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingViewRepository;
 import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.service.overdue.OverdueSetService;
+import com.iremkvkpnr.librarymanagement.service.overdue.OverdueTrackingService;
+import com.iremkvkpnr.librarymanagement.service.report.NdjsonWriter;
+import com.iremkvkpnr.librarymanagement.service.report.OverdueReportFormat;
+import com.iremkvkpnr.librarymanagement.service.report.OverdueReportWriter;
 import com.iremkvkpnr.librarymanagement.validation.BorrowingValidation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,14 +28,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +55,12 @@ class BorrowingServiceTest {
     @Mock
     private BorrowingRepository borrowingRepository;
 
+    @Mock
+    private BorrowingBatchRepository borrowingBatchRepository;
+
+    @Mock
+    private BorrowingViewRepository borrowingViewRepository;
+
     @Mock
     private UserRepository userRepository;
 
@@ -40,9 +70,27 @@ class BorrowingServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private HoldService holdService;
+
+    @Mock
+    private OverdueTrackingService overdueTrackingService;
+
+    @Mock
+    private OverdueSetService overdueSetService;
+
     @Mock
     private BorrowingValidation borrowingValidation;
 
+    @Mock
+    private OverdueReportWriter overdueReportWriter;
+
+    @Mock
+    private NdjsonWriter ndjsonWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BorrowingService borrowingService;
 
@@ -78,8 +126,8 @@ class BorrowingServiceTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
         when(userService.isUserEligible(1L)).thenReturn(true);
-        when(borrowingRepository.countOverdueBooksByUser(1L)).thenReturn(0L);
-        when(borrowingRepository.countActiveBorrowingsByUser(1L)).thenReturn(0L);
+        when(overdueTrackingService.countOverdueByUser(1L)).thenReturn(0L);
+        when(borrowingRepository.countSlotsUsedByUser(1L)).thenReturn(0L);
         when(borrowingRepository.findActiveBorrowingByUserAndBook(1L, 1L)).thenReturn(Optional.empty());
         when(borrowingRepository.save(any(Borrowing.class))).thenReturn(testBorrowing);
 
@@ -125,6 +173,53 @@ class BorrowingServiceTest {
         verify(borrowingRepository, never()).save(any(Borrowing.class));
     }
 
+    @Test
+    void borrowBooks_Success() {
+        Book secondBook = new Book();
+        secondBook.setId(2L);
+        secondBook.setTitle("Second Book");
+        secondBook.setAvailableCopies(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(overdueTrackingService.countOverdueByUser(1L)).thenReturn(0L);
+        when(borrowingRepository.countSlotsUsedByUser(1L)).thenReturn(1L);
+        when(borrowingRepository.findActiveBorrowedBookIds(1L, List.of(2L, 1L))).thenReturn(Collections.emptyList());
+        when(bookRepository.findAllByIdForUpdate(List.of(2L, 1L))).thenReturn(List.of(testBook, secondBook));
+        when(borrowingBatchRepository.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BorrowingResponse> responses = borrowingService.borrowBooks(1L, List.of(2L, 1L));
+
+        assertEquals(2, responses.size());
+        assertEquals("Second Book", responses.get(0).bookTitle());
+        assertEquals(testBook.getTitle(), responses.get(1).bookTitle());
+        assertEquals(4, testBook.getAvailableCopies());
+        assertEquals(0, secondBook.getAvailableCopies());
+        verify(borrowingBatchRepository, times(1)).insertAll(anyList());
+    }
+
+    @Test
+    void borrowBooks_ExceedsActiveLimit() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(overdueTrackingService.countOverdueByUser(1L)).thenReturn(0L);
+        when(borrowingRepository.countSlotsUsedByUser(1L)).thenReturn(2L);
+
+        assertThrows(BorrowingValidationException.class, () -> borrowingService.borrowBooks(1L, List.of(1L, 2L)));
+        verify(bookRepository, never()).findAllByIdForUpdate(any());
+        verify(borrowingBatchRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void borrowBooks_NoAvailableCopies() {
+        testBook.setAvailableCopies(0);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(overdueTrackingService.countOverdueByUser(1L)).thenReturn(0L);
+        when(borrowingRepository.countSlotsUsedByUser(1L)).thenReturn(0L);
+        when(borrowingRepository.findActiveBorrowedBookIds(1L, List.of(1L))).thenReturn(Collections.emptyList());
+        when(bookRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(testBook));
+
+        assertThrows(BorrowingValidationException.class, () -> borrowingService.borrowBooks(1L, List.of(1L)));
+        verify(borrowingBatchRepository, never()).insertAll(anyList());
+    }
+
     @Test
     void returnBook_Success() {
         when(borrowingRepository.findById(1L)).thenReturn(Optional.of(testBorrowing));
@@ -136,6 +231,56 @@ class BorrowingServiceTest {
         verify(borrowingRepository, times(1)).save(any(Borrowing.class));
     }
 
+    @Test
+    void returnBooks_ByBookIds_ClosesOldestPerBook() {
+        List<BorrowingBatchRepository.ActiveBorrowing> active = List.of(
+                new BorrowingBatchRepository.ActiveBorrowing(10L, 1L, 1L),
+                new BorrowingBatchRepository.ActiveBorrowing(11L, 1L, 1L),
+                new BorrowingBatchRepository.ActiveBorrowing(20L, 1L, 2L));
+        when(borrowingBatchRepository.lockActiveByBookIds(Set.of(1L, 2L))).thenReturn(active);
+        when(borrowingBatchRepository.markReturned(eq(List.of(10L, 20L)), any(LocalDate.class))).thenReturn(2);
+        when(borrowingBatchRepository.findResponsesByIds(List.of(10L, 20L))).thenReturn(List.of(
+                new BorrowingResponse(10L, "A", "A", "U", null, null, LocalDate.now()),
+                new BorrowingResponse(20L, "B", "B", "U", null, null, LocalDate.now())));
+
+        List<BorrowingResponse> result = borrowingService.returnBooks(null, List.of(1L, 2L));
+
+        assertEquals(2, result.size());
+        verify(borrowingBatchRepository).incrementAvailableCopies(Map.of(1L, 1, 2L, 1));
+    }
+
+    @Test
+    void returnBooks_NothingActive_ReturnsEmpty() {
+        when(borrowingBatchRepository.lockActiveByIds(Set.of(5L))).thenReturn(Collections.emptyList());
+
+        List<BorrowingResponse> result = borrowingService.returnBooks(List.of(5L), null);
+
+        assertTrue(result.isEmpty());
+        verify(borrowingBatchRepository, never()).markReturned(anyList(), any(LocalDate.class));
+        verify(borrowingBatchRepository, never()).incrementAvailableCopies(anyMap());
+    }
+
+    @Test
+    void returnBook_HandsCopyToHolder() {
+        when(borrowingRepository.findById(1L)).thenReturn(Optional.of(testBorrowing));
+        when(holdService.fulfillHolds(1L, 1)).thenReturn(1);
+        when(borrowingRepository.save(any(Borrowing.class))).thenReturn(testBorrowing);
+
+        borrowingService.returnBook(1L, 1L);
+
+        assertEquals(5, testBook.getAvailableCopies());
+        verify(bookRepository, never()).save(any(Book.class));
+    }
+
+    @Test
+    void returnBook_AlreadyReturned() {
+        testBorrowing.setStatus(Borrowing.Status.RETURNED);
+        when(borrowingRepository.findById(1L)).thenReturn(Optional.of(testBorrowing));
+
+        assertThrows(BorrowingValidationException.class, () -> borrowingService.returnBook(1L, 1L));
+        verify(holdService, never()).fulfillHolds(any(), anyInt());
+    }
+
     @Test
     void returnBook_BorrowingNotFound() {
         when(borrowingRepository.findById(1L)).thenReturn(Optional.empty());
@@ -158,13 +303,13 @@ class BorrowingServiceTest {
     @Test
     void getUserBorrowingHistory_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(borrowingRepository.findByUserId(1L)).thenReturn(List.of(testBorrowing));
+        when(borrowingViewRepository.findUserHistory(1L)).thenReturn(List.of(historyRow(testBorrowing.getId(), LocalDateTime.now())));
 
-        List<Borrowing> result = borrowingService.getUserBorrowingHistory(1L);
+        List<BorrowingHistoryRow> result = borrowingService.getUserBorrowingHistory(1L);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(testBorrowing.getId(), result.get(0).getId());
+        assertEquals(testBorrowing.getId(), result.get(0).id());
     }
 
     @Test
@@ -175,75 +320,100 @@ class BorrowingServiceTest {
     }
 
     @Test
-    void getAllBorrowingHistory_Success() {
+    void getAllBorrowingHistory_ReturnsPageWithNextCursor() {
         User librarian = new User();
         librarian.setId(1L);
         librarian.setRole(User.Role.LIBRARIAN);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 10, 9, 30, 15, 123456000);
+        List<BorrowingHistoryRow> rows = List.of(historyRow(3L, createdAt), historyRow(2L, createdAt), historyRow(1L, createdAt.minusDays(1)));
+        BorrowingHistoryFilter filter = new BorrowingHistoryFilter(null, 1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(librarian));
-        when(borrowingRepository.findAll()).thenReturn(List.of(testBorrowing));
+        when(borrowingRepository.findHistoryPage(null, 1L, LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0),
+                null, null, PageRequest.of(0, 3))).thenReturn(rows);
 
-        List<Borrowing> result = borrowingService.getAllBorrowingHistory(1L);
+        BorrowingHistoryPage page = borrowingService.getAllBorrowingHistory(1L, filter, null, 2);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(testBorrowing.getId(), result.get(0).getId());
+        assertEquals(2, page.items().size());
+        assertEquals(new BorrowingHistoryCursor(createdAt, 2L), BorrowingHistoryCursor.decode(page.nextCursor()));
     }
 
     @Test
-    void getAllBorrowingHistory_NotLibrarian() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    void getAllBorrowingHistory_LastPageHasNoCursor() {
+        User librarian = new User();
+        librarian.setId(1L);
+        librarian.setRole(User.Role.LIBRARIAN);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 10, 9, 30);
+        BorrowingHistoryCursor cursor = new BorrowingHistoryCursor(createdAt, 5L);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(librarian));
+        when(borrowingRepository.findHistoryPage(null, null, null, null, createdAt, 5L, PageRequest.of(0, 51)))
+                .thenReturn(List.of(historyRow(4L, createdAt)));
+
+        BorrowingHistoryPage page = borrowingService.getAllBorrowingHistory(
+                1L, new BorrowingHistoryFilter(null, null, null, null), cursor.encode(), 50);
 
-        assertThrows(BorrowingValidationException.class, () -> borrowingService.getAllBorrowingHistory(1L));
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
     }
 
     @Test
-    void getOverdueBooks_Success() {
-        when(borrowingRepository.findOverdueBooks(any(LocalDate.class))).thenReturn(List.of(testBorrowing));
-
-        List<Borrowing> result = borrowingService.getOverdueBooks();
+    void getAllBorrowingHistory_NotLibrarian() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(testBorrowing.getId(), result.get(0).getId());
+        assertThrows(BorrowingValidationException.class, () -> borrowingService.getAllBorrowingHistory(
+                1L, new BorrowingHistoryFilter(null, null, null, null), null, 50));
     }
 
     @Test
-    void generateOverdueBooksReport_Success() {
+    void getAllBorrowingHistory_InvalidCursor() {
         User librarian = new User();
         librarian.setId(1L);
         librarian.setRole(User.Role.LIBRARIAN);
-
         when(userRepository.findById(1L)).thenReturn(Optional.of(librarian));
-        when(borrowingRepository.findOverdueBooks(any(LocalDate.class))).thenReturn(List.of(testBorrowing));
 
-        String report = borrowingService.generateOverdueBooksReport(1L);
+        assertThrows(BorrowingValidationException.class, () -> borrowingService.getAllBorrowingHistory(
+                1L, new BorrowingHistoryFilter(null, null, null, null), "not-a-cursor", 50));
+        assertThrows(BorrowingValidationException.class, () -> borrowingService.getAllBorrowingHistory(
+                1L, new BorrowingHistoryFilter(null, null, null, null), null, 1000));
+    }
 
-        assertNotNull(report);
-        assertTrue(report.contains("OVERDUE BOOKS REPORT"));
-        assertTrue(report.contains(testBook.getTitle()));
-        assertTrue(report.contains(testUser.getName()));
+    private BorrowingHistoryRow historyRow(Long id, LocalDateTime createdAt) {
+        return new BorrowingHistoryRow(id, createdAt, testUser.getId(), testUser.getName(), testBook.getId(),
+                testBook.getTitle(), testBook.getAuthor(), LocalDate.now(), LocalDate.now().plusWeeks(2), null,
+                Borrowing.Status.BORROWED);
     }
 
     @Test
-    void generateOverdueBooksReport_NotLibrarian() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    void getOverdueBooks_Success() {
+        when(overdueSetService.getOverdueBooks()).thenReturn(List.of(BookMapper.toDto(testBook)));
+
+        List<BookResponse> result = borrowingService.getOverdueBooks();
 
-        assertThrows(BorrowingValidationException.class, () -> borrowingService.generateOverdueBooksReport(1L));
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals(testBook.getId(), result.get(0).id());
     }
 
     @Test
-    void generateOverdueBooksReport_NoOverdueBooks() {
-        User librarian = new User();
-        librarian.setId(1L);
-        librarian.setRole(User.Role.LIBRARIAN);
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(librarian));
-        when(borrowingRepository.findOverdueBooks(any(LocalDate.class))).thenReturn(Collections.emptyList());
+    void verifyReportAccess_NotLibrarian() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
-        String report = borrowingService.generateOverdueBooksReport(1L);
+        assertThrows(BorrowingValidationException.class, () -> borrowingService.verifyReportAccess(1L));
+    }
 
-        assertNotNull(report);
-        assertEquals("No overdue books currently.", report);
+    @Test
+    void writeOverdueBooksReport_StreamsRowsToWriter() {
+        OverdueReportRow row = new OverdueReportRow(1L, testBook.getTitle(), testUser.getName(), testUser.getEmail(),
+                LocalDate.now().minusDays(20), LocalDate.now().minusDays(6), Borrowing.Status.OVERDUE);
+        Stream<OverdueReportRow> rows = Stream.of(row);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        when(borrowingRepository.streamOverdueReportRows()).thenReturn(rows);
+        when(overdueReportWriter.write(eq(rows), eq(OverdueReportFormat.CSV), any(LocalDate.class), eq(out))).thenReturn(1L);
+
+        long count = borrowingService.writeOverdueBooksReport(OverdueReportFormat.CSV, out);
+
+        assertEquals(1, count);
+        verify(overdueSetService, never()).getOverdueBooks();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,144 @@
+package com.iremkvkpnr.librarymanagement.service;
+
+import com.iremkvkpnr.librarymanagement.model.dto.response.HoldResponse;
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.model.event.HoldFulfilledEvent;
+import com.iremkvkpnr.librarymanagement.model.exception.BorrowingValidationException;
+import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.service.overdue.OverdueTrackingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HoldServiceTest {
+
+    @Mock
+    private BorrowingRepository borrowingRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private OverdueTrackingService overdueTrackingService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private HoldService holdService;
+
+    private User testUser;
+    private Book testBook;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setName("Test User");
+        testUser.setRole(User.Role.PATRON);
+
+        testBook = new Book();
+        testBook.setId(1L);
+        testBook.setTitle("Test Book");
+        testBook.setAvailableCopies(0);
+        testBook.setTotalCopies(1);
+    }
+
+    private Borrowing hold(Long id, User user) {
+        return Borrowing.builder()
+                .id(id)
+                .user(user)
+                .book(testBook)
+                .status(Borrowing.Status.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void placeHold_Success() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testBook));
+        when(borrowingRepository.save(any(Borrowing.class))).thenAnswer(invocation -> {
+            Borrowing saved = invocation.getArgument(0);
+            saved.setId(7L);
+            saved.setCreatedAt(LocalDateTime.now());
+            return saved;
+        });
+        when(borrowingRepository.countHoldsAhead(7L)).thenReturn(1L);
+
+        HoldResponse response = holdService.placeHold(1L, 1L);
+
+        assertEquals(7L, response.id());
+        assertEquals(1L, response.queuePosition());
+    }
+
+    @Test
+    void placeHold_BookAvailable() {
+        testBook.setAvailableCopies(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testBook));
+
+        assertThrows(BorrowingValidationException.class, () -> holdService.placeHold(1L, 1L));
+        verify(borrowingRepository, never()).save(any(Borrowing.class));
+    }
+
+    @Test
+    void placeHold_LimitReached() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testBook));
+        when(borrowingRepository.countSlotsUsedByUser(1L)).thenReturn(3L);
+
+        assertThrows(BorrowingValidationException.class, () -> holdService.placeHold(1L, 1L));
+        verify(borrowingRepository, never()).save(any(Borrowing.class));
+    }
+
+    @Test
+    void fulfillHolds_SkipsIneligibleHolder() {
+        User busyUser = new User();
+        busyUser.setId(2L);
+        Borrowing first = hold(10L, busyUser);
+        Borrowing second = hold(11L, testUser);
+        when(borrowingRepository.findNextHoldsForUpdate(eq(1L), any(Pageable.class))).thenReturn(List.of(first, second));
+        // Slots include the hold itself
+        when(borrowingRepository.countSlotsUsedByUser(2L)).thenReturn(4L);
+        when(borrowingRepository.countSlotsUsedByUser(1L)).thenReturn(3L);
+
+        int handed = holdService.fulfillHolds(1L, 1);
+
+        assertEquals(1, handed);
+        assertEquals(Borrowing.Status.PENDING, first.getStatus());
+        assertEquals(Borrowing.Status.BORROWED, second.getStatus());
+        assertNotNull(second.getDueDate());
+        verify(eventPublisher).publishEvent(any(HoldFulfilledEvent.class));
+    }
+
+    @Test
+    void fulfillHolds_NoHolds_ReturnsZero() {
+        when(borrowingRepository.findNextHoldsForUpdate(eq(1L), any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(0, holdService.fulfillHolds(1L, 1));
+        verifyNoInteractions(eventPublisher);
+    }
+}
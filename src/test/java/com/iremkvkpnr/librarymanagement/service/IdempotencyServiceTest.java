@@ -0,0 +1,204 @@
+package com.iremkvkpnr.librarymanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingResponse;
+import com.iremkvkpnr.librarymanagement.model.entity.IdempotencyRecord;
+import com.iremkvkpnr.librarymanagement.model.exception.BorrowingValidationException;
+import com.iremkvkpnr.librarymanagement.model.exception.IdempotencyConflictException;
+import com.iremkvkpnr.librarymanagement.repository.IdempotencyRecordRepository;
+import com.iremkvkpnr.librarymanagement.repository.IdempotencyRecordRepository.StoredResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyService idempotencyService;
+
+    private ObjectMapper objectMapper;
+
+    private BorrowingResponse response;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, objectMapper,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 60000, 100, 30000, 500);
+        response = new BorrowingResponse(1L, "Test Book", "Test Author", "Test User",
+                LocalDate.now(), LocalDate.now().plusWeeks(2), null);
+    }
+
+    @Test
+    void execute_WithoutKey_RunsActionEveryTime() {
+        AtomicInteger calls = new AtomicInteger();
+
+        idempotencyService.execute(1L, "borrow", null, "bookId=1", BorrowingResponse.class, () -> {
+            calls.incrementAndGet();
+            return response;
+        });
+        idempotencyService.execute(1L, "borrow", null, "bookId=1", BorrowingResponse.class, () -> {
+            calls.incrementAndGet();
+            return response;
+        });
+
+        assertEquals(2, calls.get());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    private static StoredResponse inProgress(String requestHash) {
+        return new StoredResponse(requestHash, "", LocalDateTime.now().plusSeconds(30));
+    }
+
+    private StoredResponse completed(String requestHash) throws Exception {
+        return new StoredResponse(requestHash, objectMapper.writeValueAsString(response), LocalDateTime.now().plusHours(1));
+    }
+
+    // Hands the row written by the claim back to the locking read, as the database would
+    private AtomicReference<IdempotencyRecord> claimRoundTrip(String scopedKey) {
+        AtomicReference<IdempotencyRecord> claimed = new AtomicReference<>();
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            claimed.set(invocation.getArgument(0));
+            return claimed.get();
+        });
+        when(idempotencyRecordRepository.findForUpdate(scopedKey)).thenAnswer(invocation -> Optional.ofNullable(claimed.get()));
+        return claimed;
+    }
+
+    @Test
+    void execute_RetryWithSameKey_ReplaysFromCache() {
+        when(idempotencyRecordRepository.findResponse("1:borrow:key-1")).thenReturn(Optional.empty());
+        AtomicReference<IdempotencyRecord> claimed = claimRoundTrip("1:borrow:key-1");
+        AtomicInteger calls = new AtomicInteger();
+
+        BorrowingResponse first = idempotencyService.execute(1L, "borrow", "key-1", "bookId=1", BorrowingResponse.class, () -> {
+            calls.incrementAndGet();
+            return response;
+        });
+        BorrowingResponse second = idempotencyService.execute(1L, "borrow", "key-1", "bookId=1", BorrowingResponse.class, () -> {
+            calls.incrementAndGet();
+            return response;
+        });
+
+        assertEquals(1, calls.get());
+        assertEquals(first, second);
+        verify(idempotencyRecordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+        verify(idempotencyRecordRepository, times(1)).save(claimed.get());
+        assertFalse(claimed.get().isInProgress());
+    }
+
+    @Test
+    void execute_KeyFoundInTable_ReplaysStoredResponse() throws Exception {
+        when(idempotencyRecordRepository.findResponse("1:borrow:key-2")).thenReturn(Optional.of(completed("bookId=1")));
+
+        BorrowingResponse replayed = idempotencyService.execute(1L, "borrow", "key-2", "bookId=1", BorrowingResponse.class,
+                () -> fail("Action must not run on replay"));
+
+        assertEquals(response, replayed);
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void execute_SameKeyDifferentRequest_Throws() {
+        when(idempotencyRecordRepository.findResponse("1:borrow:key-3")).thenReturn(Optional.empty());
+        claimRoundTrip("1:borrow:key-3");
+        idempotencyService.execute(1L, "borrow", "key-3", "bookId=1", BorrowingResponse.class, () -> response);
+
+        assertThrows(BorrowingValidationException.class, () ->
+                idempotencyService.execute(1L, "borrow", "key-3", "bookId=2", BorrowingResponse.class, () -> response));
+    }
+
+    @Test
+    void execute_BlankKey_Throws() {
+        assertThrows(BorrowingValidationException.class, () ->
+                idempotencyService.execute(1L, "borrow", " ", "bookId=1", BorrowingResponse.class, () -> response));
+    }
+
+    @Test
+    void execute_KeyClaimedConcurrently_WaitsAndReplaysWithoutRunningAction() throws Exception {
+        when(idempotencyRecordRepository.findResponse("1:borrow:key-4"))
+                .thenReturn(Optional.empty(), Optional.of(inProgress("bookId=1")), Optional.of(completed("bookId=1")));
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        BorrowingResponse replayed = idempotencyService.execute(1L, "borrow", "key-4", "bookId=1", BorrowingResponse.class,
+                () -> fail("Action must not run for the losing request"));
+
+        assertEquals(response, replayed);
+        verify(idempotencyRecordRepository, never()).save(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void execute_KeyStillInProgressAfterWaitTimeout_ThrowsConflict() {
+        when(idempotencyRecordRepository.findResponse("1:borrow:key-5")).thenReturn(Optional.of(inProgress("bookId=1")));
+
+        assertThrows(IdempotencyConflictException.class, () ->
+                idempotencyService.execute(1L, "borrow", "key-5", "bookId=1", BorrowingResponse.class, () -> response));
+    }
+
+    @Test
+    void execute_ActionFails_ReleasesClaimForRetry() {
+        when(idempotencyRecordRepository.findResponse("1:borrow:key-6")).thenReturn(Optional.empty());
+        claimRoundTrip("1:borrow:key-6");
+
+        assertThrows(BorrowingValidationException.class, () ->
+                idempotencyService.execute(1L, "borrow", "key-6", "bookId=1", BorrowingResponse.class, () -> {
+                    throw new BorrowingValidationException("Book is not available");
+                }));
+
+        verify(idempotencyRecordRepository).releaseClaim("1:borrow:key-6");
+        verify(idempotencyRecordRepository, never()).save(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void execute_ExpiredClaimWhoseOwnerCompletes_ReplaysInsteadOfRunningAgain() throws Exception {
+        StoredResponse expired = new StoredResponse("bookId=1", "", LocalDateTime.now().minusSeconds(1));
+        when(idempotencyRecordRepository.findResponse("1:borrow:key-7"))
+                .thenReturn(Optional.of(expired), Optional.of(completed("bookId=1")));
+        // The owner still held the row lock, so the takeover deleted nothing
+        when(idempotencyRecordRepository.deleteIfExpired(eq("1:borrow:key-7"), any(LocalDateTime.class))).thenReturn(0);
+
+        BorrowingResponse replayed = idempotencyService.execute(1L, "borrow", "key-7", "bookId=1", BorrowingResponse.class,
+                () -> fail("Action must not run while the owner may still commit"));
+
+        assertEquals(response, replayed);
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void execute_ClaimTakenOverBeforeLock_DoesNotRunAction() {
+        when(idempotencyRecordRepository.findResponse("1:borrow:key-8")).thenReturn(Optional.empty());
+        IdempotencyRecord otherClaim = IdempotencyRecord.builder()
+                .scopedKey("1:borrow:key-8")
+                .requestHash("bookId=1")
+                .responseBody("")
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+        when(idempotencyRecordRepository.findForUpdate("1:borrow:key-8")).thenReturn(Optional.of(otherClaim));
+
+        assertThrows(IdempotencyConflictException.class, () ->
+                idempotencyService.execute(1L, "borrow", "key-8", "bookId=1", BorrowingResponse.class,
+                        () -> fail("Action must not run under another request's claim")));
+
+        verify(idempotencyRecordRepository, never()).releaseClaim(any());
+    }
+}
@@ -2,12 +2,14 @@ package com.iremkvkpnr.librarymanagement.service;
 
 import com.iremkvkpnr.librarymanagement.model.dto.request.UserRequest;
 import com.iremkvkpnr.librarymanagement.model.dto.response.UserResponse;
-import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
 import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.model.event.UserChangedEvent;
 import com.iremkvkpnr.librarymanagement.model.exception.UserPrincipalNotFoundException;
 import com.iremkvkpnr.librarymanagement.model.exception.UserValidationException;
-import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingArchiveRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingViewRepository;
 import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.service.overdue.OverdueTrackingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,9 +17,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.time.LocalDate;
-import java.util.Collections;
-import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
+
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,7 +32,16 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private BorrowingRepository borrowingRepository;
+    private OverdueTrackingService overdueTrackingService;
+
+    @Mock
+    private BorrowingArchiveRepository borrowingArchiveRepository;
+
+    @Mock
+    private BorrowingViewRepository borrowingViewRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private UserService userService;
@@ -104,6 +114,8 @@ class UserServiceTest {
         assertEquals(testUser.getEmail(), response.email());
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).save(any(User.class));
+        verify(borrowingViewRepository).updateUserName(testUser.getId(), testUser.getName());
+        verify(eventPublisher).publishEvent(new UserChangedEvent(1L, "test@example.com"));
     }
 
     @Test
@@ -123,6 +135,8 @@ class UserServiceTest {
         assertDoesNotThrow(() -> userService.deleteUser(1L));
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).delete(testUser);
+        verify(borrowingViewRepository).deleteByUserId(1L);
+        verify(eventPublisher).publishEvent(new UserChangedEvent(1L, "test@example.com"));
     }
 
     @Test
@@ -137,13 +151,13 @@ class UserServiceTest {
     @Test
     void isUserEligible_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(borrowingRepository.findOverdueBooks(any(LocalDate.class))).thenReturn(Collections.emptyList());
+        when(overdueTrackingService.countOverdueByUser(1L)).thenReturn(0L);
 
         boolean result = userService.isUserEligible(1L);
 
         assertTrue(result);
         verify(userRepository, times(1)).findById(1L);
-        verify(borrowingRepository, times(1)).findOverdueBooks(any(LocalDate.class));
+        verify(overdueTrackingService, times(1)).countOverdueByUser(1L);
     }
 
     @Test
@@ -152,20 +166,17 @@ class UserServiceTest {
 
         assertThrows(UserPrincipalNotFoundException.class, () -> userService.isUserEligible(1L));
         verify(userRepository, times(1)).findById(1L);
-        verify(borrowingRepository, never()).findOverdueBooks(any(LocalDate.class));
+        verify(overdueTrackingService, never()).countOverdueByUser(any());
     }
 
     @Test
     void isUserEligible_HasOverdueBooks() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        
-        Borrowing overdueBorrowing = new Borrowing();
-        overdueBorrowing.setUser(testUser);
-        when(borrowingRepository.findOverdueBooks(any(LocalDate.class))).thenReturn(List.of(overdueBorrowing));
+        when(overdueTrackingService.countOverdueByUser(1L)).thenReturn(1L);
 
         assertThrows(UserValidationException.class, () -> userService.isUserEligible(1L));
         verify(userRepository, times(1)).findById(1L);
-        verify(borrowingRepository, times(1)).findOverdueBooks(any(LocalDate.class));
+        verify(overdueTrackingService, times(1)).countOverdueByUser(1L);
     }
 
     @Test
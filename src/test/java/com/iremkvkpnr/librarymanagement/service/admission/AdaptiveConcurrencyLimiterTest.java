@@ -0,0 +1,109 @@
+package com.iremkvkpnr.librarymanagement.service.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(1000);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(true, 100, 1000, initialLimit, 2, 20, 0.5, 0.8, 0.5,
+                Map.of("/api/borrowings", "critical", "/api/books/search", "LOW"),
+                List.of("/api/holds/notifications"), meterRegistry);
+    }
+
+    @Test
+    void tryAcquire_LowPriorityIsShedBeforeCritical() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+
+        assertTrue(limiter.tryAcquire(RequestPriority.LOW));
+        assertTrue(limiter.tryAcquire(RequestPriority.LOW));
+        assertFalse(limiter.tryAcquire(RequestPriority.LOW));
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.CRITICAL));
+
+        assertEquals(4, limiter.getInFlight());
+        assertEquals(1.0, meterRegistry.get("library.admission.rejected").tag("priority", "low").counter().count());
+    }
+
+    @Test
+    void maybeAdjust_LatencyAboveSlo_CutsLimitDownToMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        long now = System.nanoTime();
+
+        limiter.tryAcquire(RequestPriority.CRITICAL);
+        limiter.release(RequestPriority.CRITICAL, TimeUnit.MILLISECONDS.toNanos(300));
+        limiter.maybeAdjust(now + WINDOW_NANOS);
+        assertEquals(5, limiter.getLimit());
+
+        for (int i = 1; i <= 3; i++) {
+            limiter.tryAcquire(RequestPriority.CRITICAL);
+            limiter.release(RequestPriority.CRITICAL, TimeUnit.MILLISECONDS.toNanos(300));
+            limiter.maybeAdjust(now + (i + 1) * WINDOW_NANOS);
+        }
+        assertEquals(2, limiter.getLimit());
+        assertEquals(2.0, meterRegistry.get("library.admission.limit").gauge().value());
+    }
+
+    @Test
+    void maybeAdjust_LatencyWithinSloUnderLoad_GrowsLimitByOne() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+        long now = System.nanoTime();
+
+        limiter.tryAcquire(RequestPriority.CRITICAL);
+        limiter.tryAcquire(RequestPriority.CRITICAL);
+        limiter.release(RequestPriority.CRITICAL, TimeUnit.MILLISECONDS.toNanos(10));
+        limiter.release(RequestPriority.CRITICAL, TimeUnit.MILLISECONDS.toNanos(10));
+        limiter.maybeAdjust(now + WINDOW_NANOS);
+
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void maybeAdjust_IdleWithinSlo_KeepsLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        limiter.tryAcquire(RequestPriority.CRITICAL);
+        limiter.release(RequestPriority.CRITICAL, TimeUnit.MILLISECONDS.toNanos(10));
+        limiter.maybeAdjust(System.nanoTime() + WINDOW_NANOS);
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void maybeAdjust_SlowLowPrioritySample_DoesNotCutLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        limiter.tryAcquire(RequestPriority.LOW);
+        limiter.tryAcquire(RequestPriority.CRITICAL);
+        limiter.release(RequestPriority.LOW, TimeUnit.SECONDS.toNanos(30));
+        limiter.release(RequestPriority.CRITICAL, TimeUnit.MILLISECONDS.toNanos(10));
+        limiter.maybeAdjust(System.nanoTime() + WINDOW_NANOS);
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void priorityOf_MatchesConfiguredPatternsAndExemptions() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        assertEquals(Optional.of(RequestPriority.CRITICAL), limiter.priorityOf("/api/borrowings"));
+        assertEquals(Optional.of(RequestPriority.LOW), limiter.priorityOf("/api/books/search"));
+        assertEquals(Optional.of(RequestPriority.NORMAL), limiter.priorityOf("/api/books/1"));
+        assertTrue(limiter.priorityOf("/api/holds/notifications").isEmpty());
+    }
+}
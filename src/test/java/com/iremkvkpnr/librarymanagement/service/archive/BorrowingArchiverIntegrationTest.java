@@ -0,0 +1,142 @@
+package com.iremkvkpnr.librarymanagement.service.archive;
+
+import com.iremkvkpnr.librarymanagement.model.dto.request.BorrowingHistoryFilter;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryPage;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryRow;
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingViewRepository;
+import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.service.BorrowingService;
+import com.iremkvkpnr.librarymanagement.service.UserService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BorrowingArchiverIntegrationTest {
+
+    @Autowired
+    private BorrowingArchiver borrowingArchiver;
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowingViewRepository borrowingViewRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User librarian;
+    private User patron;
+    private Borrowing active;
+    private Borrowing recentlyReturned;
+    private Borrowing longReturned;
+
+    @BeforeEach
+    void setUp() {
+        borrowingRepository.deleteAll();
+        userRepository.deleteAll();
+        bookRepository.deleteAll();
+
+        librarian = userRepository.save(User.builder()
+                .name("Librarian").email("librarian@test.com").password("password")
+                .phone("1234567890").role(User.Role.LIBRARIAN).build());
+        patron = userRepository.save(User.builder()
+                .name("Patron").email("patron@test.com").password("password")
+                .phone("1234567890").role(User.Role.PATRON).build());
+
+        Book book = new Book();
+        book.setTitle("Archived Book");
+        book.setAuthor("Test Author");
+        book.setIsbn("1234567890");
+        book.setGenre(Book.Genre.FICTION);
+        book.setTotalCopies(3);
+        book.setAvailableCopies(2);
+        book = bookRepository.save(book);
+
+        LocalDate today = LocalDate.now();
+        active = borrowingRepository.save(Borrowing.builder()
+                .user(patron).book(book).borrowDate(today).dueDate(today.plusWeeks(2))
+                .status(Borrowing.Status.BORROWED).build());
+        recentlyReturned = borrowingRepository.save(Borrowing.builder()
+                .user(patron).book(book).borrowDate(today.minusDays(20)).dueDate(today.minusDays(6))
+                .returnDate(today.minusDays(10)).status(Borrowing.Status.RETURNED).build());
+        longReturned = borrowingRepository.save(Borrowing.builder()
+                .user(patron).book(book).borrowDate(today.minusDays(100)).dueDate(today.minusDays(86))
+                .returnDate(today.minusDays(90)).status(Borrowing.Status.RETURNED).build());
+        entityManager.flush();
+        entityManager.clear();
+        borrowingViewRepository.rebuild();
+    }
+
+    @Test
+    void archiveReturnedLoans_MovesOnlyOldReturnedLoans() {
+        assertEquals(1, borrowingArchiver.archiveReturnedLoans());
+
+        assertTrue(borrowingRepository.existsById(active.getId()));
+        assertTrue(borrowingRepository.existsById(recentlyReturned.getId()));
+        assertFalse(borrowingRepository.existsById(longReturned.getId()));
+        assertEquals(1, countArchived());
+        assertEquals(0, borrowingArchiver.archiveReturnedLoans());
+    }
+
+    @Test
+    void history_IncludesArchivedLoans() {
+        borrowingArchiver.archiveReturnedLoans();
+
+        List<Long> userHistory = borrowingService.getUserBorrowingHistory(patron.getId()).stream()
+                .map(BorrowingHistoryRow::id)
+                .toList();
+        BorrowingHistoryPage page = borrowingService.getAllBorrowingHistory(
+                librarian.getId(), new BorrowingHistoryFilter(patron.getId(), null, null, null), null, 50);
+
+        assertEquals(List.of(longReturned.getId(), recentlyReturned.getId(), active.getId()).stream().sorted().toList(),
+                userHistory.stream().sorted().toList());
+        assertEquals(3, page.items().size());
+    }
+
+    @Test
+    void deleteUser_RemovesArchivedLoans() {
+        borrowingArchiver.archiveReturnedLoans();
+
+        userService.deleteUser(patron.getId());
+
+        assertEquals(0, countArchived());
+    }
+
+    private int countArchived() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM borrowings_archive", Integer.class);
+    }
+}
@@ -0,0 +1,140 @@
+package com.iremkvkpnr.librarymanagement.service.batch;
+
+import com.iremkvkpnr.librarymanagement.model.entity.JobCheckpoint;
+import com.iremkvkpnr.librarymanagement.repository.JobCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedJobRunnerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 1);
+
+    @Mock
+    private JobCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ChunkedJobRunner runner;
+    private final Map<String, JobCheckpoint> checkpoints = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(checkpointRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(checkpoints.get(invocation.<String>getArgument(0))));
+        when(checkpointRepository.save(any(JobCheckpoint.class))).thenAnswer(invocation -> {
+            JobCheckpoint checkpoint = invocation.getArgument(0);
+            checkpoints.put(checkpoint.getJobName(), checkpoint);
+            return checkpoint;
+        });
+        runner = new ChunkedJobRunner(checkpointRepository, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void run_ProcessesAllItemsInChunks() {
+        TestJob job = new TestJob(7, -1);
+
+        JobCheckpoint checkpoint = runner.run(job, TODAY, 3, 2);
+
+        assertEquals(JobCheckpoint.Status.COMPLETED, checkpoint.getStatus());
+        assertEquals(7, checkpoint.getItemsProcessed());
+        assertEquals(7, checkpoint.getLastKey());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), job.written.stream().sorted().toList());
+        assertEquals(1, job.beforeRuns);
+        assertEquals(1, job.afterRuns);
+    }
+
+    @Test
+    void run_AfterFailure_ResumesFromCheckpoint() {
+        TestJob job = new TestJob(5, 3);
+
+        assertThrows(IllegalStateException.class, () -> runner.run(job, TODAY, 2, 1));
+        assertEquals(2, checkpoints.get("test").getLastKey());
+        assertEquals(JobCheckpoint.Status.RUNNING, checkpoints.get("test").getStatus());
+
+        job.failOn = -1;
+        JobCheckpoint checkpoint = runner.run(job, TODAY, 2, 1);
+
+        assertEquals(JobCheckpoint.Status.COMPLETED, checkpoint.getStatus());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), job.written);
+        assertEquals(1, job.beforeRuns);
+    }
+
+    @Test
+    void run_CompletedForSameDay_IsNotRepeated() {
+        TestJob job = new TestJob(2, -1);
+        runner.run(job, TODAY, 10, 1);
+
+        runner.run(job, TODAY, 10, 1);
+        assertEquals(2, job.written.size());
+
+        runner.run(job, TODAY.plusDays(1), 10, 1);
+        assertEquals(4, job.written.size());
+    }
+
+    private static final class TestJob implements ChunkedJob<Long> {
+
+        private final long size;
+        private volatile long failOn;
+        private final List<Long> written = new CopyOnWriteArrayList<>();
+        private int beforeRuns;
+        private int afterRuns;
+
+        private TestJob(long size, long failOn) {
+            this.size = size;
+            this.failOn = failOn;
+        }
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public void beforeRun(LocalDate runDate) {
+            beforeRuns++;
+        }
+
+        @Override
+        public List<Long> read(long afterKey, int limit, LocalDate runDate) {
+            return LongStream.rangeClosed(afterKey + 1, size).limit(limit).boxed().toList();
+        }
+
+        @Override
+        public long keyOf(Long item) {
+            return item;
+        }
+
+        @Override
+        public void write(List<Long> chunk, LocalDate runDate) {
+            if (chunk.contains(failOn)) {
+                throw new IllegalStateException("chunk failed");
+            }
+            written.addAll(chunk);
+        }
+
+        @Override
+        public void afterRun(LocalDate runDate) {
+            afterRuns++;
+        }
+    }
+}
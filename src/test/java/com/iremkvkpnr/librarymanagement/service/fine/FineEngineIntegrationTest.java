@@ -0,0 +1,128 @@
+package com.iremkvkpnr.librarymanagement.service.fine;
+
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+import com.iremkvkpnr.librarymanagement.model.entity.FineRun;
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.FineRunRepository;
+import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction: chunks are written by worker threads in their own transactions.
+ */
+@SpringBootTest(properties = {
+        "application.fines.rates={FICTION:'0.25'}",
+        "application.fines.default-rate=0.50",
+        "application.fines.max-per-loan=0",
+        "application.fines.chunk-size=2"
+})
+@ActiveProfiles("test")
+class FineEngineIntegrationTest {
+
+    @Autowired
+    private FineEngine fineEngine;
+
+    @Autowired
+    private FineRunRepository fineRunRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User patron;
+    private Book fiction;
+    private Book science;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        patron = userRepository.save(User.builder()
+                .name("Patron").email("fines-patron@test.com").password("password")
+                .phone("1234567890").role(User.Role.PATRON).build());
+        fiction = bookRepository.save(book("Fiction Book", "111", Book.Genre.FICTION));
+        science = bookRepository.save(book("Science Book", "222", Book.Genre.SCIENCE));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM loan_fines");
+        fineRunRepository.deleteAll();
+        borrowingRepository.deleteAll();
+        userRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void run_FullThenIncremental() {
+        LocalDate today = LocalDate.now();
+        Borrowing returnedLate = loan(fiction, today.minusDays(10), today.minusDays(6));
+        Borrowing open = loan(science, today.minusDays(3), null);
+        loan(fiction, today.minusDays(5), today.minusDays(5));
+        loan(science, today.plusDays(5), null);
+
+        FineRun first = fineEngine.run(false).orElseThrow();
+
+        assertEquals(FineRun.Mode.FULL, first.getMode());
+        assertEquals(2, first.getLoansProcessed());
+        assertEquals(Map.of(returnedLate.getId(), new BigDecimal("1.00"), open.getId(), new BigDecimal("1.50")), fines());
+
+        open.setReturnDate(today);
+        borrowingRepository.save(open);
+
+        FineRun second = fineEngine.run(false).orElseThrow();
+
+        assertEquals(FineRun.Mode.INCREMENTAL, second.getMode());
+        assertEquals(1, second.getLoansProcessed());
+        assertEquals(Map.of(returnedLate.getId(), new BigDecimal("1.00"), open.getId(), new BigDecimal("1.50")), fines());
+    }
+
+    private Map<Long, BigDecimal> fines() {
+        Map<Long, BigDecimal> fines = new HashMap<>();
+        jdbcTemplate.query("SELECT borrowing_id, amount FROM loan_fines",
+                rs -> {
+                    fines.put(rs.getLong("borrowing_id"), rs.getBigDecimal("amount"));
+                });
+        return fines;
+    }
+
+    private Borrowing loan(Book book, LocalDate dueDate, LocalDate returnDate) {
+        return borrowingRepository.save(Borrowing.builder()
+                .user(patron).book(book).borrowDate(dueDate.minusWeeks(2)).dueDate(dueDate).returnDate(returnDate)
+                .status(returnDate == null ? Borrowing.Status.BORROWED : Borrowing.Status.RETURNED).build());
+    }
+
+    private Book book(String title, String isbn, Book.Genre genre) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Test Author");
+        book.setIsbn(isbn);
+        book.setGenre(genre);
+        book.setTotalCopies(1);
+        book.setAvailableCopies(1);
+        return book;
+    }
+}
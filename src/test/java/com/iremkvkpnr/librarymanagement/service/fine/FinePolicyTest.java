@@ -0,0 +1,55 @@
+package com.iremkvkpnr.librarymanagement.service.fine;
+
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.LoanFine;
+import com.iremkvkpnr.librarymanagement.repository.FineRepository.FineCandidate;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FinePolicyTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    private final FinePolicy policy = new FinePolicy(Map.of("fiction", "0.25"), new BigDecimal("0.50"), new BigDecimal("5.00"));
+
+    @Test
+    void calculate_UsesGenreRateUntilReturn() {
+        LoanFine fine = policy.calculate(candidate(Book.Genre.FICTION, TODAY.minusDays(10), TODAY.minusDays(6)), TODAY, LocalDateTime.now());
+
+        assertEquals(4, fine.getDaysLate());
+        assertEquals(new BigDecimal("1.00"), fine.getAmount());
+    }
+
+    @Test
+    void calculate_OpenLoanUsesDefaultRateUntilTodayAndCap() {
+        LoanFine fine = policy.calculate(candidate(Book.Genre.SCIENCE, TODAY.minusDays(3), null), TODAY, LocalDateTime.now());
+        LoanFine capped = policy.calculate(candidate(Book.Genre.SCIENCE, TODAY.minusDays(30), null), TODAY, LocalDateTime.now());
+
+        assertEquals(new BigDecimal("1.50"), fine.getAmount());
+        assertEquals(30, capped.getDaysLate());
+        assertEquals(new BigDecimal("5.00"), capped.getAmount());
+    }
+
+    @Test
+    void calculate_ReturnedOnTime_ReturnsNull() {
+        assertNull(policy.calculate(candidate(Book.Genre.FICTION, TODAY.minusDays(2), TODAY.minusDays(2)), TODAY, LocalDateTime.now()));
+    }
+
+    @Test
+    void fingerprint_ChangesWithRates() {
+        FinePolicy other = new FinePolicy(Map.of("FICTION", "0.30"), new BigDecimal("0.50"), new BigDecimal("5.00"));
+
+        assertEquals(policy.fingerprint(), new FinePolicy(Map.of("FICTION", "0.250"), new BigDecimal("0.5"), new BigDecimal("5")).fingerprint());
+        assertNotEquals(policy.fingerprint(), other.fingerprint());
+    }
+
+    private FineCandidate candidate(Book.Genre genre, LocalDate dueDate, LocalDate returnDate) {
+        return new FineCandidate(1L, 2L, 3L, genre, dueDate, returnDate);
+    }
+}
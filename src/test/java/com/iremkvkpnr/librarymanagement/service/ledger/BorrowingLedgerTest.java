@@ -0,0 +1,69 @@
+package com.iremkvkpnr.librarymanagement.service.ledger;
+
+import com.iremkvkpnr.librarymanagement.model.event.BookBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BookInventoryChangedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BookReturnedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BorrowingLedgerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rebuildState_FoldsInventoryAndCounters() throws IOException {
+        BorrowingLedger ledger = new BorrowingLedger(true, directory.toString(), 4096, 50);
+        LocalDate today = LocalDate.now();
+        ledger.onInventoryChanged(new BookInventoryChangedEvent(10L, 3, 3));
+        ledger.onBookBorrowed(new BookBorrowedEvent(1L, 100L, 10L, today, today.plusWeeks(2)));
+        ledger.onBookBorrowed(new BookBorrowedEvent(2L, 100L, 10L, today, today.plusWeeks(2)));
+        ledger.onBookBorrowed(new BookBorrowedEvent(3L, 200L, 10L, today, today.plusWeeks(2)));
+        ledger.onBookReturned(new BookReturnedEvent(1L, 100L, 10L, today));
+        ledger.close();
+
+        BorrowingLedger reopened = new BorrowingLedger(true, directory.toString(), 4096, 50);
+        LedgerState state = reopened.rebuildState();
+        reopened.close();
+
+        assertEquals(5, state.getEventCount());
+        assertEquals(Map.of(10L, 1), state.getAvailableCopies());
+        assertEquals(Map.of(100L, 1, 200L, 1), state.getActiveLoansByUser());
+        assertEquals(Set.of(2L, 3L), state.getOpenBorrowings());
+    }
+
+    @Test
+    void replay_DecodesEntries() throws IOException {
+        BorrowingLedger ledger = new BorrowingLedger(true, directory.toString(), 4096, 50);
+        ledger.onBookReturned(new BookReturnedEvent(7L, 8L, 9L, LocalDate.now()));
+        List<LedgerEvent> events = new ArrayList<>();
+
+        assertEquals(1, ledger.replay(events::add));
+        ledger.close();
+
+        LedgerEvent event = events.get(0);
+        assertEquals(LedgerEvent.Type.RETURNED, event.type());
+        assertEquals(7L, event.borrowingId());
+        assertEquals(8L, event.userId());
+        assertEquals(9L, event.bookId());
+    }
+
+    @Test
+    void disabled_IgnoresEvents() throws IOException {
+        BorrowingLedger ledger = new BorrowingLedger(false, directory.toString(), 4096, 50);
+        ledger.onInventoryChanged(new BookInventoryChangedEvent(1L, 1, 1));
+
+        assertFalse(ledger.isEnabled());
+        assertEquals(0, ledger.rebuildState().getEventCount());
+    }
+}
@@ -0,0 +1,49 @@
+package com.iremkvkpnr.librarymanagement.service.ledger;
+
+import com.iremkvkpnr.librarymanagement.model.event.BookBorrowedEvent;
+import com.iremkvkpnr.librarymanagement.model.event.BookReturnedEvent;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LedgerStartupCheckTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void verify_ReportsBorrowingsOpenOnlyInLedger() throws IOException {
+        BorrowingLedger ledger = new BorrowingLedger(true, directory.toString(), 4096, 50);
+        LocalDate today = LocalDate.now();
+        ledger.onBookBorrowed(new BookBorrowedEvent(1L, 100L, 10L, today, today.plusWeeks(2)));
+        ledger.onBookBorrowed(new BookBorrowedEvent(2L, 100L, 11L, today, today.plusWeeks(2)));
+        ledger.onBookBorrowed(new BookBorrowedEvent(3L, 200L, 10L, today, today.plusWeeks(2)));
+        ledger.onBookReturned(new BookReturnedEvent(3L, 200L, 10L, today));
+        BorrowingRepository borrowingRepository = mock(BorrowingRepository.class);
+        when(borrowingRepository.findOpenIdsIn(any())).thenReturn(List.of(1L));
+
+        Set<Long> diverged = new LedgerStartupCheck(ledger, borrowingRepository).verify();
+        ledger.close();
+
+        assertEquals(Set.of(2L), diverged);
+    }
+
+    @Test
+    void verify_LedgerDisabled_SkipsDatabase() throws IOException {
+        BorrowingLedger ledger = new BorrowingLedger(false, directory.toString(), 4096, 50);
+        BorrowingRepository borrowingRepository = mock(BorrowingRepository.class);
+
+        assertTrue(new LedgerStartupCheck(ledger, borrowingRepository).verify().isEmpty());
+        verifyNoInteractions(borrowingRepository);
+    }
+}
@@ -0,0 +1,112 @@
+package com.iremkvkpnr.librarymanagement.service.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replay_ReturnsRecordsInAppendOrder() throws IOException {
+        try (SegmentedLog log = new SegmentedLog(directory, 1024)) {
+            log.append(bytes("first"));
+            log.append(bytes("second"));
+
+            assertEquals(List.of("first", "second"), replay(log));
+        }
+    }
+
+    @Test
+    void append_RollsOverToNewSegments() throws IOException {
+        try (SegmentedLog log = new SegmentedLog(directory, 64)) {
+            for (int i = 0; i < 10; i++) {
+                log.append(bytes("record-" + i));
+            }
+
+            assertTrue(segmentCount() > 1);
+            assertEquals(10, replay(log).size());
+            assertEquals("record-9", replay(log).get(9));
+        }
+    }
+
+    @Test
+    void reopen_ContinuesAfterLastRecord() throws IOException {
+        try (SegmentedLog log = new SegmentedLog(directory, 64)) {
+            log.append(bytes("a"));
+            log.append(bytes("b"));
+            log.append(bytes("c"));
+            log.force();
+        }
+        try (SegmentedLog log = new SegmentedLog(directory, 64)) {
+            log.append(bytes("d"));
+
+            assertEquals(List.of("a", "b", "c", "d"), replay(log));
+        }
+    }
+
+    @Test
+    void reopen_DropsTornTail() throws IOException {
+        try (SegmentedLog log = new SegmentedLog(directory, 1024)) {
+            log.append(bytes("kept"));
+            log.append(bytes("damaged"));
+            log.append(bytes("after"));
+        }
+        // Corrupt one payload byte of the second record: header(8) + "kept"(4) + header(8)
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(20);
+            file.write('X');
+        }
+
+        try (SegmentedLog log = new SegmentedLog(directory, 1024)) {
+            assertEquals(List.of("kept"), replay(log));
+            log.append(bytes("new"));
+
+            assertEquals(List.of("kept", "new"), replay(log));
+        }
+    }
+
+    @Test
+    void append_RejectsRecordLargerThanSegment() throws IOException {
+        try (SegmentedLog log = new SegmentedLog(directory, 32)) {
+            assertThrows(IllegalArgumentException.class, () -> log.append(ByteBuffer.allocate(64)));
+        }
+    }
+
+    private static ByteBuffer bytes(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> replay(SegmentedLog log) {
+        List<String> records = new ArrayList<>();
+        log.replay(payload -> {
+            byte[] data = new byte[payload.remaining()];
+            payload.get(data);
+            records.add(new String(data, StandardCharsets.UTF_8));
+        });
+        return records;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
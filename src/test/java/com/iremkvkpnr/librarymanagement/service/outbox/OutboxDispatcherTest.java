@@ -0,0 +1,113 @@
+package com.iremkvkpnr.librarymanagement.service.outbox;
+
+import com.iremkvkpnr.librarymanagement.model.entity.OutboxMessage;
+import com.iremkvkpnr.librarymanagement.repository.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<OutboxMessage> delivered;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        delivered = new ArrayList<>();
+    }
+
+    @Test
+    void drain_DeliversAndDeletesUntilBatchIsShort() {
+        when(outboxRepository.lockNextBatch(2))
+                .thenReturn(List.of(message(1L), message(2L)))
+                .thenReturn(List.of(message(3L)));
+        OutboxDispatcher dispatcher = dispatcher(delivered::addAll);
+
+        assertEquals(3, dispatcher.drain());
+
+        assertEquals(List.of(1L, 2L, 3L), delivered.stream().map(OutboxMessage::getId).toList());
+        verify(outboxRepository).deleteAll(List.of(1L, 2L));
+        verify(outboxRepository).deleteAll(List.of(3L));
+        assertEquals(3.0, meterRegistry.get("library.outbox.dispatched").counter().count());
+        assertEquals(3, meterRegistry.get("library.outbox.delivery.lag").timer().count());
+        assertEquals(2, meterRegistry.get("library.outbox.batch").timer().count());
+    }
+
+    @Test
+    void drain_Backlog_ReportsAgeOfOldestMessage() {
+        when(outboxRepository.lockNextBatch(2))
+                .thenReturn(List.of(message(1L, 60), message(2L, 60)))
+                .thenReturn(List.of(message(3L, 1)));
+        OutboxDispatcher dispatcher = dispatcher(delivered::addAll);
+
+        dispatcher.drain();
+
+        assertTrue(meterRegistry.get("library.outbox.oldest.age").gauge().value() >= 60_000);
+    }
+
+    @Test
+    void drain_EmptyOutbox_ResetsOldestAge() {
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of());
+        OutboxDispatcher dispatcher = dispatcher(delivered::addAll);
+
+        assertEquals(0, dispatcher.drain());
+
+        assertEquals(0.0, meterRegistry.get("library.outbox.oldest.age").gauge().value());
+        verify(outboxRepository, never()).deleteAll(any());
+    }
+
+    @Test
+    void drain_ConsumerFails_KeepsBatchAndRollsBack() {
+        when(outboxRepository.lockNextBatch(anyInt())).thenReturn(List.of(message(1L)));
+        OutboxDispatcher dispatcher = dispatcher(batch -> {
+            throw new IllegalStateException("sink down");
+        });
+
+        assertThrows(IllegalStateException.class, dispatcher::drain);
+
+        verify(outboxRepository, never()).deleteAll(any());
+        verify(transactionManager).rollback(any());
+        assertEquals(0.0, meterRegistry.get("library.outbox.dispatched").counter().count());
+    }
+
+    private OutboxDispatcher dispatcher(OutboxConsumer consumer) {
+        return new OutboxDispatcher(outboxRepository, List.of(consumer), new TransactionTemplate(transactionManager),
+                meterRegistry, true, 2);
+    }
+
+    private OutboxMessage message(Long id) {
+        return message(id, 1);
+    }
+
+    private OutboxMessage message(Long id, long ageSeconds) {
+        return OutboxMessage.builder()
+                .id(id)
+                .eventType(OutboxWriter.BOOK_BORROWED)
+                .aggregateId(id)
+                .payload("{}")
+                .createdAt(LocalDateTime.now().minusSeconds(ageSeconds))
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.iremkvkpnr.librarymanagement.service.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingResponse;
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.OutboxMessage;
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.OutboxRepository;
+import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.service.BorrowingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction so the outbox rows are actually committed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxIntegrationTest {
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User patron;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        patron = userRepository.save(User.builder()
+                .name("Patron").email("outbox-patron@test.com").password("password")
+                .phone("1234567890").role(User.Role.PATRON).build());
+        Book newBook = new Book();
+        newBook.setTitle("Outbox Book");
+        newBook.setAuthor("Test Author");
+        newBook.setIsbn("1234567890");
+        newBook.setGenre(Book.Genre.FICTION);
+        newBook.setTotalCopies(1);
+        newBook.setAvailableCopies(1);
+        book = bookRepository.save(newBook);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("DELETE FROM borrowing_view");
+        borrowingRepository.deleteAll();
+        userRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void borrowAndReturn_AreDispatchedInOrder() throws Exception {
+        BorrowingResponse borrowing = borrowingService.borrowBook(patron.getId(), book.getId());
+        borrowingService.returnBook(patron.getId(), borrowing.id());
+        assertEquals(2, countOutbox());
+
+        List<OutboxMessage> delivered = new ArrayList<>();
+        OutboxDispatcher dispatcher = new OutboxDispatcher(outboxRepository, List.of(delivered::addAll),
+                transactionTemplate, new SimpleMeterRegistry(), true, 500);
+
+        assertEquals(2, dispatcher.drain());
+
+        assertEquals(List.of(OutboxWriter.BOOK_BORROWED, OutboxWriter.BOOK_RETURNED),
+                delivered.stream().map(OutboxMessage::getEventType).toList());
+        JsonNode payload = objectMapper.readTree(delivered.get(0).getPayload());
+        assertEquals(borrowing.id().longValue(), payload.get("borrowingId").asLong());
+        assertEquals(book.getId().longValue(), payload.get("bookId").asLong());
+        assertEquals(0, countOutbox());
+    }
+
+    @Test
+    void rolledBackBorrow_WritesNothing() {
+        transactionTemplate.executeWithoutResult(status -> {
+            borrowingService.borrowBook(patron.getId(), book.getId());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, countOutbox());
+    }
+
+    private int countOutbox() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class);
+    }
+}
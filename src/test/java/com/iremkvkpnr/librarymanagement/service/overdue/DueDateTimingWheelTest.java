@@ -0,0 +1,73 @@
+package com.iremkvkpnr.librarymanagement.service.overdue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DueDateTimingWheelTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 1);
+
+    private DueDateTimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new DueDateTimingWheel(TODAY);
+    }
+
+    @Test
+    void schedule_PastDeadlineIsRejected() {
+        assertFalse(wheel.schedule(1L, TODAY));
+        assertFalse(wheel.schedule(2L, TODAY.minusDays(3)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_ExpiresEntriesOnTheirDeadline() {
+        wheel.schedule(1L, TODAY.plusDays(1));
+        wheel.schedule(2L, TODAY.plusDays(14));
+
+        assertEquals(List.of(1L), wheel.advanceTo(TODAY.plusDays(13)));
+        assertTrue(wheel.contains(2L));
+        assertEquals(List.of(2L), wheel.advanceTo(TODAY.plusDays(14)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_CascadesFarDeadlines() {
+        wheel.schedule(1L, TODAY.plusDays(100));
+        wheel.schedule(2L, TODAY.plusDays(4095));
+        wheel.schedule(3L, TODAY.plusDays(5000));
+
+        assertTrue(wheel.advanceTo(TODAY.plusDays(99)).isEmpty());
+        assertEquals(List.of(1L), wheel.advanceTo(TODAY.plusDays(100)));
+        assertTrue(wheel.advanceTo(TODAY.plusDays(4094)).isEmpty());
+        assertEquals(List.of(2L), wheel.advanceTo(TODAY.plusDays(4095)));
+        assertTrue(wheel.advanceTo(TODAY.plusDays(4999)).isEmpty());
+        assertEquals(List.of(3L), wheel.advanceTo(TODAY.plusDays(5000)));
+    }
+
+    @Test
+    void cancel_RemovesEntry() {
+        wheel.schedule(1L, TODAY.plusDays(5));
+        wheel.schedule(2L, TODAY.plusDays(500));
+
+        assertTrue(wheel.cancel(1L));
+        assertTrue(wheel.cancel(2L));
+        assertFalse(wheel.cancel(3L));
+        assertTrue(wheel.advanceTo(TODAY.plusDays(600)).isEmpty());
+    }
+
+    @Test
+    void schedule_ReplacesPreviousDeadline() {
+        wheel.schedule(1L, TODAY.plusDays(5));
+        wheel.schedule(1L, TODAY.plusDays(10));
+
+        assertTrue(wheel.advanceTo(TODAY.plusDays(9)).isEmpty());
+        assertEquals(List.of(1L), wheel.advanceTo(TODAY.plusDays(10)));
+    }
+}
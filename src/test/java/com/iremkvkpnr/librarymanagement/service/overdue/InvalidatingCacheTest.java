@@ -0,0 +1,86 @@
+package com.iremkvkpnr.librarymanagement.service.overdue;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidatingCacheTest {
+
+    private static final Instant NOON = Instant.parse("2024-01-01T12:00:00Z");
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_ServesCachedValueUntilInvalidated() {
+        InvalidatingCache<Integer> cache = new InvalidatingCache<>(60_000, Clock.fixed(NOON, ZoneOffset.UTC));
+
+        assertEquals(1, cache.get(loads::incrementAndGet));
+        assertEquals(1, cache.get(loads::incrementAndGet));
+
+        cache.invalidate();
+
+        assertEquals(2, cache.get(loads::incrementAndGet));
+    }
+
+    @Test
+    void get_LoadRacingWithInvalidation_IsNotServedAgain() {
+        InvalidatingCache<Integer> cache = new InvalidatingCache<>(60_000, Clock.fixed(NOON, ZoneOffset.UTC));
+
+        // The invalidation lands while the value is being loaded, so the loaded value may already be stale
+        assertEquals(1, cache.get(() -> {
+            cache.invalidate();
+            return loads.incrementAndGet();
+        }));
+
+        assertEquals(2, cache.get(loads::incrementAndGet));
+        assertEquals(2, cache.get(loads::incrementAndGet));
+    }
+
+    @Test
+    void get_ExpiresAfterTtlAndAtDayChange() {
+        MutableClock clock = new MutableClock(NOON);
+        InvalidatingCache<Integer> cache = new InvalidatingCache<>(60_000, clock);
+        cache.get(loads::incrementAndGet);
+
+        clock.advance(Duration.ofSeconds(61));
+        assertEquals(2, cache.get(loads::incrementAndGet));
+
+        clock.advance(Duration.ofHours(12));
+        assertEquals(3, cache.get(loads::incrementAndGet));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
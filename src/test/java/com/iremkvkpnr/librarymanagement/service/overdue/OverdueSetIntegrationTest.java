@@ -0,0 +1,127 @@
+package com.iremkvkpnr.librarymanagement.service.overdue;
+
+import com.iremkvkpnr.librarymanagement.model.dto.response.BookResponse;
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.OverdueLoanRepository;
+import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.service.BorrowingService;
+import com.iremkvkpnr.librarymanagement.service.report.OverdueReportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class OverdueSetIntegrationTest {
+
+    @Autowired
+    private OverdueConsistencyChecker consistencyChecker;
+
+    @Autowired
+    private OverdueSetService overdueSetService;
+
+    @Autowired
+    private OverdueLoanRepository overdueLoanRepository;
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User patron;
+    private Book book;
+    private Borrowing overdue;
+    private Borrowing current;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM overdue_loans");
+        borrowingRepository.deleteAll();
+        userRepository.deleteAll();
+        bookRepository.deleteAll();
+
+        patron = userRepository.save(User.builder()
+                .name("Patron").email("patron@test.com").password("password")
+                .phone("1234567890").role(User.Role.PATRON).build());
+        Book newBook = new Book();
+        newBook.setTitle("Late Book");
+        newBook.setAuthor("Test Author");
+        newBook.setIsbn("1234567890");
+        newBook.setGenre(Book.Genre.FICTION);
+        newBook.setTotalCopies(3);
+        newBook.setAvailableCopies(1);
+        book = bookRepository.save(newBook);
+
+        LocalDate today = LocalDate.now();
+        overdue = borrowingRepository.save(Borrowing.builder()
+                .user(patron).book(book).borrowDate(today.minusDays(20)).dueDate(today.minusDays(6))
+                .status(Borrowing.Status.OVERDUE).build());
+        current = borrowingRepository.save(Borrowing.builder()
+                .user(patron).book(book).borrowDate(today).dueDate(today.plusWeeks(2))
+                .status(Borrowing.Status.BORROWED).build());
+    }
+
+    @Test
+    void check_AddsMissingAndRemovesStaleEntries() {
+        overdueSetService.add(List.of(current.getId()));
+        jdbcTemplate.update("INSERT INTO overdue_loans (borrowing_id, user_id, book_id, due_date, overdue_since) VALUES (?, ?, ?, ?, ?)",
+                current.getId(), patron.getId(), book.getId(), current.getDueDate(), LocalDate.now());
+
+        OverdueConsistencyChecker.Result result = consistencyChecker.check();
+
+        assertEquals(List.of(overdue.getId()), result.missing());
+        assertEquals(List.of(current.getId()), result.stale());
+        assertEquals(List.of(overdue.getId()), overdueLoanRepository.findBorrowingIds());
+        assertTrue(consistencyChecker.check().isConsistent());
+    }
+
+    @Test
+    void returnBook_RemovesEntryAndInvalidatesList() {
+        overdueSetService.add(List.of(overdue.getId(), current.getId()));
+        List<BookResponse> before = overdueSetService.getOverdueBooks();
+        assertEquals(1, before.size());
+        assertEquals("Late Book", before.get(0).title());
+
+        borrowingService.returnBook(patron.getId(), overdue.getId());
+
+        assertEquals(List.of(), overdueLoanRepository.findBorrowingIds());
+        assertEquals(List.of(), overdueSetService.getOverdueBooks());
+    }
+
+    @Test
+    void writeOverdueBooksReport_ReadsFromSet() {
+        overdueSetService.add(List.of(overdue.getId()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = borrowingService.writeOverdueBooksReport(OverdueReportFormat.CSV, out);
+
+        assertEquals(1, count);
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("Late Book"));
+    }
+}
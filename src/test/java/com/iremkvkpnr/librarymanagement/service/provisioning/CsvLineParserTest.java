@@ -0,0 +1,26 @@
+package com.iremkvkpnr.librarymanagement.service.provisioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvLineParserTest {
+
+    @Test
+    void parse_PlainFields_SplitsAndTrims() {
+        assertEquals(List.of("a", "b", "", "d"), CsvLineParser.parse("a, b ,,d"));
+    }
+
+    @Test
+    void parse_QuotedFields_KeepCommasAndEscapedQuotes() {
+        assertEquals(List.of("Doe, Jane", "say \"hi\"", "x"), CsvLineParser.parse("\"Doe, Jane\",\"say \"\"hi\"\"\",x"));
+    }
+
+    @Test
+    void parse_UnterminatedQuote_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> CsvLineParser.parse("\"open,field"));
+    }
+}
@@ -0,0 +1,34 @@
+package com.iremkvkpnr.librarymanagement.service.report;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NdjsonWriterTest {
+
+    private final NdjsonWriter writer = new NdjsonWriter(new ObjectMapper());
+
+    @Test
+    void write_OneObjectPerLineWithoutFlushingEachRow() {
+        int[] flushes = {0};
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        };
+
+        long count = writer.write(Stream.of(Map.of("id", 1), Map.of("id", 2), Map.of("id", 3)), out);
+
+        assertEquals(3, count);
+        assertEquals("{\"id\":1}\n{\"id\":2}\n{\"id\":3}\n", out.toString(StandardCharsets.UTF_8));
+        // Only the final flush when the generator is closed
+        assertEquals(1, flushes[0]);
+    }
+}
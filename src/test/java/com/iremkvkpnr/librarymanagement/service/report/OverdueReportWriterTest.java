@@ -0,0 +1,76 @@
+package com.iremkvkpnr.librarymanagement.service.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iremkvkpnr.librarymanagement.model.dto.response.OverdueReportRow;
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+import com.iremkvkpnr.librarymanagement.model.exception.BorrowingValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverdueReportWriterTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OverdueReportWriter writer = new OverdueReportWriter(new NdjsonWriter(objectMapper));
+
+    private final OverdueReportRow first = new OverdueReportRow(1L, "Dune, Part One", "Test \"User\"", "user@test.com",
+            LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 15), Borrowing.Status.OVERDUE);
+    private final OverdueReportRow second = new OverdueReportRow(2L, "Emma", "Other User", "other@test.com",
+            LocalDate.of(2024, 2, 20), LocalDate.of(2024, 3, 5), Borrowing.Status.BORROWED);
+
+    @Test
+    void write_Text() {
+        String report = write(OverdueReportFormat.TEXT, first, second);
+
+        assertTrue(report.startsWith("OVERDUE BOOKS REPORT"));
+        assertTrue(report.contains("Dune, Part One | Test \"User\" | 2024-02-01 | 2024-02-15 | 24 | OVERDUE"));
+        assertTrue(report.endsWith("Total Overdue Books: 2\n"));
+    }
+
+    @Test
+    void write_TextWithoutRows() {
+        assertEquals("No overdue books currently.", write(OverdueReportFormat.TEXT));
+    }
+
+    @Test
+    void write_CsvQuotesSpecialCharacters() {
+        String[] lines = write(OverdueReportFormat.CSV, first, second).split("\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("borrowing_id,"));
+        assertEquals("1,\"Dune, Part One\",\"Test \"\"User\"\"\",user@test.com,2024-02-01,2024-02-15,24,OVERDUE", lines[1]);
+        assertEquals("2,Emma,Other User,other@test.com,2024-02-20,2024-03-05,5,BORROWED", lines[2]);
+    }
+
+    @Test
+    void write_NdjsonOneObjectPerLine() throws Exception {
+        String[] lines = write(OverdueReportFormat.NDJSON, first, second).split("\n");
+
+        assertEquals(2, lines.length);
+        JsonNode node = objectMapper.readTree(lines[0]);
+        assertEquals(1L, node.get("borrowingId").asLong());
+        assertEquals("Test \"User\"", node.get("userName").asText());
+        assertEquals("2024-02-15", node.get("dueDate").asText());
+        assertEquals(24, node.get("overdueDays").asInt());
+    }
+
+    @Test
+    void from_UnknownFormat() {
+        assertEquals(OverdueReportFormat.NDJSON, OverdueReportFormat.from("ndjson"));
+        assertThrows(BorrowingValidationException.class, () -> OverdueReportFormat.from("xml"));
+    }
+
+    private String write(OverdueReportFormat format, OverdueReportRow... rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(Stream.of(rows), format, TODAY, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,145 @@
+package com.iremkvkpnr.librarymanagement.service.sweep;
+
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+import com.iremkvkpnr.librarymanagement.model.entity.JobCheckpoint;
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction: chunks are written by worker threads in their own transactions.
+ */
+@SpringBootTest(properties = {"application.overdue-sweep.chunk-size=2", "application.overdue-sweep.parallelism=4"})
+@ActiveProfiles("test")
+class OverdueSweepJobIntegrationTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private OverdueSweepJob sweepJob;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User late;
+    private User veryLate;
+    private User recovered;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        late = userRepository.save(patron("late@test.com"));
+        veryLate = userRepository.save(patron("very-late@test.com"));
+        recovered = userRepository.save(patron("recovered@test.com"));
+        Book newBook = new Book();
+        newBook.setTitle("Sweep Book");
+        newBook.setAuthor("Test Author");
+        newBook.setIsbn("1234567890");
+        newBook.setGenre(Book.Genre.FICTION);
+        newBook.setTotalCopies(10);
+        newBook.setAvailableCopies(5);
+        book = bookRepository.save(newBook);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("overdue_reminders", "user_standings", "batch_job_checkpoints", "overdue_loans", "borrowing_view")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        borrowingRepository.deleteAll();
+        userRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void sweep_MarksOverdueRemindsAndUpdatesStanding() {
+        Borrowing oneDay = loan(late, 1);
+        Borrowing threeDays = loan(late, 3);
+        Borrowing longOverdue = loan(veryLate, 43);
+        Borrowing notDue = loan(veryLate, -2);
+        jdbcTemplate.update("INSERT INTO user_standings (user_id, standing, overdue_loans, max_days_overdue, run_date, updated_at) " +
+                "VALUES (?, 'WARNING', 1, 3, ?, CURRENT_TIMESTAMP)", recovered.getId(), TODAY.minusDays(1));
+
+        JobCheckpoint checkpoint = sweepJob.sweep(TODAY);
+
+        assertEquals(JobCheckpoint.Status.COMPLETED, checkpoint.getStatus());
+        assertEquals(3, checkpoint.getItemsProcessed());
+        assertEquals(Borrowing.Status.OVERDUE, borrowingRepository.findById(threeDays.getId()).orElseThrow().getStatus());
+        assertEquals(Borrowing.Status.BORROWED, borrowingRepository.findById(notDue.getId()).orElseThrow().getStatus());
+        // Day 1 and day 43 are reminder days with a 7 day interval, day 3 is not
+        assertEquals(List.of(oneDay.getId(), longOverdue.getId()),
+                jdbcTemplate.queryForList("SELECT borrowing_id FROM overdue_reminders ORDER BY borrowing_id", Long.class));
+        assertEquals(Map.of(late.getId(), "WARNING", veryLate.getId(), "SUSPENDED", recovered.getId(), "GOOD"), standings());
+
+        sweepJob.sweep(TODAY);
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM overdue_reminders", Integer.class));
+    }
+
+    @Test
+    void sweep_UserSpanningParallelChunks_GetsOneStandingFromAllLoans() {
+        // Chunks of two: the first chunk holds two loans of the user, the second and third hold one each
+        loan(late, 2);
+        loan(late, 5);
+        loan(late, 35);
+        loan(veryLate, 1);
+        loan(late, 1);
+
+        JobCheckpoint checkpoint = sweepJob.sweep(TODAY);
+
+        assertEquals(JobCheckpoint.Status.COMPLETED, checkpoint.getStatus());
+        assertEquals(5, checkpoint.getItemsProcessed());
+        assertEquals(Map.of(late.getId(), "SUSPENDED", veryLate.getId(), "WARNING"), standings());
+        Map<String, Object> standing = jdbcTemplate.queryForMap(
+                "SELECT overdue_loans, max_days_overdue FROM user_standings WHERE user_id = ?", late.getId());
+        assertEquals(4, ((Number) standing.get("OVERDUE_LOANS")).intValue());
+        assertEquals(35, ((Number) standing.get("MAX_DAYS_OVERDUE")).intValue());
+    }
+
+    private Map<Long, String> standings() {
+        Map<Long, String> standings = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, standing FROM user_standings", rs -> {
+            standings.put(rs.getLong("user_id"), rs.getString("standing"));
+        });
+        return standings;
+    }
+
+    private Borrowing loan(User user, int daysOverdue) {
+        LocalDate dueDate = TODAY.minusDays(daysOverdue);
+        return borrowingRepository.save(Borrowing.builder()
+                .user(user).book(book).borrowDate(dueDate.minusWeeks(2)).dueDate(dueDate)
+                .status(Borrowing.Status.BORROWED).build());
+    }
+
+    private User patron(String email) {
+        return User.builder()
+                .name("Patron").email(email).password("password")
+                .phone("1234567890").role(User.Role.PATRON).build();
+    }
+}
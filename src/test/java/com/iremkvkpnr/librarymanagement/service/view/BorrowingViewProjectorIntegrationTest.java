@@ -0,0 +1,148 @@
+package com.iremkvkpnr.librarymanagement.service.view;
+
+import com.iremkvkpnr.librarymanagement.model.dto.request.BookRequest;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingHistoryRow;
+import com.iremkvkpnr.librarymanagement.model.dto.response.BorrowingResponse;
+import com.iremkvkpnr.librarymanagement.model.entity.Book;
+import com.iremkvkpnr.librarymanagement.model.entity.Borrowing;
+import com.iremkvkpnr.librarymanagement.model.entity.User;
+import com.iremkvkpnr.librarymanagement.repository.BookRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingRepository;
+import com.iremkvkpnr.librarymanagement.repository.BorrowingViewRepository;
+import com.iremkvkpnr.librarymanagement.repository.UserRepository;
+import com.iremkvkpnr.librarymanagement.service.BookService;
+import com.iremkvkpnr.librarymanagement.service.BorrowingService;
+import com.iremkvkpnr.librarymanagement.service.HoldService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BorrowingViewProjectorIntegrationTest {
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private BorrowingViewRepository borrowingViewRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private User patron;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        borrowingRepository.deleteAll();
+        userRepository.deleteAll();
+        bookRepository.deleteAll();
+        borrowingViewRepository.rebuild();
+
+        patron = userRepository.save(User.builder()
+                .name("Patron").email("patron@test.com").password("password")
+                .phone("1234567890").role(User.Role.PATRON).build());
+        Book newBook = new Book();
+        newBook.setTitle("View Book");
+        newBook.setAuthor("Test Author");
+        newBook.setIsbn("1234567890");
+        newBook.setGenre(Book.Genre.FICTION);
+        newBook.setTotalCopies(1);
+        newBook.setAvailableCopies(1);
+        book = bookRepository.save(newBook);
+    }
+
+    @Test
+    void borrowAndReturn_AreProjected() {
+        BorrowingResponse borrowing = borrowingService.borrowBook(patron.getId(), book.getId());
+
+        BorrowingHistoryRow borrowed = borrowingViewRepository.findUserHistory(patron.getId()).get(0);
+        assertEquals(borrowing.id(), borrowed.id());
+        assertEquals("View Book", borrowed.bookTitle());
+        assertEquals("Patron", borrowed.userName());
+        assertEquals(Borrowing.Status.BORROWED, borrowed.status());
+        assertNull(borrowed.returnDate());
+
+        borrowingService.returnBook(patron.getId(), borrowing.id());
+
+        BorrowingHistoryRow returned = borrowingViewRepository.findUserHistory(patron.getId()).get(0);
+        assertEquals(Borrowing.Status.RETURNED, returned.status());
+        assertEquals(LocalDate.now(), returned.returnDate());
+    }
+
+    @Test
+    void batchBorrowAndReturn_AreProjected() {
+        Book second = new Book();
+        second.setTitle("Second Book");
+        second.setAuthor("Test Author");
+        second.setIsbn("0987654321");
+        second.setGenre(Book.Genre.FICTION);
+        second.setTotalCopies(1);
+        second.setAvailableCopies(1);
+        second = bookRepository.save(second);
+
+        List<BorrowingResponse> borrowings = borrowingService.borrowBooks(patron.getId(), List.of(book.getId(), second.getId()));
+
+        List<BorrowingHistoryRow> borrowed = borrowingViewRepository.findUserHistory(patron.getId());
+        assertEquals(2, borrowed.size());
+        assertTrue(borrowed.stream().allMatch(row -> row.status() == Borrowing.Status.BORROWED));
+        assertTrue(borrowed.stream().allMatch(row -> LocalDate.now().plusWeeks(2).equals(row.dueDate())));
+
+        borrowingService.returnBooks(borrowings.stream().map(BorrowingResponse::id).toList(), null);
+
+        List<BorrowingHistoryRow> returned = borrowingViewRepository.findUserHistory(patron.getId());
+        assertEquals(2, returned.size());
+        assertTrue(returned.stream().allMatch(row -> row.status() == Borrowing.Status.RETURNED));
+        assertTrue(returned.stream().allMatch(row -> LocalDate.now().equals(row.returnDate())));
+    }
+
+    @Test
+    void bookUpdate_IsCopiedToLoans() {
+        borrowingService.borrowBook(patron.getId(), book.getId());
+
+        bookService.updateBook(book.getId(), new BookRequest("Renamed", "Other Author", null, null, 0, null));
+
+        BorrowingHistoryRow row = borrowingViewRepository.findUserHistory(patron.getId()).get(0);
+        assertEquals("Renamed", row.bookTitle());
+        assertEquals("Other Author", row.bookAuthor());
+    }
+
+    @Test
+    void hold_EntersViewOnlyWhenFulfilled() {
+        User other = userRepository.save(User.builder()
+                .name("Other").email("other@test.com").password("password")
+                .phone("1234567890").role(User.Role.PATRON).build());
+        BorrowingResponse borrowing = borrowingService.borrowBook(other.getId(), book.getId());
+        holdService.placeHold(patron.getId(), book.getId());
+
+        assertEquals(List.of(), borrowingViewRepository.findUserHistory(patron.getId()));
+
+        borrowingService.returnBook(other.getId(), borrowing.id());
+
+        List<BorrowingHistoryRow> history = borrowingViewRepository.findUserHistory(patron.getId());
+        assertEquals(1, history.size());
+        assertEquals(Borrowing.Status.BORROWED, history.get(0).status());
+    }
+}